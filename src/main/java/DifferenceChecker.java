@@ -1,10 +0,0 @@
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-
-public class DifferenceChecker {
-
-    // not sure if it works, will need to wait for update to see
-    public void UpdateChecker(String oldPath, String newPath){
-    }
-}
@@ -0,0 +1,224 @@
+package datamodel;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import datamodel.objects.Article;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compares a changed article with its session counterpart field by field.
+ * <p>
+ * Articles are compared through their JSON form, so fields are named as they are in an export, and nested maps are
+ * compared entry by entry: a recipe whose costs changed lists the costs that were added, removed or modified rather than
+ * the whole map. Lists of plain values, such as the items of a bench category, are compared by their elements, so that
+ * an element added in the middle is not reported as every later element changing; lists of objects are compared by
+ * index.
+ * <p>
+ * Diffs are computed when first asked for, and cached by category and path along with the fingerprints of both articles,
+ * so a cached diff is used until either of them changes.
+ */
+public class ArticleDiff {
+
+    public enum Kind {
+        ADDED,
+        REMOVED,
+        MODIFIED
+    }
+
+    private final Gson serializer;
+    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+
+    public ArticleDiff(Gson serializer) {
+        this.serializer = serializer;
+    }
+
+    /**
+     * @param session the article in the session, or null if the changed article is new
+     * @param changed the changed article, or null if it was removed
+     * @return the changes from the session article to the changed article, ordered by field
+     */
+    public List<Change> diff(String category, String path, Article session, Article changed) {
+        long sessionFingerprint = session == null ? 0 : session.getFingerprint();
+        long changedFingerprint = changed == null ? 0 : changed.getFingerprint();
+        // category names hold no slash, so the key is unique even though paths do
+        String key = category + "/" + path;
+        CacheEntry entry = cache.get(key);
+        if (entry == null || entry.sessionFingerprint != sessionFingerprint || entry.changedFingerprint != changedFingerprint) {
+            List<Change> changes = new ArrayList<>();
+            if (sessionFingerprint != changedFingerprint) {
+                compare("", toTree(session), toTree(changed), changes);
+            }
+            entry = new CacheEntry(sessionFingerprint, changedFingerprint, Collections.unmodifiableList(changes));
+            cache.put(key, entry);
+        }
+        return entry.changes;
+    }
+
+    /**
+     * Compares the content of a string, which is not cached as it is a single field.
+     *
+     * @param session the content in the session, or null if the string is new
+     */
+    public List<Change> diffString(String session, String changed) {
+        List<Change> changes = new ArrayList<>();
+        compare("", toElement(session), toElement(changed), changes);
+        return changes;
+    }
+
+    /**
+     * Drops every cached diff, such as when another session is loaded.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private JsonElement toTree(Article article) {
+        return article == null ? null : serializer.toJsonTree(article);
+    }
+
+    private static JsonElement toElement(String value) {
+        return value == null ? null : new JsonPrimitive(value);
+    }
+
+    /**
+     * Adds the changes from a to b to the list, where a missing element is null and JSON null is a value like any other.
+     */
+    static void compare(String path, JsonElement a, JsonElement b, List<Change> changes) {
+        if (a == null && b == null) return;
+        if (a != null && b != null && a.isJsonObject() && b.isJsonObject()) {
+            compareObjects(path, a.getAsJsonObject(), b.getAsJsonObject(), changes);
+        } else if (a != null && b != null && a.isJsonArray() && b.isJsonArray()) {
+            compareArrays(path, a.getAsJsonArray(), b.getAsJsonArray(), changes);
+        } else if (a == null && b.isJsonObject() && b.getAsJsonObject().size() > 0) {
+            compareObjects(path, new JsonObject(), b.getAsJsonObject(), changes);
+        } else if (b == null && a.isJsonObject() && a.getAsJsonObject().size() > 0) {
+            compareObjects(path, a.getAsJsonObject(), new JsonObject(), changes);
+        } else if (a == null) {
+            changes.add(new Change(path, Kind.ADDED, null, b));
+        } else if (b == null) {
+            changes.add(new Change(path, Kind.REMOVED, a, null));
+        } else if (!a.equals(b)) {
+            changes.add(new Change(path, Kind.MODIFIED, a, b));
+        }
+    }
+
+    private static void compareObjects(String path, JsonObject a, JsonObject b, List<Change> changes) {
+        Set<String> keys = new TreeSet<>();
+        for (Map.Entry<String, JsonElement> entry : a.entrySet()) keys.add(entry.getKey());
+        for (Map.Entry<String, JsonElement> entry : b.entrySet()) keys.add(entry.getKey());
+        for (String key : keys) {
+            compare(path.isEmpty() ? key : path + "[" + key + "]", a.get(key), b.get(key), changes);
+        }
+    }
+
+    private static void compareArrays(String path, JsonArray a, JsonArray b, List<Change> changes) {
+        if (a.equals(b)) return;
+        if (!isPlain(a) || !isPlain(b)) {
+            for (int i = 0; i < Math.max(a.size(), b.size()); i++) {
+                compare(path + "[" + i + "]", i < a.size() ? a.get(i) : null, i < b.size() ? b.get(i) : null, changes);
+            }
+            return;
+        }
+
+        // counts is left with the elements that only a has, and added holds those that only b has
+        Map<JsonElement, Integer> counts = new HashMap<>();
+        for (JsonElement element : a) counts.merge(element, 1, Integer::sum);
+        List<JsonElement> added = new ArrayList<>();
+        for (JsonElement element : b) {
+            Integer count = counts.get(element);
+            if (count == null) added.add(element);
+            else if (count == 1) counts.remove(element);
+            else counts.put(element, count - 1);
+        }
+        int size = changes.size();
+        for (JsonElement element : a) {
+            Integer count = counts.get(element);
+            if (count == null) continue;
+            changes.add(new Change(path, Kind.REMOVED, element, null));
+            if (count == 1) counts.remove(element);
+            else counts.put(element, count - 1);
+        }
+        for (JsonElement element : added) changes.add(new Change(path, Kind.ADDED, null, element));
+        // the same elements in another order
+        if (changes.size() == size) changes.add(new Change(path, Kind.MODIFIED, a, b));
+    }
+
+    private static boolean isPlain(JsonArray array) {
+        for (JsonElement element : array) {
+            if (element.isJsonObject() || element.isJsonArray()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * A change to a field, or to an entry of a map or list. Values are JSON, as they would be exported.
+     */
+    public static class Change {
+        private final String path;
+        private final Kind kind;
+        private final JsonElement oldValue;
+        private final JsonElement newValue;
+
+        private Change(String path, Kind kind, JsonElement oldValue, JsonElement newValue) {
+            this.path = path;
+            this.kind = kind;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+
+        /**
+         * @return the field, followed by the keys or indices of the entry in brackets; empty for the value of a string
+         */
+        public String getPath() {
+            return path;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * @return the value in the session, or null if it was added
+         */
+        public JsonElement getOldValue() {
+            return oldValue;
+        }
+
+        /**
+         * @return the changed value, or null if it was removed
+         */
+        public JsonElement getNewValue() {
+            return newValue;
+        }
+
+        @Override
+        public String toString() {
+            String field = path.isEmpty() ? "" : path + ": ";
+            switch (kind) {
+                case ADDED:
+                    return "+ " + field + newValue;
+                case REMOVED:
+                    return "- " + field + oldValue;
+                default:
+                    return "~ " + field + oldValue + " -> " + newValue;
+            }
+        }
+    }
+
+    private static class CacheEntry {
+        private final long sessionFingerprint;
+        private final long changedFingerprint;
+        private final List<Change> changes;
+
+        private CacheEntry(long sessionFingerprint, long changedFingerprint, List<Change> changes) {
+            this.sessionFingerprint = sessionFingerprint;
+            this.changedFingerprint = changedFingerprint;
+            this.changes = changes;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package datamodel;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression applied to an export as it is written, and undone as it is read. Codecs wrap streams, so exports are
+ * compressed and decompressed a buffer at a time and are never held in memory as a whole.
+ * <p>
+ * A compressed export is named after its uncompressed name with the codec's extension appended, which is how the codec
+ * is found again when the export is loaded.
+ */
+public interface Codec {
+
+    int BUFFER_SIZE = 64 * 1024;
+
+    Codec NONE = new Codec() {
+        @Override
+        public String getName() {
+            return "none";
+        }
+
+        @Override
+        public String getExtension() {
+            return "";
+        }
+
+        @Override
+        public OutputStream compress(OutputStream out) {
+            return out;
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) {
+            return in;
+        }
+    };
+
+    /**
+     * GZIP from java.util.zip. Appending to a file in this format adds a member to it, which is read back as if the
+     * members were one stream.
+     */
+    Codec GZIP = new Codec() {
+        @Override
+        public String getName() {
+            return "gzip";
+        }
+
+        @Override
+        public String getExtension() {
+            return ".gz";
+        }
+
+        @Override
+        public OutputStream compress(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+    };
+
+    List<Codec> CODECS = Arrays.asList(NONE, GZIP);
+
+    String getName();
+
+    /**
+     * @return the extension appended to the names of exports compressed by this codec, or an empty string
+     */
+    String getExtension();
+
+    /**
+     * @return a stream that compresses what is written to it into out; closing it closes out
+     */
+    OutputStream compress(OutputStream out) throws IOException;
+
+    /**
+     * @return a stream that decompresses what is read from in; closing it closes in
+     */
+    InputStream decompress(InputStream in) throws IOException;
+
+    /**
+     * @return the codec the file at the path was written with, judged by its extension
+     */
+    static Codec forPath(String path) {
+        for (Codec codec : CODECS) {
+            if (codec != NONE && path.toLowerCase().endsWith(codec.getExtension())) return codec;
+        }
+        return NONE;
+    }
+
+    /**
+     * @return the path without the extension of the codec it was written with
+     */
+    static String stripExtension(String path) {
+        return path.substring(0, path.length() - forPath(path).getExtension().length());
+    }
+
+    static OutputStream newOutputStream(File file, boolean append, Codec codec) throws IOException {
+        OutputStream out = new FileOutputStream(file, append);
+        try {
+            return codec.compress(new BufferedOutputStream(out, BUFFER_SIZE));
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    static InputStream newInputStream(File file, Codec codec) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            return codec.decompress(new BufferedInputStream(in, BUFFER_SIZE));
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+}
@@ -2,28 +2,28 @@ package datamodel;
 
 import datamodel.objects.*;
 import datamodel.objects.Collection;
+import datamodel.parser.BinfabBuffer;
 import datamodel.parser.Parser;
 import datamodel.parser.parsestrategies.ParseException;
 import javafx.collections.FXCollections;
+import javafx.collections.MapChangeListener;
+import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 
 public class DataModel {
 
     Parser parser = new Parser();
     Map<String, String> blueprintMap = null;
+    ParseCache parseCache = new ParseCache(ParseCache.getDefaultDirectory());
 
-    Map<String, Bench> sessionBenches = new HashMap<>();
-    Map<String, Collection> sessionCollections = new HashMap<>();
-    Map<String, CollectionIndex> sessionCollectionIndices = new HashMap<>();
-    Map<String, GearStyleType> sessionGearStyleTypes = new HashMap<>();
-    Map<String, Item> sessionItems = new HashMap<>();
-    Map<String, Placeable> sessionPlaceables = new HashMap<>();
-    Map<String, Recipe> sessionRecipes = new HashMap<>();
-    Map<String, Skin> sessionSkins = new HashMap<>();
-    Strings sessionStrings = new Strings("en", new HashMap<>());
+    // the session data, as a version per merge
+    SessionHistory sessionHistory = new SessionHistory(SessionHistory.DEFAULT_RETAINED_VERSIONS);
+    String sessionLang = "en";
 
     ObservableMap<String, Bench> changedBenches = FXCollections.observableHashMap();
     ObservableMap<String, Collection> changedCollections = FXCollections.observableHashMap();
@@ -45,6 +45,50 @@ public class DataModel {
     List<String> mergedSkinPaths = new ArrayList<>();
     List<String> mergedStringIds = new ArrayList<>();
 
+    List<ChangesListener> changesListeners = new CopyOnWriteArrayList<>();
+
+    // the sorted paths of each type of changes, and what was added to and removed from the changes since they were updated
+    Map<Enums.ObjectType, SortedPathList> changedPathLists = new EnumMap<>(Enums.ObjectType.class);
+    Map<Enums.ObjectType, SearchIndex> changedPathIndices = new EnumMap<>(Enums.ObjectType.class);
+    Map<Enums.ObjectType, Set<String>> addedChangedPaths = new EnumMap<>(Enums.ObjectType.class);
+    Map<Enums.ObjectType, Set<String>> removedChangedPaths = new EnumMap<>(Enums.ObjectType.class);
+    Executor changedPathsExecutor = Runnable::run;
+
+    public DataModel() {
+        trackChangedPaths(Enums.ObjectType.BENCH, changedBenches);
+        trackChangedPaths(Enums.ObjectType.COLLECTION, changedCollections);
+        trackChangedPaths(Enums.ObjectType.COLL_INDEX, changedCollectionIndices);
+        trackChangedPaths(Enums.ObjectType.GEAR_STYLE, changedGearStyleTypes);
+        trackChangedPaths(Enums.ObjectType.ITEM, changedItems);
+        trackChangedPaths(Enums.ObjectType.PLACEABLE, changedPlaceables);
+        trackChangedPaths(Enums.ObjectType.RECIPE, changedRecipes);
+        trackChangedPaths(Enums.ObjectType.SKIN, changedSkins);
+        trackChangedPaths(Enums.ObjectType.LANG_FILE, changedStrings);
+    }
+
+    /**
+     * Records the paths added to and removed from the changes of a type, so that its sorted list only has to be told
+     * about those. A path removed and added back before the list is updated cancels out.
+     */
+    private <V> void trackChangedPaths(Enums.ObjectType type, ObservableMap<String, V> changes) {
+        Set<String> added = new HashSet<>();
+        Set<String> removed = new HashSet<>();
+        changedPathLists.put(type, new SortedPathList());
+        changedPathIndices.put(type, new SearchIndex());
+        addedChangedPaths.put(type, added);
+        removedChangedPaths.put(type, removed);
+        changes.addListener((MapChangeListener.Change<? extends String, ? extends V> c) -> {
+            // a path that gets a new value stays where it is
+            if (c.wasAdded() == c.wasRemoved()) return;
+            String path = c.getKey();
+            if (c.wasAdded()) {
+                if (!removed.remove(path)) added.add(path);
+            } else if (!added.remove(path)) {
+                removed.add(path);
+            }
+        });
+    }
+
     public void createBlueprintMapping(String dirPath) throws IOException {
         blueprintMap = parser.getObjectBlueprintMappingFromDir(dirPath);
     }
@@ -52,138 +96,197 @@ public class DataModel {
     // CREATING OBJECTS
 
     public void createObject(String absPath, Enums.ObjectType type, boolean useRPath) throws IOException, ParseException {
-        Enums.ObjectType inputType = type == Enums.ObjectType.PROFESSION ? Enums.ObjectType.BENCH : type;
+        addArticleToChanges(parseObject(absPath, type, useRPath), getChangesType(type), false);
+    }
+
+    /**
+     * Parses a file without touching any of the data held by the model, so this can be called from several threads at
+     * once. The result should be passed on to {@link #addArticleToChanges} or {@link #addArticlesToChanges}.
+     */
+    public Article parseObject(String absPath, Enums.ObjectType type, boolean useRPath) throws IOException, ParseException {
+        Article a = parseOrLoadCached(absPath, type, useRPath);
         if (type == Enums.ObjectType.PLACEABLE) {
-            Placeable p = (Placeable) parser.createObject(absPath, type, useRPath);
+            Placeable p = (Placeable) a;
             if (p.getBlueprint() == null && blueprintMap != null && blueprintMap.containsKey(p.getRPath())) {
                 p.setBlueprint(blueprintMap.get(p.getRPath()));
             }
-            addArticleToChanges(p, type, false);
-        } else {
-            addArticleToChanges(parser.createObject(absPath, type, useRPath), inputType, false);
         }
+        // computed here, on the parsing thread, so that comparing the article with the session later is cheap
+        if (a != null) a.getFingerprint();
+        return a;
+    }
+
+    /**
+     * Serves the article from the parse cache if the file is unchanged since it was cached, and parses and caches it
+     * otherwise. The blueprint map is applied afterwards, as it does not come from the file itself.
+     */
+    private Article parseOrLoadCached(String absPath, Enums.ObjectType type, boolean useRPath) throws IOException, ParseException {
+        ParseCache cache = parseCache;
+        if (cache == null) return parser.createObject(absPath, type, useRPath);
+
+        BinfabBuffer buffer = parser.readBuffer(absPath);
+        String key = cache.key(buffer, type, useRPath ? "r:" + Parser.extractRPath(absPath) : "a:" + absPath);
+        Article a = cache.get(key, type);
+        if (a == null) {
+            a = parser.createObject(buffer, absPath, type, useRPath);
+            if (a != null) cache.put(key, a);
+        }
+        return a;
+    }
+
+    public ParseCache getParseCache() {
+        return parseCache;
+    }
+
+    /**
+     * @param parseCache the cache to use, or null to always parse files
+     */
+    public void setParseCache(ParseCache parseCache) {
+        this.parseCache = parseCache;
+    }
+
+    /**
+     * @return the type under which articles parsed with the given type are stored
+     */
+    public static Enums.ObjectType getChangesType(Enums.ObjectType type) {
+        return type == Enums.ObjectType.PROFESSION ? Enums.ObjectType.BENCH : type;
     }
 
     // GETTERS - SESSION DATA
+    // each returns a read-only snapshot of the current version, which later merges leave as it is
 
     public Map<String, Bench> getSessionBenches() {
-        return sessionBenches;
+        return getSessionArticles(Enums.ObjectType.BENCH);
     }
 
     public Map<String, Collection> getSessionCollections() {
-        return sessionCollections;
+        return getSessionArticles(Enums.ObjectType.COLLECTION);
     }
 
     public Map<String, Item> getSessionItems() {
-        return sessionItems;
+        return getSessionArticles(Enums.ObjectType.ITEM);
     }
 
     public Map<String, Placeable> getSessionPlaceables() {
-        return sessionPlaceables;
+        return getSessionArticles(Enums.ObjectType.PLACEABLE);
     }
 
     public Map<String, Recipe> getSessionRecipes() {
-        return sessionRecipes;
+        return getSessionArticles(Enums.ObjectType.RECIPE);
     }
 
-    public Strings getSessionStrings() {
-        return sessionStrings;
+    public synchronized Strings getSessionStrings() {
+        return new Strings(sessionLang, sessionHistory.getCurrent().getStrings());
     }
 
     public Map<String, CollectionIndex> getSessionCollectionIndices() {
-        return sessionCollectionIndices;
+        return getSessionArticles(Enums.ObjectType.COLL_INDEX);
     }
 
     public Map<String, GearStyleType> getSessionGearStyleTypes() {
-        return sessionGearStyleTypes;
+        return getSessionArticles(Enums.ObjectType.GEAR_STYLE);
     }
 
     public Map<String, Skin> getSessionSkins() {
-        return sessionSkins;
+        return getSessionArticles(Enums.ObjectType.SKIN);
     }
 
     // SETTERS
 
-    public void addArticleToSession(Article a, Enums.ObjectType type) {
-        switch (type) {
-            case BENCH:
-                sessionBenches.put(a.getRPath(), (Bench) a);
-                break;
-            case COLLECTION:
-                sessionCollections.put(a.getRPath(), (Collection) a);
-                break;
-            case COLL_INDEX:
-                sessionCollectionIndices.put(a.getRPath(), (CollectionIndex) a);
-                break;
-            case GEAR_STYLE:
-                sessionGearStyleTypes.put(a.getRPath(), (GearStyleType) a);
-                break;
-            case ITEM:
-                sessionItems.put(a.getRPath(), (Item) a);
-                break;
-            case PLACEABLE:
-                sessionPlaceables.put(a.getRPath(), (Placeable) a);
-                break;
-            case RECIPE:
-                sessionRecipes.put(a.getRPath(), (Recipe) a);
-                break;
-            case SKIN:
-                sessionSkins.put(a.getRPath(), (Skin) a);
-                break;
-            case LANG_FILE:
-                LangFile l = (LangFile) a;
-                l.getStrings().forEach((k, v) -> sessionStrings.upsertString(k, v));
-                break;
-            default:
-                throw new IllegalArgumentException("No such type: " + type);
+    /**
+     * Adds a single article to the session as a new version, which can be undone like a merge. Loaders add many at once
+     * through {@link #beginSessionLoad} instead.
+     */
+    public synchronized void addArticleToSession(Article a, Enums.ObjectType type) {
+        SessionHistory.Version version = sessionHistory.getCurrent();
+        if (type == Enums.ObjectType.LANG_FILE) {
+            PersistentMap<String, String> strings = version.getStrings();
+            for (Map.Entry<String, String> entry : ((LangFile) a).getStrings().entrySet()) {
+                strings = strings.plus(entry.getKey(), entry.getValue());
+            }
+            sessionHistory.commitEdit(version.getAllArticles(), strings, "strings added");
+        } else {
+            PersistentMap<String, Article> session = getSessionMap(type).plus(a.getRPath(), a);
+            sessionHistory.commitEdit(withArticles(version, type, session), version.getStrings(), type + " " + a.getRPath() + " added");
         }
     }
 
-    public void addArticleToChanges(Article a, Enums.ObjectType type, boolean forceAdd) {
+    /**
+     * Starts loading articles and strings into the session, on top of what it holds now.
+     */
+    public synchronized SessionLoad beginSessionLoad() {
+        return new SessionLoad(sessionHistory.getCurrent(), sessionLang);
+    }
+
+    public synchronized void addArticleToChanges(Article a, Enums.ObjectType type, boolean forceAdd) {
+        putChange(a, type, forceAdd);
+        fireChangesUpdated(type);
+    }
+
+    private void putChange(Article a, Enums.ObjectType type, boolean forceAdd) {
         String rPath = type != Enums.ObjectType.LANG_FILE ? a.getRPath() : null;
         switch (type) {
             case BENCH:
-                if (!sessionBenches.containsKey(rPath) || !sessionBenches.get(rPath).equals(a) || forceAdd)
+                if (isChanged(getSessionBenches().get(rPath), a) || forceAdd)
                     changedBenches.put(rPath, (Bench) a);
                 break;
             case COLLECTION:
-                if (!sessionCollections.containsKey(rPath) || !sessionCollections.get(rPath).equals(a) || forceAdd)
+                if (isChanged(getSessionCollections().get(rPath), a) || forceAdd)
                     changedCollections.put(rPath, (Collection) a);
                 break;
             case COLL_INDEX:
-                if (!sessionCollectionIndices.containsKey(rPath) || !sessionCollectionIndices.get(rPath).equals(a) || forceAdd)
+                if (isChanged(getSessionCollectionIndices().get(rPath), a) || forceAdd)
                     changedCollectionIndices.put(rPath, (CollectionIndex) a);
                 break;
             case GEAR_STYLE:
-                if (!sessionGearStyleTypes.containsKey(rPath) || !sessionGearStyleTypes.get(rPath).equals(a) || forceAdd)
+                if (isChanged(getSessionGearStyleTypes().get(rPath), a) || forceAdd)
                     changedGearStyleTypes.put(rPath, (GearStyleType) a);
                 break;
             case ITEM:
-                if (!sessionItems.containsKey(rPath) || !sessionItems.get(rPath).equals(a) || forceAdd)
+                if (isChanged(getSessionItems().get(rPath), a) || forceAdd)
                     changedItems.put(a.getRPath(), (Item) a);
                 break;
             case PLACEABLE:
-                if (!sessionPlaceables.containsKey(rPath) || !sessionPlaceables.get(rPath).equals(a) || forceAdd)
+                if (isChanged(getSessionPlaceables().get(rPath), a) || forceAdd)
                     changedPlaceables.put(rPath, (Placeable) a);
                 break;
             case RECIPE:
-                if (!sessionRecipes.containsKey(rPath) || !sessionRecipes.get(rPath).equals(a) || forceAdd)
+                if (isChanged(getSessionRecipes().get(rPath), a) || forceAdd)
                     changedRecipes.put(rPath, (Recipe) a);
                 break;
             case SKIN:
-                if (!sessionSkins.containsKey(rPath) || !sessionSkins.get(rPath).equals(a) || forceAdd)
+                if (isChanged(getSessionSkins().get(rPath), a) || forceAdd)
                     changedSkins.put(rPath, (Skin) a);
                 break;
             case LANG_FILE:
                 LangFile l = (LangFile) a;
+                Map<String, String> sessionStrings = sessionHistory.getCurrent().getStrings();
                 l.getStrings().forEach((k, v) -> {
-                    if (!sessionStrings.hasString(k) || !Objects.equals(sessionStrings.getString(k), v) || forceAdd)
+                    if (!sessionStrings.containsKey(k) || !Objects.equals(sessionStrings.get(k), v) || forceAdd)
                         changedStrings.put(k, v);
                 });
                 break;
         }
     }
 
+    /**
+     * Articles are compared by fingerprint alone, so an unchanged article is told apart in constant time; the parse
+     * workers compute the fingerprints of new articles, and those of session articles are kept once computed. Articles
+     * with the same fingerprint are taken to be equal, as a collision between 64-bit fingerprints is vanishingly unlikely.
+     */
+    private static boolean isChanged(Article sessionArticle, Article a) {
+        return sessionArticle == null || sessionArticle.getFingerprint() != a.getFingerprint();
+    }
+
+    /**
+     * Adds a batch of parsed articles while holding the model's lock once, instead of once per article, and notifies
+     * listeners once for the whole batch.
+     */
+    public synchronized void addArticlesToChanges(List<Article> articles, Enums.ObjectType type) {
+        articles.forEach(a -> putChange(a, type, false));
+        fireChangesUpdated(type);
+    }
+
     /**
      * Removes an Article from the data.
      *
@@ -191,45 +294,337 @@ public class DataModel {
      * @param type              All ObjectTypes are valid besides PROFESSION and LANG_FILE. Inputting them results in no action.
      * @param removeFromChanges If true, removes from the changed data; else removes from session data.
      */
-    public void removeArticle(String identifier, Enums.ObjectType type, boolean removeFromChanges) {
+    public synchronized void removeArticle(String identifier, Enums.ObjectType type, boolean removeFromChanges) {
         switch (type) {
             case BENCH:
                 if (removeFromChanges) changedBenches.remove(identifier);
-                else sessionBenches.remove(identifier);
+                else removeFromSession(identifier, Enums.ObjectType.BENCH);
                 break;
             case COLLECTION:
                 if (removeFromChanges) changedCollections.remove(identifier);
-                else sessionCollections.remove(identifier);
+                else removeFromSession(identifier, Enums.ObjectType.COLLECTION);
                 break;
             case COLL_INDEX:
                 if (removeFromChanges) changedCollectionIndices.remove(identifier);
-                else sessionCollectionIndices.remove(identifier);
+                else removeFromSession(identifier, Enums.ObjectType.COLL_INDEX);
                 break;
             case GEAR_STYLE:
                 if (removeFromChanges) changedGearStyleTypes.remove(identifier);
-                else sessionGearStyleTypes.remove(identifier);
+                else removeFromSession(identifier, Enums.ObjectType.GEAR_STYLE);
                 break;
             case ITEM:
                 if (removeFromChanges) changedItems.remove(identifier);
-                else sessionItems.remove(identifier);
+                else removeFromSession(identifier, Enums.ObjectType.ITEM);
                 break;
             case PLACEABLE:
                 if (removeFromChanges) changedPlaceables.remove(identifier);
-                else sessionPlaceables.remove(identifier);
+                else removeFromSession(identifier, Enums.ObjectType.PLACEABLE);
                 break;
             case RECIPE:
                 if (removeFromChanges) changedRecipes.remove(identifier);
-                else sessionRecipes.remove(identifier);
+                else removeFromSession(identifier, Enums.ObjectType.RECIPE);
                 break;
             case SKIN:
                 if (removeFromChanges) changedSkins.remove(identifier);
-                else sessionSkins.remove(identifier);
+                else removeFromSession(identifier, Enums.ObjectType.SKIN);
                 break;
         }
+        if (removeFromChanges) fireChangesUpdated(type);
+    }
+
+    // a new version, which can be undone like a merge, unless nothing was removed
+    private void removeFromSession(String identifier, Enums.ObjectType type) {
+        SessionHistory.Version version = sessionHistory.getCurrent();
+        PersistentMap<String, Article> session = getSessionMap(type);
+        PersistentMap<String, Article> removed = session.minus(identifier);
+        if (removed != session) sessionHistory.commitEdit(withArticles(version, type, removed), version.getStrings(), type + " " + identifier + " removed");
     }
 
-    public void setSessionString(Strings s) {
-        sessionStrings = s;
+    /**
+     * Replaces the strings of the session as a new version, which can be undone like a merge, although undoing leaves the
+     * language as it is. Loaders replace them through {@link #beginSessionLoad} instead.
+     */
+    public synchronized void setSessionString(Strings s) {
+        sessionLang = s.getLang();
+        SessionHistory.Version version = sessionHistory.getCurrent();
+        sessionHistory.commitEdit(version.getAllArticles(), PersistentMap.copyOf(s.getStrings()), "strings replaced");
+    }
+
+    /**
+     * Articles and strings being loaded into the session, which are published as a single version once the load is
+     * committed, rather than as one version per article. As loading is not a merge, committing starts the session
+     * history anew. A load is used by one thread; changes made to the session between its start and its commit are
+     * replaced by it.
+     */
+    public class SessionLoad {
+        private final Map<Enums.ObjectType, PersistentMap<String, Article>> articles = new EnumMap<>(Enums.ObjectType.class);
+        private PersistentMap<String, String> strings;
+        private String lang;
+
+        private SessionLoad(SessionHistory.Version version, String lang) {
+            this.articles.putAll(version.getAllArticles());
+            this.strings = version.getStrings();
+            this.lang = lang;
+        }
+
+        public void add(Article a, Enums.ObjectType type) {
+            if (type == Enums.ObjectType.LANG_FILE) {
+                for (Map.Entry<String, String> entry : ((LangFile) a).getStrings().entrySet()) {
+                    strings = strings.plus(entry.getKey(), entry.getValue());
+                }
+                return;
+            }
+            if (type == Enums.ObjectType.PROFESSION) throw new IllegalArgumentException("No such type: " + type);
+            PersistentMap<String, Article> session = articles.get(type);
+            if (session == null) session = PersistentMap.empty();
+            articles.put(type, session.plus(a.getRPath(), a));
+        }
+
+        /**
+         * Replaces the strings of the session.
+         */
+        public void setStrings(Strings s) {
+            lang = s.getLang();
+            strings = PersistentMap.copyOf(s.getStrings());
+        }
+
+        /**
+         * Publishes what was loaded as the session's only version.
+         */
+        public void commit() {
+            synchronized (DataModel.this) {
+                sessionLang = lang;
+                sessionHistory.reset(articles, strings);
+            }
+        }
+    }
+
+    // MERGING
+
+    /**
+     * Merges the changes at the given paths into the session data as one step, which makes a new version of the
+     * session. The merged paths are removed from the changes and recorded as merged, and listeners are notified once
+     * for the whole selection rather than once per path, so that merging tens of thousands of strings stays quick.
+     * <p>
+     * The new version shares what the merge left alone with the version before it, so it takes memory in proportion to
+     * the number of paths merged. Merging drops the versions that were undone.
+     *
+     * @param paths paths of the changes to merge, or string identifiers for LANG_FILE; paths without a change are ignored
+     * @return the new version
+     */
+    public synchronized SessionHistory.Version merge(Enums.ObjectType type, java.util.Collection<String> paths) {
+        SessionHistory.Version version = sessionHistory.getCurrent();
+        Map<Enums.ObjectType, PersistentMap<String, Article>> articles = version.getAllArticles();
+        PersistentMap<String, String> strings = version.getStrings();
+        List<String> merged = new ArrayList<>();
+        if (type == Enums.ObjectType.LANG_FILE) {
+            for (String id : paths) {
+                String value = changedStrings.get(id);
+                if (value == null && !changedStrings.containsKey(id)) continue;
+                strings = strings.plus(id, value);
+                merged.add(id);
+            }
+            changedStrings.keySet().removeAll(new HashSet<>(merged));
+        } else {
+            PersistentMap<String, Article> session = getSessionMap(type);
+            Map<String, Article> changed = getChangedMap(type);
+            for (String path : paths) {
+                Article a = changed.get(path);
+                if (a == null) continue;
+                session = session.plus(path, a);
+                merged.add(path);
+            }
+            changed.keySet().removeAll(new HashSet<>(merged));
+            articles = withArticles(version, type, session);
+        }
+        getMergedPaths(type).addAll(merged);
+        SessionHistory.Version mergedVersion = sessionHistory.commit(articles, strings, type, merged);
+        fireChangesUpdated(type);
+        return mergedVersion;
+    }
+
+    /**
+     * Reverts the latest merge or edit of the session that has not been undone: the session goes back to the version
+     * before it, and the articles of a merge return to the changes.
+     *
+     * @return the version that was undone
+     * @throws IllegalStateException if there is nothing to undo
+     */
+    public synchronized SessionHistory.Version undo() {
+        SessionHistory.Version undone = sessionHistory.undo();
+        Enums.ObjectType type = undone.getMergedType();
+        // an edit of the session left the changes alone
+        if (type == null) return undone;
+        List<String> paths = undone.getMergedPaths();
+        if (type == Enums.ObjectType.LANG_FILE) {
+            for (String id : paths) changedStrings.put(id, undone.getStrings().get(id));
+        } else {
+            Map<String, Article> changed = getChangedMap(type);
+            for (String path : paths) changed.put(path, undone.getArticles(type).get(path));
+        }
+        // the merge being the latest one, the paths it recorded are the last ones
+        List<String> mergedPaths = getMergedPaths(type);
+        mergedPaths.subList(Math.max(0, mergedPaths.size() - paths.size()), mergedPaths.size()).clear();
+        fireChangesUpdated(type);
+        return undone;
+    }
+
+    /**
+     * Makes the latest merge or edit that was undone again, taking the paths of a merge out of the changes once more.
+     *
+     * @return the version that was redone
+     * @throws IllegalStateException if there is nothing to redo
+     */
+    public synchronized SessionHistory.Version redo() {
+        SessionHistory.Version redone = sessionHistory.redo();
+        Enums.ObjectType type = redone.getMergedType();
+        if (type == null) return redone;
+        Set<String> paths = new HashSet<>(redone.getMergedPaths());
+        if (type == Enums.ObjectType.LANG_FILE) changedStrings.keySet().removeAll(paths);
+        else getChangedMap(type).keySet().removeAll(paths);
+        getMergedPaths(type).addAll(redone.getMergedPaths());
+        fireChangesUpdated(type);
+        return redone;
+    }
+
+    public synchronized boolean canUndo() {
+        return sessionHistory.canUndo();
+    }
+
+    public synchronized boolean canRedo() {
+        return sessionHistory.canRedo();
+    }
+
+    public synchronized int getRetainedVersions() {
+        return sessionHistory.getRetained();
+    }
+
+    /**
+     * @param retained the number of session versions kept, including the current one; at least one
+     */
+    public synchronized void setRetainedVersions(int retained) {
+        sessionHistory.setRetained(retained);
+    }
+
+    /**
+     * @return a line per session version, oldest first, with what it was made by and the memory it adds
+     */
+    public synchronized List<String> getHistoryReport() {
+        return sessionHistory.getReport();
+    }
+
+    private PersistentMap<String, Article> getSessionMap(Enums.ObjectType type) {
+        if (type == Enums.ObjectType.LANG_FILE || type == Enums.ObjectType.PROFESSION) {
+            throw new IllegalArgumentException("No such type: " + type);
+        }
+        return sessionHistory.getCurrent().getArticles(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T extends Article> Map<String, T> getSessionArticles(Enums.ObjectType type) {
+        return (Map<String, T>) (Map<String, ? extends Article>) getSessionMap(type);
+    }
+
+    private static Map<Enums.ObjectType, PersistentMap<String, Article>> withArticles(SessionHistory.Version version, Enums.ObjectType type,
+                                                                                     PersistentMap<String, Article> articles) {
+        Map<Enums.ObjectType, PersistentMap<String, Article>> all = new EnumMap<>(Enums.ObjectType.class);
+        all.putAll(version.getAllArticles());
+        all.put(type, articles);
+        return all;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Article> getChangedMap(Enums.ObjectType type) {
+        switch (type) {
+            case BENCH:
+                return (Map<String, Article>) (Map<String, ? extends Article>) changedBenches;
+            case COLLECTION:
+                return (Map<String, Article>) (Map<String, ? extends Article>) changedCollections;
+            case COLL_INDEX:
+                return (Map<String, Article>) (Map<String, ? extends Article>) changedCollectionIndices;
+            case GEAR_STYLE:
+                return (Map<String, Article>) (Map<String, ? extends Article>) changedGearStyleTypes;
+            case ITEM:
+                return (Map<String, Article>) (Map<String, ? extends Article>) changedItems;
+            case PLACEABLE:
+                return (Map<String, Article>) (Map<String, ? extends Article>) changedPlaceables;
+            case RECIPE:
+                return (Map<String, Article>) (Map<String, ? extends Article>) changedRecipes;
+            case SKIN:
+                return (Map<String, Article>) (Map<String, ? extends Article>) changedSkins;
+            default:
+                throw new IllegalArgumentException("No such type: " + type);
+        }
+    }
+
+    // LISTENERS
+
+    /**
+     * Notified once the changes of a type have been updated, whether by a single article or by a whole batch, so that a
+     * batch results in one notification rather than one per article. Listeners are called on the thread that made the
+     * change, while the model is locked.
+     */
+    public interface ChangesListener {
+        void onChangesUpdated(Enums.ObjectType type, int size);
+    }
+
+    public void addChangesListener(ChangesListener listener) {
+        changesListeners.add(listener);
+    }
+
+    public void removeChangesListener(ChangesListener listener) {
+        changesListeners.remove(listener);
+    }
+
+    private void fireChangesUpdated(Enums.ObjectType parsedType) {
+        Enums.ObjectType type = getChangesType(parsedType);
+        updateChangedPaths(type);
+        int size = type == Enums.ObjectType.LANG_FILE ? changedStrings.size() : getChangedMap(type).size();
+        for (ChangesListener listener : changesListeners) listener.onChangesUpdated(type, size);
+    }
+
+    // hands what changed since the last update to the sorted list, as one batch
+    private void updateChangedPaths(Enums.ObjectType type) {
+        Set<String> added = addedChangedPaths.get(type);
+        Set<String> removed = removedChangedPaths.get(type);
+        if (added.isEmpty() && removed.isEmpty()) return;
+        List<String> addedBatch = new ArrayList<>(added);
+        Set<String> removedBatch = new HashSet<>(removed);
+        added.clear();
+        removed.clear();
+        // the search index is updated right away, as it is searched off the thread the list is updated on
+        changedPathIndices.get(type).update(addedBatch, removedBatch);
+        SortedPathList list = changedPathLists.get(type);
+        changedPathsExecutor.execute(() -> list.apply(addedBatch, removedBatch));
+    }
+
+    /**
+     * Searches the paths of the changes of a type, without waiting for changes being made to finish. See
+     * {@link SearchIndex#search} for how paths are matched and ordered.
+     *
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public List<String> searchChangedPaths(Enums.ObjectType type, String query) throws InterruptedException {
+        SearchIndex index = changedPathIndices.get(getChangesType(type));
+        if (index == null) throw new IllegalArgumentException("No such type: " + type);
+        return index.search(query);
+    }
+
+    /**
+     * @return the paths of the changes of a type in sorted order, updated once per batch of changes; the list is read-only
+     */
+    public ObservableList<String> getChangedPaths(Enums.ObjectType type) {
+        SortedPathList list = changedPathLists.get(getChangesType(type));
+        if (list == null) throw new IllegalArgumentException("No such type: " + type);
+        return list.getPaths();
+    }
+
+    /**
+     * Sets where the sorted lists of changed paths are updated, such as the FX thread if they are shown. Updates are
+     * passed on in the order the changes were made in. By default, they are made on the thread that made the changes.
+     */
+    public synchronized void setChangedPathsExecutor(Executor executor) {
+        this.changedPathsExecutor = executor;
     }
 
     // GETTERS - CHANGED DATA
@@ -311,7 +706,7 @@ public class DataModel {
 
     // SETTERS - MERGED DATA
 
-    public void addMergedPath(String path, Enums.ObjectType type) {
+    public synchronized void addMergedPath(String path, Enums.ObjectType type) {
         switch (type) {
             case BENCH:
                 this.mergedBenchPaths.add(path);
@@ -0,0 +1,314 @@
+package datamodel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compares two extracted dumps of the game, so that after a patch only the files that changed need to be parsed.
+ * <p>
+ * A diff runs in three steps. The manifests of both dumps are listed in parallel, then files are classified as added,
+ * removed, modified or unchanged, and finally the added and modified binfabs are parsed into the changes of the model,
+ * with the parse type inferred from where they are in the dump. Files that kept their size are told apart by a hash of
+ * their contents; files whose size changed are modified without being read at all.
+ */
+public class DifferenceChecker {
+
+    public enum Change {
+        ADDED,
+        REMOVED,
+        MODIFIED,
+        UNCHANGED
+    }
+
+    private static final String BINFAB = ".binfab";
+    private static final Set<String> GEAR_STYLE_FILES = new HashSet<>(Arrays.asList("hat", "face", "weapon_bow",
+            "weapon_fist", "weapon_melee", "weapon_pistol", "weapon_spear", "weapon_staff"));
+
+    private final DataModel model;
+    private final int parallelism;
+
+    public DifferenceChecker(DataModel model, int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+        this.model = model;
+        this.parallelism = parallelism;
+    }
+
+    public Report UpdateChecker(String oldPath, String newPath) throws IOException, InterruptedException {
+        return UpdateChecker(oldPath, newPath, true, null);
+    }
+
+    /**
+     * Diffs the dump at oldPath against the dump at newPath, and parses what was added or modified in the latter into
+     * the model's changes, where they can be reviewed.
+     *
+     * @param listener notified of progress while files are compared, and again while they are parsed; can be null
+     * @throws InterruptedException if the calling thread is interrupted; nothing further is compared or parsed
+     */
+    public Report UpdateChecker(String oldPath, String newPath, boolean useRPath, ParseEngine.ProgressListener listener) throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        Report report = new Report();
+
+        ExecutorService executor = Workers.newFixedPool("diff-worker", parallelism);
+        Manifest oldManifest;
+        Manifest newManifest;
+        try {
+            // 1. list both dumps at once
+            Future<Manifest> oldFuture = executor.submit(() -> Manifest.list(Paths.get(oldPath)));
+            Future<Manifest> newFuture = executor.submit(() -> Manifest.list(Paths.get(newPath)));
+            oldManifest = Workers.getResult(oldFuture);
+            newManifest = Workers.getResult(newFuture);
+
+            // 2. classify; only files present in both dumps with the same size need to be read
+            List<String> sameSize = new ArrayList<>();
+            for (String path : newManifest.getPaths()) {
+                Long oldSize = oldManifest.getSize(path);
+                if (oldSize == null) report.add(Change.ADDED, path);
+                else if (!oldSize.equals(newManifest.getSize(path))) report.add(Change.MODIFIED, path);
+                else sameSize.add(path);
+            }
+            for (String path : oldManifest.getPaths()) {
+                if (newManifest.getSize(path) == null) report.add(Change.REMOVED, path);
+            }
+
+            CompletionService<String> completion = new ExecutorCompletionService<>(executor);
+            for (String path : sameSize) {
+                completion.submit(() -> {
+                    oldManifest.hash(path);
+                    newManifest.hash(path);
+                    return path;
+                });
+            }
+            for (int completed = 1; completed <= sameSize.size(); completed++) {
+                String path = Workers.getResult(completion.take());
+                report.add(oldManifest.hash(path).equals(newManifest.hash(path)) ? Change.UNCHANGED : Change.MODIFIED, path);
+                if (listener != null) listener.onProgress(completed, sameSize.size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        report.sortPaths();
+        report.oldManifest = oldManifest;
+        report.newManifest = newManifest;
+
+        // 3. parse what is new, grouped by the type inferred from each file's location
+        Map<Enums.ObjectType, List<String>> toParse = new EnumMap<>(Enums.ObjectType.class);
+        for (Change change : Arrays.asList(Change.ADDED, Change.MODIFIED)) {
+            for (String path : report.getPaths(change)) {
+                if (!path.endsWith(BINFAB)) continue;
+                Path file = newManifest.getRoot().resolve(path);
+                Enums.ObjectType type = inferType(file);
+                if (type == null) {
+                    report.unclassifiedPaths.add(path);
+                } else {
+                    toParse.computeIfAbsent(type, k -> new ArrayList<>()).add(file.toString());
+                }
+            }
+        }
+        ParseEngine engine = new ParseEngine(model, parallelism);
+        for (Map.Entry<Enums.ObjectType, List<String>> entry : toParse.entrySet()) {
+            ParseEngine.Result result = engine.parse(entry.getValue(), entry.getKey(), useRPath, listener);
+            report.parsedCounts.put(entry.getKey(), entry.getValue().size() - result.getFailedPaths().size());
+            report.failedPaths.addAll(result.getFailedPaths());
+            report.messages.addAll(result.getMessages());
+        }
+
+        report.elapsedMillis = System.currentTimeMillis() - start;
+        return report;
+    }
+
+    /**
+     * Infers the parse type of a binfab from its location in a dump, following the usage guide.
+     *
+     * @return the type, or null if files at this location are not parsed
+     */
+    public static Enums.ObjectType inferType(Path file) {
+        String path = file.toAbsolutePath().toString().replace('\\', '/').toLowerCase();
+        if (!path.endsWith(BINFAB)) return null;
+        String name = path.substring(path.lastIndexOf('/') + 1, path.length() - BINFAB.length());
+
+        int prefabs = path.lastIndexOf("/prefabs/");
+        if (prefabs == -1) {
+            return path.contains("/language") ? Enums.ObjectType.LANG_FILE : null;
+        }
+        String[] dirs = path.substring(prefabs + "/prefabs/".length()).split("/");
+        if (dirs.length < 2) return null;
+        boolean topLevel = dirs.length == 2;
+
+        switch (dirs[0]) {
+            case "placeable":
+            case "placeables":
+                return name.endsWith("_interactive") ? Enums.ObjectType.BENCH : Enums.ObjectType.PLACEABLE;
+            case "collections":
+                if (!topLevel) return Enums.ObjectType.COLLECTION;
+                return name.startsWith("collection_") ? Enums.ObjectType.COLL_INDEX : null;
+            case "loot":
+                return topLevel && GEAR_STYLE_FILES.contains(name) ? Enums.ObjectType.GEAR_STYLE : null;
+            case "item":
+                return Enums.ObjectType.ITEM;
+            case "professions":
+                return Enums.ObjectType.PROFESSION;
+            case "recipes":
+                return Enums.ObjectType.RECIPE;
+            case "skins":
+                return dirs[1].equals("secondaryskins") ? null : Enums.ObjectType.SKIN;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * The files of a dump by their path relative to its root, with / as the separator. Sizes are listed up front, and
+     * content hashes computed on first use.
+     */
+    public static class Manifest {
+        private final Path root;
+        private final SortedMap<String, Long> sizes;
+        private final Map<String, String> hashes = new ConcurrentHashMap<>();
+
+        private Manifest(Path root, SortedMap<String, Long> sizes) {
+            this.root = root;
+            this.sizes = sizes;
+        }
+
+        static Manifest list(Path root) throws IOException {
+            if (!Files.isDirectory(root)) throw new IOException(root + " is not a directory.");
+            SortedMap<String, Long> sizes = new TreeMap<>();
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                    sizes.put(root.relativize(file).toString().replace('\\', '/'), Files.size(file));
+                }
+            }
+            return new Manifest(root, sizes);
+        }
+
+        public Path getRoot() {
+            return root;
+        }
+
+        public Set<String> getPaths() {
+            return sizes.keySet();
+        }
+
+        /**
+         * @return the size of the file in bytes, or null if the dump does not contain it
+         */
+        public Long getSize(String path) {
+            return sizes.get(path);
+        }
+
+        /**
+         * @return the SHA-256 of the file's contents, as lower-case hex
+         */
+        public String hash(String path) throws IOException {
+            String hash = hashes.get(path);
+            if (hash == null) {
+                hash = hashFile(root.resolve(path));
+                hashes.put(path, hash);
+            }
+            return hash;
+        }
+
+        private static String hashFile(Path file) throws IOException {
+            MessageDigest digest = ParseCache.sha256();
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+            }
+            return ParseCache.toHex(digest.digest());
+        }
+    }
+
+    public static class Report {
+        private final Map<Change, List<String>> paths = new EnumMap<>(Change.class);
+        private final Map<Enums.ObjectType, Integer> parsedCounts = new EnumMap<>(Enums.ObjectType.class);
+        private final List<String> unclassifiedPaths = new ArrayList<>();
+        private final List<String> failedPaths = new ArrayList<>();
+        private final List<String> messages = new ArrayList<>();
+        private Manifest oldManifest;
+        private Manifest newManifest;
+        private long elapsedMillis;
+
+        private Report() {
+            for (Change change : Change.values()) paths.put(change, new ArrayList<>());
+        }
+
+        private void add(Change change, String path) {
+            paths.get(change).add(path);
+        }
+
+        // called once every file is classified, so that the lists are never sorted while they are being read
+        private void sortPaths() {
+            paths.values().forEach(Collections::sort);
+        }
+
+        /**
+         * @return the paths with the given change, relative to the root of their dump
+         */
+        public List<String> getPaths(Change change) {
+            return Collections.unmodifiableList(paths.get(change));
+        }
+
+        /**
+         * @return the number of articles parsed into the model's changes, by the type used to parse them
+         */
+        public Map<Enums.ObjectType, Integer> getParsedCounts() {
+            return parsedCounts;
+        }
+
+        /**
+         * @return the added or modified binfabs that were not parsed, as their type could not be inferred
+         */
+        public List<String> getUnclassifiedPaths() {
+            return unclassifiedPaths;
+        }
+
+        public List<String> getFailedPaths() {
+            return failedPaths;
+        }
+
+        /**
+         * @return the error messages, at the same indices as their paths in {@link #getFailedPaths()}
+         */
+        public List<String> getMessages() {
+            return messages;
+        }
+
+        public Manifest getOldManifest() {
+            return oldManifest;
+        }
+
+        public Manifest getNewManifest() {
+            return newManifest;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public List<String> getSummary() {
+            List<String> lines = new ArrayList<>();
+            lines.add("Compared " + oldManifest.getPaths().size() + " old and " + newManifest.getPaths().size() + " new files in " + elapsedMillis + " ms: "
+                    + paths.get(Change.ADDED).size() + " added, " + paths.get(Change.REMOVED).size() + " removed, "
+                    + paths.get(Change.MODIFIED).size() + " modified, " + paths.get(Change.UNCHANGED).size() + " unchanged.");
+            parsedCounts.forEach((type, count) -> lines.add("Parsed " + count + " changed objects as " + type.toString().toLowerCase() + "."));
+            if (!unclassifiedPaths.isEmpty()) lines.add(unclassifiedPaths.size() + " changed binfabs are not in a location with a known parse type.");
+            getPaths(Change.REMOVED).forEach(path -> lines.add("Removed: " + path));
+            for (int i = 0; i < failedPaths.size(); i++) lines.add("Parse failure: " + messages.get(i));
+            return lines;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package datamodel;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * An in-memory index of a directory tree, such as a dump of the game, so that it can be browsed and filtered without
+ * going back to the disk.
+ * <p>
+ * The index is built once: the directories at the top of the tree are walked in parallel, each with
+ * {@link Files#walkFileTree}. Filtering then only reads the index; a {@link View} tells which entries match a filter and
+ * how many matching files each directory holds, so that directories without any can be left out. Entries that cannot
+ * be read while walking are left out of the index.
+ */
+public class DirectoryIndex {
+
+    private static final Comparator<Node> ORDER = Comparator.comparing((Node n) -> !n.directory).thenComparing(n -> n.path);
+
+    private final Node root;
+    private final int size;
+    private final Node[] nodes; // by id
+    private final Map<String, Node> nodesByPath = new HashMap<>();
+
+    private DirectoryIndex(Node root) {
+        this.root = root;
+        this.size = number(root, 0);
+        this.nodes = new Node[size];
+        register(root);
+    }
+
+    /**
+     * @param parallelism the number of top-level directories walked at once
+     * @throws InterruptedException if the calling thread is interrupted; nothing is indexed
+     */
+    public static DirectoryIndex build(String root, int parallelism) throws IOException, InterruptedException {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+        Path rootPath = Paths.get(root);
+        if (!Files.isDirectory(rootPath)) throw new IOException(root + " is not a directory.");
+
+        Node rootNode = new Node(root, true);
+        List<Future<Node>> subtrees = new ArrayList<>();
+        ExecutorService executor = Workers.newFixedPool("index-worker", parallelism);
+        try {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(rootPath)) {
+                for (Path entry : entries) {
+                    if (Files.isDirectory(entry)) subtrees.add(executor.submit(() -> walk(entry)));
+                    else rootNode.children.add(new Node(entry.toString(), false));
+                }
+            }
+            for (Future<Node> subtree : subtrees) {
+                Node node = Workers.getResult(subtree);
+                if (node != null) rootNode.children.add(node);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        rootNode.children.sort(ORDER);
+        return new DirectoryIndex(rootNode);
+    }
+
+    private static Node walk(Path directory) throws IOException {
+        Deque<Node> open = new ArrayDeque<>();
+        Node[] top = new Node[1];
+        // links are followed, and a link back to a directory above it is skipped as a failed entry
+        Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                Node node = new Node(dir.toString(), true);
+                if (open.isEmpty()) top[0] = node;
+                else open.peek().children.add(node);
+                open.push(node);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                open.peek().children.add(new Node(file.toString(), false));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+                open.pop().children.sort(ORDER);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return top[0];
+    }
+
+    // numbers the nodes depth first, so that a view can keep its counts in an array, and the nodes below a directory are
+    // the ids between its own and its end
+    private static int number(Node node, int next) {
+        node.id = next++;
+        for (Node child : node.children) next = number(child, next);
+        node.end = next;
+        return next;
+    }
+
+    private void register(Node node) {
+        nodes[node.id] = node;
+        nodesByPath.put(node.path, node);
+        for (Node child : node.children) register(child);
+    }
+
+    public Node getRoot() {
+        return root;
+    }
+
+    /**
+     * @return the number of files and directories in the index, including its root
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the node with the given path, or null if the index has none
+     */
+    public Node find(String path) {
+        return nodesByPath.get(path);
+    }
+
+    /**
+     * Filters the index. An entry matches if its path contains the filter text; a file is shown if it matches and is
+     * accepted, and a directory if it matches and holds at least one file that is shown. The root is always shown.
+     */
+    public View filter(String contains, Predicate<String> acceptFile) {
+        int[] counts = new int[size];
+        count(root, contains, acceptFile, counts);
+        BitSet shownFiles = new BitSet(size);
+        markShown(root, contains, counts, shownFiles);
+        return new View(contains, counts, shownFiles);
+    }
+
+    // a file below a directory that is left out is not shown either, even if the file matches
+    private static void markShown(Node directory, String contains, int[] counts, BitSet shownFiles) {
+        for (Node child : directory.children) {
+            if (counts[child.id] == 0) continue;
+            if (!child.directory) shownFiles.set(child.id);
+            else if (child.path.contains(contains)) markShown(child, contains, counts, shownFiles);
+        }
+    }
+
+    private static int count(Node node, String contains, Predicate<String> acceptFile, int[] counts) {
+        if (!node.directory) {
+            return counts[node.id] = node.path.contains(contains) && acceptFile.test(node.path) ? 1 : 0;
+        }
+        int count = 0;
+        for (Node child : node.children) {
+            int childCount = count(child, contains, acceptFile, counts);
+            if (!child.directory || child.path.contains(contains)) count += childCount;
+        }
+        return counts[node.id] = count;
+    }
+
+    /**
+     * A file or directory in the index. Directories list their subdirectories first, and each group by path.
+     */
+    public static class Node {
+        private final String path;
+        private final boolean directory;
+        private final List<Node> children;
+        private int id;
+        private int end;
+
+        private Node(String path, boolean directory) {
+            this.path = path;
+            this.directory = directory;
+            this.children = directory ? new ArrayList<>() : Collections.emptyList();
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public boolean isDirectory() {
+            return directory;
+        }
+
+        public List<Node> getChildren() {
+            return Collections.unmodifiableList(children);
+        }
+    }
+
+    /**
+     * The index as seen through a filter.
+     */
+    public class View {
+        private final String contains;
+        private final int[] counts;
+        private final BitSet shownFiles;
+
+        private View(String contains, int[] counts, BitSet shownFiles) {
+            this.contains = contains;
+            this.counts = counts;
+            this.shownFiles = shownFiles;
+        }
+
+        public Selection newSelection() {
+            return new Selection(this);
+        }
+
+        public Node getRoot() {
+            return root;
+        }
+
+        public boolean isShown(Node node) {
+            return node == root || node.path.contains(contains) && counts[node.id] > 0;
+        }
+
+        /**
+         * @return the number of files shown at or below the node
+         */
+        public int getFileCount(Node node) {
+            return counts[node.id];
+        }
+
+        /**
+         * @return the children of the node that are shown, directories first
+         */
+        public List<Node> getShownChildren(Node node) {
+            List<Node> shown = new ArrayList<>();
+            for (Node child : node.children) {
+                if (isShown(child)) shown.add(child);
+            }
+            return shown;
+        }
+    }
+
+    /**
+     * A selection of the files shown in a view, kept as a bit per entry of the index.
+     * <p>
+     * The entries below a directory have consecutive ids, so selecting or deselecting a directory only touches the bits of
+     * its range, without visiting the rest of the index, and telling whether a file is selected takes constant time. Iterating visits the
+     * selected files in the order of the index. A selection is not safe for use by several threads at once.
+     */
+    public class Selection extends AbstractCollection<String> {
+        private final View view;
+        private final BitSet selected = new BitSet();
+
+        private Selection(View view) {
+            this.view = view;
+        }
+
+        public View getView() {
+            return view;
+        }
+
+        /**
+         * @return a selection of the same files, which changes independently of this one
+         */
+        public Selection copy() {
+            Selection copy = new Selection(view);
+            copy.selected.or(selected);
+            return copy;
+        }
+
+        /**
+         * Selects the file, or every file shown at or below the directory. Only the bits of the range are touched.
+         */
+        public void select(Node node) {
+            if (!node.directory) {
+                if (view.shownFiles.get(node.id)) selected.set(node.id);
+                return;
+            }
+            for (int id = view.shownFiles.nextSetBit(node.id); id >= 0 && id < node.end; id = view.shownFiles.nextSetBit(id + 1)) {
+                selected.set(id);
+            }
+        }
+
+        /**
+         * Deselects the file, or every file at or below the directory.
+         */
+        public void deselect(Node node) {
+            selected.clear(node.id, node.end);
+        }
+
+        public boolean isSelected(Node node) {
+            return selected.get(node.id);
+        }
+
+        /**
+         * @return the number of files selected at or below the node
+         */
+        public int getSelectedCount(Node node) {
+            return node.directory ? selected.get(node.id, node.end).cardinality() : selected.get(node.id) ? 1 : 0;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            Node node = o instanceof String ? find((String) o) : null;
+            return node != null && selected.get(node.id);
+        }
+
+        @Override
+        public int size() {
+            return selected.cardinality();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return selected.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            selected.clear();
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+                private int next = selected.nextSetBit(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public String next() {
+                    if (next < 0) throw new NoSuchElementException();
+                    String path = nodes[next].path;
+                    next = selected.nextSetBit(next + 1);
+                    return path;
+                }
+            };
+        }
+    }
+}
@@ -183,4 +183,24 @@ public class Enums {
             }
         }
     }
+
+    public enum ExportFormat {
+        JSON,
+        SNAPSHOT,
+        NDJSON;
+
+        @Override
+        public String toString() {
+            switch (this) {
+                case JSON:
+                    return "JSON";
+                case SNAPSHOT:
+                    return "Binary snapshot";
+                case NDJSON:
+                    return "NDJSON (one entity per line)";
+                default:
+                    throw new IllegalArgumentException();
+            }
+        }
+    }
 }
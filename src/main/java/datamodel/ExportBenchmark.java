@@ -0,0 +1,81 @@
+package datamodel;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how long an export takes to write and to read back with each {@link Codec}, and how large it is, so that the
+ * cost of compressing exports can be weighed against the space it saves.
+ * <p>
+ * Each codec writes the export once to warm up and then the given number of times, of which the fastest run counts. Reads
+ * decode every token of the export without building articles, so they measure decompression and parsing only. The files
+ * are written to the given directory and removed afterwards.
+ */
+public class ExportBenchmark {
+
+    private final ShardedExport export;
+    private final Gson serializer;
+
+    public ExportBenchmark(ShardedExport export, Gson serializer) {
+        this.export = export;
+        this.serializer = serializer;
+    }
+
+    /**
+     * @return a line per codec, listing size, write time and read time, and their throughput in uncompressed bytes
+     */
+    public List<String> run(Path directory, int rounds) throws IOException, InterruptedException {
+        if (rounds < 1) throw new IllegalArgumentException("Rounds must be at least 1, got " + rounds);
+        List<String> lines = new ArrayList<>();
+        long uncompressedSize = -1;
+        for (Codec codec : Codec.CODECS) {
+            Path file = Files.createTempFile(directory, "export-benchmark-", ".json" + codec.getExtension());
+            try {
+                export.writeTo(file, codec);
+                long writeNanos = Long.MAX_VALUE;
+                long readNanos = Long.MAX_VALUE;
+                for (int i = 0; i < rounds; i++) {
+                    long start = System.nanoTime();
+                    export.writeTo(file, codec);
+                    writeNanos = Math.min(writeNanos, System.nanoTime() - start);
+                    start = System.nanoTime();
+                    read(file, codec);
+                    readNanos = Math.min(readNanos, System.nanoTime() - start);
+                }
+                long size = Files.size(file);
+                if (codec == Codec.NONE) uncompressedSize = size;
+                lines.add(describe(codec, size, uncompressedSize, writeNanos, readNanos));
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+        return lines;
+    }
+
+    private void read(Path file, Codec codec) throws IOException {
+        try (JsonReader reader = serializer.newJsonReader(new BufferedReader(new InputStreamReader(Codec.newInputStream(file.toFile(), codec), Charset.defaultCharset())))) {
+            reader.skipValue();
+        }
+    }
+
+    private static String describe(Codec codec, long size, long uncompressedSize, long writeNanos, long readNanos) {
+        String ratio = uncompressedSize > 0 ? String.format(" (%.1f%% of uncompressed)", 100.0 * size / uncompressedSize) : "";
+        return String.format("%s: %.2f MB%s; written in %d ms (%.1f MB/s), read in %d ms (%.1f MB/s).",
+                codec.getName(), size / 1e6, ratio,
+                writeNanos / 1_000_000, throughput(uncompressedSize, writeNanos),
+                readNanos / 1_000_000, throughput(uncompressedSize, readNanos));
+    }
+
+    private static double throughput(long bytes, long nanos) {
+        return nanos == 0 ? 0 : bytes / 1e6 / (nanos / 1e9);
+    }
+}
@@ -0,0 +1,252 @@
+package datamodel;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Where each category of a JSON export starts in the file, so that categories can be loaded on their own without
+ * reading the rest of the export.
+ * <p>
+ * The index is the first key of the export, {@link #KEY}. Categories are serialized before the export is written, so
+ * the index is written once, with its final values, ahead of them. Numbers are padded with spaces to a fixed width,
+ * which gives the index the same size whatever its values, so the offsets can be worked out before it is filled in.
+ * Exports are written in the platform charset, as they always have been.
+ * <p>
+ * Every JSON export has an index, and this changes the export format: builds from before the index read every top-level
+ * key as a category and fail on {@link #KEY}, so they cannot load an export that has one. Exports without an index, on
+ * the other hand, still load, and are read from the start.
+ */
+public class ExportIndex {
+
+    public static final String KEY = "_index";
+
+    private static final int NUMBER_WIDTH = 19; // digits in Long.MAX_VALUE
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    private ExportIndex() {
+    }
+
+    /**
+     * @return the category's entry, or null if the export does not contain the category
+     */
+    public Entry get(String category) {
+        return entries.get(category);
+    }
+
+    /**
+     * Every category has an entry, written or not, so that the index has the same size whatever is exported.
+     */
+    private String toJson() {
+        StringBuilder sb = new StringBuilder("{");
+        for (String category : Serializer.CATEGORIES) {
+            Entry entry = entries.getOrDefault(category, new Entry(-1, 0, 0));
+            if (sb.length() > 1) sb.append(',');
+            sb.append('"').append(category).append("\":{\"offset\":").append(pad(entry.offset))
+                    .append(",\"length\":").append(pad(entry.length))
+                    .append(",\"count\":").append(pad(entry.count)).append('}');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String pad(long value) {
+        return String.format("%-" + NUMBER_WIDTH + "d", value);
+    }
+
+    /**
+     * Plans an export whose categories were serialized ahead of time, so that the index can be written with its final
+     * values; this is how exports that cannot be overwritten in place, such as compressed ones, get an index.
+     *
+     * @param lengths the length of each category in bytes, including the separator before it, in the order they are to
+     *                be written
+     * @param counts  the number of entities in each category
+     * @return the bytes that go before the first category and after the last one
+     */
+    static byte[][] plan(Gson serializer, Map<String, Long> lengths, Map<String, Integer> counts) throws IOException {
+        ExportIndex index = new ExportIndex();
+        // the index has the same size whatever its values, so the offsets follow from the size of a placeholder frame
+        long offset = frame(serializer, index)[0].length;
+        for (Map.Entry<String, Long> entry : lengths.entrySet()) {
+            index.entries.put(entry.getKey(), new Entry(offset, entry.getValue(), counts.get(entry.getKey())));
+            offset += entry.getValue();
+        }
+        return frame(serializer, index);
+    }
+
+    private static byte[][] frame(Gson serializer, ExportIndex index) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JsonWriter writer = serializer.newJsonWriter(new OutputStreamWriter(bytes, Charset.defaultCharset()));
+        writer.beginObject();
+        writer.name(KEY).jsonValue(index.toJson());
+        writer.flush();
+        int headerLength = bytes.size();
+        writer.endObject();
+        writer.close();
+        byte[] frame = bytes.toByteArray();
+        return new byte[][]{Arrays.copyOfRange(frame, 0, headerLength), Arrays.copyOfRange(frame, headerLength, frame.length)};
+    }
+
+    /**
+     * @return the index at the start of the export, or null if the export was written without one
+     */
+    public static ExportIndex read(Path path) throws IOException {
+        try (JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(new FileInputStream(path.toFile()), Charset.defaultCharset())))) {
+            reader.beginObject();
+            if (!reader.hasNext() || !reader.nextName().equals(KEY)) return null;
+            ExportIndex index = new ExportIndex();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String category = reader.nextName();
+                long offset = -1;
+                long length = 0;
+                int count = 0;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case "offset":
+                            offset = reader.nextLong();
+                            break;
+                        case "length":
+                            length = reader.nextLong();
+                            break;
+                        case "count":
+                            count = reader.nextInt();
+                            break;
+                        default:
+                            reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                if (offset >= 0) index.entries.put(category, new Entry(offset, length, count));
+            }
+            reader.endObject();
+            return index;
+        }
+    }
+
+    /**
+     * Opens a reader over one category of the export, positioned at the start of the category's value.
+     */
+    public JsonReader openCategory(Path path, Gson serializer, String category) throws IOException {
+        Entry entry = entries.get(category);
+        if (entry == null) throw new IllegalArgumentException("The export does not contain " + category + ".");
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            channel.position(entry.offset);
+            PushbackInputStream in = new PushbackInputStream(new BufferedInputStream(new LimitedInputStream(Channels.newInputStream(channel), entry.length)));
+            // the entry starts with the separator and the category's name, which are skipped up to the value
+            int b;
+            do {
+                b = in.read();
+                if (b == -1) throw new IOException("No value found for " + category + " at offset " + entry.offset + ".");
+            } while (b != '{');
+            in.unread(b);
+            return serializer.newJsonReader(new BufferedReader(new InputStreamReader(in, Charset.defaultCharset())));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Position of one category in an export, from the separator before its name to the end of its value.
+     */
+    public static class Entry {
+        private final long offset;
+        private final long length;
+        private final int count;
+
+        private Entry(long offset, long length, int count) {
+            this.offset = offset;
+            this.length = length;
+            this.count = count;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        /**
+         * @return the number of entities in the category
+         */
+        public int getCount() {
+            return count;
+        }
+    }
+
+    static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    private static class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int b = in.read();
+            if (b != -1) remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) return -1;
+            int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) remaining -= n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+    }
+}
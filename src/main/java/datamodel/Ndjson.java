@@ -0,0 +1,278 @@
+package datamodel;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import datamodel.objects.*;
+import datamodel.objects.Collection;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Exports as newline-delimited JSON: one entity per line, so that they can be processed a line at a time by tools that
+ * cannot hold a whole export in memory.
+ * <p>
+ * Each line is an object of the entity's category, the key it is stored under and the entity itself, as written by
+ * {@link Serializer}:
+ * <pre>
+ * {"category":"items","rel_path":"item/...","value":{...}}
+ * {"category":"strings","lang":"en","key":"...","value":"..."}
+ * </pre>
+ * The category always comes first. Lines are self-contained, so exports of changes can be appended to an existing file;
+ * when it is read, later lines replace earlier lines with the same key. Files are UTF-8.
+ */
+public class Ndjson implements Closeable {
+
+    public static final String EXTENSION = ".ndjson";
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private final Gson serializer = new Serializer().getSerializer(false);
+    private final BufferedWriter out;
+    private int count;
+
+    public Ndjson(Path path, boolean append) throws IOException {
+        this(path, append, Codec.NONE);
+    }
+
+    /**
+     * @param append if true, lines are added to the end of an existing file; else the file is replaced
+     * @param codec  compresses the lines as they are written; it must be the codec the file was written with when
+     *               appending
+     */
+    public Ndjson(Path path, boolean append, Codec codec) throws IOException {
+        out = new BufferedWriter(new OutputStreamWriter(Codec.newOutputStream(path.toFile(), append, codec), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return true if the path names an NDJSON file, compressed or not
+     */
+    public static boolean isNdjson(String path) {
+        return path != null && Codec.stripExtension(path).toLowerCase().endsWith(EXTENSION);
+    }
+
+    // WRITING
+
+    public <T extends Article> void writeCategory(String category, Map<String, T> entries, Class<T> type) throws IOException {
+        TypeAdapter<T> adapter = serializer.getAdapter(type);
+        for (Map.Entry<String, T> entry : entries.entrySet()) {
+            JsonWriter writer = newLine();
+            writer.beginObject();
+            writer.name("category").value(category);
+            writer.name("rel_path").value(entry.getKey());
+            writer.name("value");
+            adapter.write(writer, entry.getValue());
+            writer.endObject();
+            endLine();
+        }
+    }
+
+    public void writeStrings(Strings strings) throws IOException {
+        for (Map.Entry<String, String> entry : strings.getStrings().entrySet()) {
+            JsonWriter writer = newLine();
+            writer.beginObject();
+            writer.name("category").value("strings");
+            writer.name("lang").value(strings.getLang());
+            writer.name("key").value(entry.getKey());
+            writer.name("value").value(entry.getValue());
+            writer.endObject();
+            endLine();
+        }
+    }
+
+    /**
+     * @return the number of lines written so far
+     */
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    // a writer takes a single value, so every line gets its own; it is never closed, as that would close the file
+    private JsonWriter newLine() throws IOException {
+        return serializer.newJsonWriter(out);
+    }
+
+    private void endLine() throws IOException {
+        out.write('\n');
+        count++;
+    }
+
+    // READING
+
+    /**
+     * Loads the given categories of a file into the session data of the model. The file is decompressed as it is read,
+     * with the codec given by its extension.
+     * <p>
+     * Lines are read in batches of {@link #DEFAULT_BATCH_SIZE}, which are decoded in parallel. Decoded batches are added to
+     * the model on the calling thread in file order, and only a few batches per thread are held at a time, so memory use
+     * does not grow with the size of the file.
+     *
+     * @param categories names of the categories to load, as in {@link Serializer#CATEGORIES}
+     * @return the number of entries loaded
+     * @throws InterruptedException if the calling thread is interrupted; the model holds the batches added so far
+     */
+    public static int read(Path path, DataModel model, Set<String> categories, int parallelism) throws IOException, InterruptedException {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+        Gson serializer = new Serializer().getSerializer(false);
+        ExecutorService executor = Workers.newFixedPool("ndjson-worker", parallelism);
+
+        int count = 0;
+        String lang = null;
+        Map<String, String> strings = new LinkedHashMap<>();
+        Deque<Future<List<Line>>> pending = new ArrayDeque<>();
+        DataModel.SessionLoad load = model.beginSessionLoad();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Codec.newInputStream(path.toFile(), Codec.forPath(path.toString())), StandardCharsets.UTF_8))) {
+            int lineNumber = 0;
+            boolean eof = false;
+            while (!eof || !pending.isEmpty()) {
+                // keep every thread busy, with one batch queued behind each
+                while (!eof && pending.size() < 2 * parallelism) {
+                    List<String> batch = new ArrayList<>(DEFAULT_BATCH_SIZE);
+                    String line;
+                    while (batch.size() < DEFAULT_BATCH_SIZE && (line = reader.readLine()) != null) batch.add(line);
+                    if (batch.size() < DEFAULT_BATCH_SIZE) eof = true;
+                    if (batch.isEmpty()) break;
+                    int firstLine = lineNumber + 1;
+                    lineNumber += batch.size();
+                    pending.add(executor.submit(() -> decode(serializer, batch, firstLine, categories)));
+                }
+                if (pending.isEmpty()) break;
+
+                for (Line line : Workers.getResult(pending.poll())) {
+                    if (line.article != null) {
+                        load.add(line.article, line.type);
+                    } else {
+                        if (lang == null) lang = line.lang != null ? line.lang : "en";
+                        strings.put(line.key, line.string);
+                    }
+                    count++;
+                }
+            }
+            if (lang != null) load.setStrings(new Strings(lang, strings));
+        } finally {
+            executor.shutdownNow();
+            load.commit();
+        }
+        return count;
+    }
+
+    private static List<Line> decode(Gson serializer, List<String> batch, int firstLine, Set<String> categories) throws IOException {
+        List<Line> lines = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            String text = batch.get(i);
+            if (text.trim().isEmpty()) continue;
+            try {
+                Line line = decodeLine(serializer, text, categories);
+                if (line != null) lines.add(line);
+            } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+                throw new IOException("Line " + (firstLine + i) + " is not a valid entry: " + e.getMessage(), e);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * @return the decoded line, or null if its category is not to be loaded
+     */
+    private static Line decodeLine(Gson serializer, String text, Set<String> categories) throws IOException {
+        JsonReader reader = serializer.newJsonReader(new StringReader(text));
+        reader.beginObject();
+        if (!reader.nextName().equals("category")) throw new IllegalArgumentException("The category must be the first key.");
+        String category = reader.nextString();
+        if (!categories.contains(category)) return null;
+
+        Line line = new Line();
+        line.type = getType(category);
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "rel_path":
+                case "key":
+                    line.key = reader.nextString();
+                    break;
+                case "lang":
+                    line.lang = reader.nextString();
+                    break;
+                case "value":
+                    if (line.type == Enums.ObjectType.LANG_FILE) {
+                        if (reader.peek() == JsonToken.NULL) reader.nextNull();
+                        else line.string = reader.nextString();
+                    } else {
+                        line.article = serializer.getAdapter(getArticleClass(line.type)).read(reader);
+                        if (line.article == null) throw new IllegalArgumentException("The value is null.");
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (line.key == null) throw new IllegalArgumentException("The line has no key.");
+        return line;
+    }
+
+    private static Enums.ObjectType getType(String category) {
+        switch (category) {
+            case "benches":
+                return Enums.ObjectType.BENCH;
+            case "collections":
+                return Enums.ObjectType.COLLECTION;
+            case "collection_indices":
+                return Enums.ObjectType.COLL_INDEX;
+            case "gear_styles":
+                return Enums.ObjectType.GEAR_STYLE;
+            case "items":
+                return Enums.ObjectType.ITEM;
+            case "placeables":
+                return Enums.ObjectType.PLACEABLE;
+            case "recipes":
+                return Enums.ObjectType.RECIPE;
+            case "skins":
+                return Enums.ObjectType.SKIN;
+            case "strings":
+                return Enums.ObjectType.LANG_FILE;
+            default:
+                throw new IllegalArgumentException("No such category: " + category);
+        }
+    }
+
+    private static Class<? extends Article> getArticleClass(Enums.ObjectType type) {
+        switch (type) {
+            case BENCH:
+                return Bench.class;
+            case COLLECTION:
+                return Collection.class;
+            case COLL_INDEX:
+                return CollectionIndex.class;
+            case GEAR_STYLE:
+                return GearStyleType.class;
+            case ITEM:
+                return Item.class;
+            case PLACEABLE:
+                return Placeable.class;
+            case RECIPE:
+                return Recipe.class;
+            case SKIN:
+                return Skin.class;
+            default:
+                throw new IllegalArgumentException("No article class for " + type + ".");
+        }
+    }
+
+    private static class Line {
+        private Enums.ObjectType type;
+        private String key;
+        private String lang;
+        private Article article;
+        private String string;
+    }
+}
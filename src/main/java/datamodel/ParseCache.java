@@ -0,0 +1,181 @@
+package datamodel;
+
+import com.google.gson.Gson;
+import datamodel.objects.*;
+import datamodel.objects.Collection;
+import datamodel.parser.BinfabBuffer;
+import datamodel.parser.Parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * On-disk cache of parsed articles, so that files which have not changed since an earlier session are not parsed again.
+ * <p>
+ * Entries are keyed by a hash of the file's contents together with the type it was parsed as, the path it is stored
+ * under and {@link Parser#PARSER_VERSION}, and hold the article as written by {@link Serializer}. Entries that cannot be
+ * read count as misses, so a damaged cache only costs a reparse. Safe to use from several threads at once.
+ */
+public class ParseCache {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Path directory;
+    private final Gson serializer = new Serializer().getSerializer(false);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writeFailures = new LongAdder();
+
+    public ParseCache(Path directory) {
+        this.directory = directory;
+    }
+
+    public static Path getDefaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".trovia-e", "parse-cache");
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @param buffer   contents of the file
+     * @param type     type the file is parsed as
+     * @param identity path the parsed article is stored under, as it is derived from the path and not the contents
+     * @return the key of the file's entry
+     */
+    public String key(BinfabBuffer buffer, Enums.ObjectType type, String identity) {
+        MessageDigest digest = sha256();
+        buffer.digest(digest);
+        byte[] contentHash = digest.digest();
+
+        digest.update(contentHash);
+        digest.update((type.name() + "\n" + Parser.PARSER_VERSION + "\n" + identity).getBytes(StandardCharsets.UTF_8));
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @return the cached article, or null if there is no usable entry for the key
+     */
+    public Article get(String key, Enums.ObjectType type) {
+        Path entry = entryPath(key);
+        if (Files.isRegularFile(entry)) {
+            try (Reader reader = Files.newBufferedReader(entry, StandardCharsets.UTF_8)) {
+                Article a = serializer.fromJson(reader, getArticleClass(type));
+                if (a != null) {
+                    hits.increment();
+                    return a;
+                }
+            } catch (Exception e) {
+                // damaged entry; it is overwritten once the file has been parsed again
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores an article under the key. Failing to write an entry does not affect the parse, so it is only counted.
+     */
+    public void put(String key, Article article) {
+        Path entry = entryPath(key);
+        try {
+            Files.createDirectories(entry.getParent());
+            // written to a temporary file first, so a concurrent or interrupted write never leaves half an entry behind
+            Path tmp = Files.createTempFile(entry.getParent(), key, ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                serializer.toJson(article, writer);
+            } catch (IOException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+            try {
+                Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Exception e) {
+            writeFailures.increment();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getWriteFailures() {
+        return writeFailures.sum();
+    }
+
+    public void resetCounts() {
+        hits.reset();
+        misses.reset();
+        writeFailures.reset();
+    }
+
+    public String getReport() {
+        String report = "Parse cache: " + getHits() + " hits, " + getMisses() + " misses.";
+        if (getWriteFailures() > 0) report += " " + getWriteFailures() + " entries could not be written to " + directory + ".";
+        return report;
+    }
+
+    // entries are spread over subdirectories by the first byte of their key, so no single directory grows too large
+    private Path entryPath(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ".json");
+    }
+
+    private static Class<? extends Article> getArticleClass(Enums.ObjectType type) {
+        switch (type) {
+            case BENCH:
+            case PROFESSION:
+                return Bench.class;
+            case COLLECTION:
+                return Collection.class;
+            case COLL_INDEX:
+                return CollectionIndex.class;
+            case GEAR_STYLE:
+                return GearStyleType.class;
+            case ITEM:
+                return Item.class;
+            case PLACEABLE:
+                return Placeable.class;
+            case RECIPE:
+                return Recipe.class;
+            case SKIN:
+                return Skin.class;
+            case LANG_FILE:
+                return LangFile.class;
+            default:
+                throw new IllegalArgumentException("No article class for " + type + ".");
+        }
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX_DIGITS[(bytes[i] >>> 4) & 0x0F];
+            chars[2 * i + 1] = HEX_DIGITS[bytes[i] & 0x0F];
+        }
+        return new String(chars);
+    }
+}
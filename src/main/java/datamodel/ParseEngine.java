@@ -0,0 +1,142 @@
+package datamodel;
+
+import datamodel.objects.Article;
+import datamodel.parser.parsestrategies.ParseException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Parses a selection of files on a fixed pool of worker threads.
+ * <p>
+ * Workers only parse; the thread calling {@link #parse} is the sole writer to the {@link DataModel}, and adds the parsed
+ * articles in batches through {@link DataModel#addArticlesToChanges}. Progress is reported from the calling thread, so
+ * the reported count only ever increases.
+ */
+public class ParseEngine {
+
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final DataModel model;
+    private final int parallelism;
+    private final int batchSize;
+
+    public interface ProgressListener {
+        void onProgress(int completed, int total);
+    }
+
+    public ParseEngine(DataModel model, int parallelism) {
+        this(model, parallelism, DEFAULT_BATCH_SIZE);
+    }
+
+    public ParseEngine(DataModel model, int parallelism, int batchSize) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+        this.model = model;
+        this.parallelism = parallelism;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Parses all the given paths and adds the results to the model's changes. The paths are iterated once, as they are
+     * handed to the workers, so a selection can be passed as it is.
+     *
+     * @return the paths that could not be parsed, with their error messages, in the same order as the input
+     * @throws InterruptedException if the calling thread is interrupted; remaining paths are not parsed
+     */
+    public Result parse(Collection<String> paths, Enums.ObjectType type, boolean useRPath, ProgressListener listener) throws InterruptedException {
+        Enums.ObjectType changesType = DataModel.getChangesType(type);
+        int total = paths.size();
+        String[] submitted = new String[total];
+        String[] failures = new String[total];
+
+        ExecutorService executor = Workers.newFixedPool("parse-worker", parallelism);
+        CompletionService<Outcome> completion = new ExecutorCompletionService<>(executor);
+        try {
+            Iterator<String> iterator = paths.iterator();
+            for (int i = 0; i < total; i++) {
+                int index = i;
+                String path = iterator.next();
+                submitted[index] = path;
+                completion.submit(() -> parseOne(index, path, type, useRPath));
+            }
+
+            List<Article> batch = new ArrayList<>(batchSize);
+            for (int completed = 1; completed <= total; completed++) {
+                Outcome outcome;
+                // parseOne turns every exception into a failed path, which is reported and skipped; only an Error gets
+                // through, and it is rethrown here, ending the parse
+                try {
+                    outcome = Workers.getResult(completion.take());
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                if (outcome.article != null) {
+                    batch.add(outcome.article);
+                    if (batch.size() >= batchSize) {
+                        model.addArticlesToChanges(batch, changesType);
+                        batch.clear();
+                    }
+                } else {
+                    failures[outcome.index] = outcome.error;
+                }
+                if (listener != null) listener.onProgress(completed, total);
+            }
+            if (!batch.isEmpty()) model.addArticlesToChanges(batch, changesType);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Result result = new Result();
+        for (int i = 0; i < total; i++) {
+            if (failures[i] != null) {
+                result.failedPaths.add(submitted[i]);
+                result.messages.add(failures[i]);
+            }
+        }
+        return result;
+    }
+
+    private Outcome parseOne(int index, String path, Enums.ObjectType type, boolean useRPath) {
+        try {
+            return new Outcome(index, model.parseObject(path, type, useRPath), null);
+        } catch (IOException | ParseException | RuntimeException e) {
+            return new Outcome(index, null, e.getMessage() == null ? e.toString() : e.getMessage());
+        }
+    }
+
+    private static class Outcome {
+        private final int index;
+        private final Article article;
+        private final String error;
+
+        private Outcome(int index, Article article, String error) {
+            this.index = index;
+            this.article = article;
+            this.error = error;
+        }
+    }
+
+    public static class Result {
+        private final List<String> failedPaths = new ArrayList<>();
+        private final List<String> messages = new ArrayList<>();
+
+        public List<String> getFailedPaths() {
+            return failedPaths;
+        }
+
+        /**
+         * @return the error messages, at the same indices as their paths in {@link #getFailedPaths()}
+         */
+        public List<String> getMessages() {
+            return messages;
+        }
+    }
+}
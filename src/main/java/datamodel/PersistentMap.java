@@ -0,0 +1,320 @@
+package datamodel;
+
+import java.util.*;
+
+/**
+ * An immutable hash map, where adding or removing an entry makes a new map that shares all but a few nodes with the old
+ * one.
+ * <p>
+ * Entries are kept in a hash array mapped trie: each node holds up to 32 slots, picked by five bits of the hash, and a
+ * slot holds either an entry or the node for the next five bits. A change copies the nodes on the way from the root to
+ * its slot, at most seven, and shares the rest, so keeping many versions of a large map costs memory in proportion to
+ * what changed between them. Keys with the same hash end up in a node that is searched in order.
+ * <p>
+ * The map cannot be changed through the {@link Map} interface. Keys must not be null, but values can be.
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final Node root;
+    private final int size;
+    private Set<Entry<K, V>> entrySet;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    public static <K, V> PersistentMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        if (map instanceof PersistentMap) {
+            @SuppressWarnings("unchecked")
+            PersistentMap<K, V> persistent = (PersistentMap<K, V>) map;
+            return persistent;
+        }
+        PersistentMap<K, V> copy = empty();
+        for (Entry<? extends K, ? extends V> entry : map.entrySet()) copy = copy.plus(entry.getKey(), entry.getValue());
+        return copy;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return a map with the key mapped to the value, or this map if it already is
+     */
+    public PersistentMap<K, V> plus(K key, V value) {
+        Objects.requireNonNull(key, "key");
+        boolean[] added = new boolean[1];
+        Node newRoot = root == null
+                ? Node.EMPTY.put(0, hash(key), key, value, added)
+                : root.put(0, hash(key), key, value, added);
+        return newRoot == root ? this : new PersistentMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * @return a map without the key, or this map if it has none
+     */
+    public PersistentMap<K, V> minus(Object key) {
+        if (root == null || key == null) return this;
+        Node newRoot = root.remove(0, hash(key), key);
+        return newRoot == root ? this : new PersistentMap<>(newRoot, size - 1);
+    }
+
+    @Override
+    public V get(Object key) {
+        if (root == null || key == null) return null;
+        @SuppressWarnings("unchecked")
+        V value = (V) root.find(hash(key), key, null);
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        // the node is never a value, so it tells a missing key apart from one mapped to null
+        return root != null && key != null && root.find(hash(key), key, root) != root;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new EntryIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * Measures what this map holds that another does not share, such as what a version of a map added to the one
+     * before it.
+     *
+     * @param other the map to compare with, or null to measure all of this map
+     * @return the number of nodes and of slots of this map that are not shared with the other
+     */
+    public int[] countUnshared(PersistentMap<?, ?> other) {
+        int[] counts = new int[2];
+        countUnshared(root, other == null ? null : other.root, counts);
+        return counts;
+    }
+
+    private static void countUnshared(Node node, Node other, int[] counts) {
+        if (node == null || node == other) return;
+        counts[0]++;
+        counts[1] += node.array.length / 2;
+        if (node.collision) return;
+        for (int i = 0; i < 32; i++) {
+            int bit = 1 << i;
+            if ((node.bitmap & bit) == 0) continue;
+            int index = 2 * Integer.bitCount(node.bitmap & (bit - 1));
+            if (node.array[index] != null) continue;
+            Node child = (Node) node.array[index + 1];
+            Node otherChild = null;
+            if (other != null && !other.collision && (other.bitmap & bit) != 0) {
+                int otherIndex = 2 * Integer.bitCount(other.bitmap & (bit - 1));
+                if (other.array[otherIndex] == null) otherChild = (Node) other.array[otherIndex + 1];
+            }
+            countUnshared(child, otherChild, counts);
+        }
+    }
+
+    /**
+     * A node of the trie. Its array holds two elements per slot: the key and the value of an entry, or null and the node
+     * below. A collision node instead holds the entries of keys whose hashes are all the same, one after another.
+     */
+    private static final class Node {
+        private static final Node EMPTY = new Node(0, new Object[0], false);
+
+        private final int bitmap; // which of the 32 slots are used
+        private final Object[] array;
+        private final boolean collision;
+
+        private Node(int bitmap, Object[] array, boolean collision) {
+            this.bitmap = bitmap;
+            this.array = array;
+            this.collision = collision;
+        }
+
+        private Object find(int hash, Object key, Object notFound) {
+            Node node = this;
+            for (int shift = 0; ; shift += BITS) {
+                if (node.collision) {
+                    for (int i = 0; i < node.array.length; i += 2) {
+                        if (key.equals(node.array[i])) return node.array[i + 1];
+                    }
+                    return notFound;
+                }
+                int bit = 1 << ((hash >>> shift) & MASK);
+                if ((node.bitmap & bit) == 0) return notFound;
+                int index = 2 * Integer.bitCount(node.bitmap & (bit - 1));
+                Object k = node.array[index];
+                if (k == null) node = (Node) node.array[index + 1];
+                else return key.equals(k) ? node.array[index + 1] : notFound;
+            }
+        }
+
+        private Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (collision) return putCollision(key, value, added);
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int index = 2 * Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, index);
+                newArray[index] = key;
+                newArray[index + 1] = value;
+                System.arraycopy(array, index, newArray, index + 2, array.length - index);
+                return new Node(bitmap | bit, newArray, false);
+            }
+            Object k = array[index];
+            Object v = array[index + 1];
+            if (k == null) {
+                Node child = ((Node) v).put(shift + BITS, hash, key, value, added);
+                return child == v ? this : with(index + 1, child);
+            }
+            if (key.equals(k)) {
+                return v == value ? this : with(index + 1, value);
+            }
+            added[0] = true;
+            Node child = pair(shift + BITS, hash(k), k, v, hash, key, value);
+            Object[] newArray = array.clone();
+            newArray[index] = null;
+            newArray[index + 1] = child;
+            return new Node(bitmap, newArray, false);
+        }
+
+        private Node putCollision(Object key, Object value, boolean[] added) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) return array[i + 1] == value ? this : with(i + 1, value);
+            }
+            added[0] = true;
+            Object[] newArray = Arrays.copyOf(array, array.length + 2);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            return new Node(0, newArray, true);
+        }
+
+        // the node holding two entries whose hashes are the same up to the shift
+        private static Node pair(int shift, int hash1, Object key1, Object value1, int hash2, Object key2, Object value2) {
+            if (shift >= 32) return new Node(0, new Object[]{key1, value1, key2, value2}, true);
+            int index1 = (hash1 >>> shift) & MASK;
+            int index2 = (hash2 >>> shift) & MASK;
+            if (index1 == index2) {
+                return new Node(1 << index1, new Object[]{null, pair(shift + BITS, hash1, key1, value1, hash2, key2, value2)}, false);
+            }
+            Object[] array = index1 < index2
+                    ? new Object[]{key1, value1, key2, value2}
+                    : new Object[]{key2, value2, key1, value1};
+            return new Node(1 << index1 | 1 << index2, array, false);
+        }
+
+        /**
+         * @return the node without the key, this node if it has none, or null if it would be empty
+         */
+        private Node remove(int shift, int hash, Object key) {
+            if (collision) {
+                for (int i = 0; i < array.length; i += 2) {
+                    if (key.equals(array[i])) return array.length == 2 ? null : new Node(0, without(i), true);
+                }
+                return this;
+            }
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) return this;
+            int index = 2 * Integer.bitCount(bitmap & (bit - 1));
+            Object k = array[index];
+            if (k == null) {
+                Node child = (Node) array[index + 1];
+                Node newChild = child.remove(shift + BITS, hash, key);
+                if (newChild == child) return this;
+                if (newChild != null) return with(index + 1, newChild);
+            } else if (!key.equals(k)) {
+                return this;
+            }
+            return bitmap == bit ? null : new Node(bitmap & ~bit, without(index), false);
+        }
+
+        private Node with(int index, Object element) {
+            Object[] newArray = array.clone();
+            newArray[index] = element;
+            return new Node(bitmap, newArray, collision);
+        }
+
+        private Object[] without(int index) {
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, index);
+            System.arraycopy(array, index + 2, newArray, index, array.length - index - 2);
+            return newArray;
+        }
+    }
+
+    private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+        private final Deque<Node> nodes = new ArrayDeque<>();
+        private final Deque<Integer> positions = new ArrayDeque<>();
+        private Entry<K, V> next;
+
+        private EntryIterator(Node root) {
+            if (root != null) {
+                nodes.push(root);
+                positions.push(0);
+            }
+            advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (!nodes.isEmpty()) {
+                Node node = nodes.peek();
+                int position = positions.pop();
+                if (position == node.array.length) {
+                    nodes.pop();
+                    continue;
+                }
+                positions.push(position + 2);
+                Object k = node.array[position];
+                if (k == null) {
+                    nodes.push((Node) node.array[position + 1]);
+                    positions.push(0);
+                } else {
+                    next = new SimpleImmutableEntry<>((K) k, (V) node.array[position + 1]);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (next == null) throw new NoSuchElementException();
+            Entry<K, V> entry = next;
+            advance();
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package datamodel;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A type-ahead index of a set of paths, which can be searched from one thread while another updates it.
+ * <p>
+ * Searches ignore case. Paths that start with the query are found through a radix trie, and paths that contain it
+ * elsewhere through an index of the three-character sequences of each path: only the paths that have every sequence of
+ * the query are checked. Queries shorter than three characters match by prefix only, as nearly every path contains them.
+ * <p>
+ * Each path is given an id. A removed path is only marked as such, and the index is rebuilt once it holds more removed
+ * paths than live ones, so that removing a path does not have to search the lists it is in.
+ */
+public class SearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int MIN_REBUILD = 1024;
+    // how many candidates are checked between looks at whether the search was cancelled
+    private static final int CANCEL_CHECK_INTERVAL = 4096;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<String> paths = new ArrayList<>(); // by id, null once removed
+    private final List<String> keys = new ArrayList<>(); // lower case, by id
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final Map<Long, IntList> grams = new HashMap<>();
+    private TrieNode root = new TrieNode("");
+
+    /**
+     * Adds and removes paths. Paths that are already in the index are not added again, and paths that are not in it
+     * are not removed.
+     */
+    public void update(Collection<String> added, Collection<String> removed) {
+        lock.writeLock().lock();
+        try {
+            for (String path : removed) {
+                Integer id = ids.remove(path);
+                if (id != null) paths.set(id, null);
+            }
+            for (String path : added) {
+                if (!ids.containsKey(path)) add(path);
+            }
+            if (paths.size() - ids.size() > Math.max(MIN_REBUILD, ids.size())) rebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            paths.clear();
+            keys.clear();
+            ids.clear();
+            grams.clear();
+            root = new TrieNode("");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(String path) {
+        int id = paths.size();
+        String key = path.toLowerCase(Locale.ROOT);
+        paths.add(path);
+        keys.add(key);
+        ids.put(path, id);
+        root.insert(key, 0, id);
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            // ids only grow, so each list stays sorted, and a repeated sequence is only listed once
+            IntList list = grams.computeIfAbsent(gram(key, i), g -> new IntList());
+            if (list.size == 0 || list.get(list.size - 1) != id) list.add(id);
+        }
+    }
+
+    private void rebuild() {
+        List<String> live = new ArrayList<>(ids.keySet());
+        paths.clear();
+        keys.clear();
+        ids.clear();
+        grams.clear();
+        root = new TrieNode("");
+        live.forEach(this::add);
+    }
+
+    private static long gram(String key, int start) {
+        return (long) key.charAt(start) << 32 | (long) key.charAt(start + 1) << 16 | key.charAt(start + 2);
+    }
+
+    /**
+     * Finds the paths that contain the query, ignoring case. Those that start with it come first; each group is sorted
+     * by its lower case form.
+     *
+     * @return the matching paths, or none if the query is empty
+     * @throws InterruptedException if the calling thread is interrupted, such as when the query has been typed over
+     */
+    public List<String> search(String query) throws InterruptedException {
+        List<String> results = new ArrayList<>();
+        if (query.isEmpty()) return results;
+        String key = query.toLowerCase(Locale.ROOT);
+        checkCancelled();
+        lock.readLock().lock();
+        try {
+            IntList prefixed = new IntList();
+            TrieNode node = root.find(key, 0);
+            if (node != null) node.collect(prefixed);
+            for (int i = 0; i < prefixed.size; i++) {
+                if ((i + 1) % CANCEL_CHECK_INTERVAL == 0) checkCancelled();
+                String path = paths.get(prefixed.get(i));
+                if (path != null) results.add(path);
+            }
+            if (key.length() < GRAM) return results;
+
+            List<Integer> contained = new ArrayList<>();
+            IntList candidates = intersectGrams(key);
+            for (int i = 0; i < candidates.size; i++) {
+                if ((i + 1) % CANCEL_CHECK_INTERVAL == 0) checkCancelled();
+                int id = candidates.get(i);
+                String pathKey = keys.get(id);
+                if (paths.get(id) != null && !pathKey.startsWith(key) && pathKey.contains(key)) contained.add(id);
+            }
+            checkCancelled();
+            contained.sort(Comparator.comparing(keys::get));
+            for (int id : contained) results.add(paths.get(id));
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void checkCancelled() throws InterruptedException {
+        if (Thread.interrupted()) throw new InterruptedException();
+    }
+
+    // the ids listed under every sequence of the key, smallest list first so that the result only shrinks
+    private IntList intersectGrams(String key) {
+        Set<Long> keyGrams = new HashSet<>();
+        for (int i = 0; i + GRAM <= key.length(); i++) keyGrams.add(gram(key, i));
+        List<IntList> lists = new ArrayList<>();
+        for (Long g : keyGrams) {
+            IntList list = grams.get(g);
+            if (list == null) return new IntList();
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(l -> l.size));
+        IntList result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.size > 0; i++) result = result.intersect(lists.get(i));
+        return result;
+    }
+
+    /**
+     * A node of the trie, which holds the part of a key since its parent. Children are kept by their first character.
+     */
+    private static class TrieNode {
+        private String label;
+        private char[] firsts = new char[0];
+        private TrieNode[] children = new TrieNode[0];
+        private IntList ids; // of the keys that end here; several paths can have the same lower case form
+
+        private TrieNode(String label) {
+            this.label = label;
+        }
+
+        private void insert(String key, int start, int id) {
+            if (start == key.length()) {
+                if (ids == null) ids = new IntList();
+                ids.add(id);
+                return;
+            }
+            int index = Arrays.binarySearch(firsts, key.charAt(start));
+            if (index < 0) {
+                addChild(-index - 1, new TrieNode(key.substring(start)));
+                children[-index - 1].insert(key, key.length(), id);
+                return;
+            }
+            TrieNode child = children[index];
+            int common = commonLength(child.label, key, start);
+            if (common < child.label.length()) child.split(common);
+            child.insert(key, start + common, id);
+        }
+
+        // keeps the first part of the label here and moves the rest, with the children, to a new node below
+        private void split(int at) {
+            TrieNode rest = new TrieNode(label.substring(at));
+            rest.firsts = firsts;
+            rest.children = children;
+            rest.ids = ids;
+            label = label.substring(0, at);
+            firsts = new char[]{rest.label.charAt(0)};
+            children = new TrieNode[]{rest};
+            ids = null;
+        }
+
+        private void addChild(int index, TrieNode child) {
+            char[] newFirsts = new char[firsts.length + 1];
+            TrieNode[] newChildren = new TrieNode[children.length + 1];
+            System.arraycopy(firsts, 0, newFirsts, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newFirsts[index] = child.label.charAt(0);
+            newChildren[index] = child;
+            System.arraycopy(firsts, index, newFirsts, index + 1, firsts.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            firsts = newFirsts;
+            children = newChildren;
+        }
+
+        /**
+         * @return the node below which every key starts with the prefix, or null if no key does
+         */
+        private TrieNode find(String prefix, int start) {
+            if (start == prefix.length()) return this;
+            int index = Arrays.binarySearch(firsts, prefix.charAt(start));
+            if (index < 0) return null;
+            TrieNode child = children[index];
+            int common = commonLength(child.label, prefix, start);
+            if (start + common == prefix.length()) return child;
+            return common == child.label.length() ? child.find(prefix, start + common) : null;
+        }
+
+        // adds the ids at and below this node in the order of their keys
+        private void collect(IntList out) {
+            if (ids != null) out.addAll(ids);
+            for (TrieNode child : children) child.collect(out);
+        }
+
+        private static int commonLength(String label, String key, int start) {
+            int max = Math.min(label.length(), key.length() - start);
+            int i = 0;
+            while (i < max && label.charAt(i) == key.charAt(start + i)) i++;
+            return i;
+        }
+    }
+
+    /**
+     * A growable list of ints, which the index keeps many of.
+     */
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private int get(int index) {
+            return values[index];
+        }
+
+        private void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        private void addAll(IntList other) {
+            for (int i = 0; i < other.size; i++) add(other.values[i]);
+        }
+
+        // both lists are sorted
+        private IntList intersect(IntList other) {
+            IntList result = new IntList();
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (values[i] < other.values[j]) i++;
+                else if (values[i] > other.values[j]) j++;
+                else {
+                    result.add(values[i]);
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -1,27 +1,44 @@
 package datamodel;
 
-import com.google.gson.*;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
 import datamodel.objects.Collection;
 import datamodel.objects.*;
 
 import java.io.IOException;
-import java.lang.reflect.Type;
 import java.util.*;
 
+/**
+ * Reads and writes articles as JSON.
+ * <p>
+ * Every article type has a streaming {@link TypeAdapter}, which writes straight to a {@link JsonWriter} and reads straight
+ * from a {@link JsonReader}, without building an intermediate tree of JSON elements. Keys may come in any order when
+ * reading, and unknown keys are skipped.
+ */
 public class Serializer {
 
+    /**
+     * Names of the categories of an export, in the order they are written.
+     */
+    public static final List<String> CATEGORIES = Collections.unmodifiableList(Arrays.asList("benches", "collections",
+            "collection_indices", "gear_styles", "items", "placeables", "recipes", "skins", "strings"));
+
     public Gson getSerializer(boolean usePrettyPrint) {
         GsonBuilder builder = new GsonBuilder();
-        builder.registerTypeAdapter(Bench.class, new BenchSerializer());
-        builder.registerTypeAdapter(Collection.class, new CollectionSerializer());
-        builder.registerTypeAdapter(CollectionIndex.class, new CollectionIndexSerializer());
-        builder.registerTypeAdapter(GearStyleType.class, new GearStyleTypeSerializer());
-        builder.registerTypeAdapter(Item.class, new ItemSerializer());
-        builder.registerTypeAdapter(Placeable.class, new PlaceableSerializer());
-        builder.registerTypeAdapter(Recipe.class, new RecipeSerializer());
-        builder.registerTypeAdapter(Skin.class, new SkinSerializer());
-        builder.registerTypeAdapter(Strings.class, new StringsSerializer());
+        builder.registerTypeAdapter(Bench.class, new BenchAdapter().nullSafe());
+        builder.registerTypeAdapter(Collection.class, new CollectionAdapter().nullSafe());
+        builder.registerTypeAdapter(CollectionIndex.class, new CollectionIndexAdapter().nullSafe());
+        builder.registerTypeAdapter(GearStyleType.class, new GearStyleTypeAdapter().nullSafe());
+        builder.registerTypeAdapter(Item.class, new ItemAdapter().nullSafe());
+        builder.registerTypeAdapter(LangFile.class, new LangFileAdapter().nullSafe());
+        builder.registerTypeAdapter(Placeable.class, new PlaceableAdapter().nullSafe());
+        builder.registerTypeAdapter(Recipe.class, new RecipeAdapter().nullSafe());
+        builder.registerTypeAdapter(Skin.class, new SkinAdapter().nullSafe());
+        builder.registerTypeAdapter(Strings.class, new StringsAdapter().nullSafe());
 
         builder.serializeNulls();
         if (usePrettyPrint) builder.setPrettyPrinting();
@@ -30,463 +47,791 @@ public class Serializer {
     }
 
     public void writeBenches(JsonWriter writer, Gson serializer, Map<String, Bench> benches) throws IOException {
+        TypeAdapter<Bench> adapter = serializer.getAdapter(Bench.class);
         writer.name("benches");
         writer.beginObject();
         for (Map.Entry<String, Bench> entry : benches.entrySet()) {
-            writer.name(entry.getKey()).jsonValue(serializer.toJson(entry.getValue()));
+            writer.name(entry.getKey());
+            adapter.write(writer, entry.getValue());
         }
         writer.endObject();
     }
 
     public void writeCollections(JsonWriter writer, Gson serializer, Map<String, Collection> collections) throws IOException {
+        TypeAdapter<Collection> adapter = serializer.getAdapter(Collection.class);
         writer.name("collections");
         writer.beginObject();
         for (Map.Entry<String, Collection> entry : collections.entrySet()) {
-            writer.name(entry.getKey()).jsonValue(serializer.toJson(entry.getValue()));
+            writer.name(entry.getKey());
+            adapter.write(writer, entry.getValue());
         }
         writer.endObject();
     }
 
     public void writeCollectionIndices(JsonWriter writer, Gson serializer, Map<String, CollectionIndex> indices) throws IOException {
+        TypeAdapter<CollectionIndex> adapter = serializer.getAdapter(CollectionIndex.class);
         writer.name("collection_indices");
         writer.beginObject();
         for (Map.Entry<String, CollectionIndex> entry : indices.entrySet()) {
-            writer.name(entry.getKey()).jsonValue(serializer.toJson(entry.getValue()));
+            writer.name(entry.getKey());
+            adapter.write(writer, entry.getValue());
         }
         writer.endObject();
     }
 
     public void writeGearStyles(JsonWriter writer, Gson serializer, Map<String, GearStyleType> styles) throws IOException {
+        TypeAdapter<GearStyleType> adapter = serializer.getAdapter(GearStyleType.class);
         writer.name("gear_styles");
         writer.beginObject();
         for (Map.Entry<String, GearStyleType> entry : styles.entrySet()) {
-            writer.name(entry.getKey()).jsonValue(serializer.toJson(entry.getValue()));
+            writer.name(entry.getKey());
+            adapter.write(writer, entry.getValue());
         }
         writer.endObject();
     }
 
     public void writeItems(JsonWriter writer, Gson serializer, Map<String, Item> items) throws IOException {
+        TypeAdapter<Item> adapter = serializer.getAdapter(Item.class);
         writer.name("items");
         writer.beginObject();
         for (Map.Entry<String, Item> entry : items.entrySet()) {
-            writer.name(entry.getKey()).jsonValue(serializer.toJson(entry.getValue()));
+            writer.name(entry.getKey());
+            adapter.write(writer, entry.getValue());
         }
         writer.endObject();
     }
 
     public void writePlaceables(JsonWriter writer, Gson serializer, Map<String, Placeable> placeables) throws IOException {
+        TypeAdapter<Placeable> adapter = serializer.getAdapter(Placeable.class);
         writer.name("placeables");
         writer.beginObject();
         for (Map.Entry<String, Placeable> entry : placeables.entrySet()) {
-            writer.name(entry.getKey()).jsonValue(serializer.toJson(entry.getValue()));
+            writer.name(entry.getKey());
+            adapter.write(writer, entry.getValue());
         }
         writer.endObject();
     }
 
     public void writeRecipes(JsonWriter writer, Gson serializer, Map<String, Recipe> recipes) throws IOException {
+        TypeAdapter<Recipe> adapter = serializer.getAdapter(Recipe.class);
         writer.name("recipes");
         writer.beginObject();
         for (Map.Entry<String, Recipe> entry : recipes.entrySet()) {
-            writer.name(entry.getKey()).jsonValue(serializer.toJson(entry.getValue()));
+            writer.name(entry.getKey());
+            adapter.write(writer, entry.getValue());
         }
         writer.endObject();
     }
 
     public void writeSkins(JsonWriter writer, Gson serializer, Map<String, Skin> skins) throws IOException {
+        TypeAdapter<Skin> adapter = serializer.getAdapter(Skin.class);
         writer.name("skins");
         writer.beginObject();
         for (Map.Entry<String, Skin> entry : skins.entrySet()) {
-            writer.name(entry.getKey()).jsonValue(serializer.toJson(entry.getValue()));
+            writer.name(entry.getKey());
+            adapter.write(writer, entry.getValue());
         }
         writer.endObject();
     }
 
     public void writeStrings(JsonWriter writer, Gson serializer, Strings strings) throws IOException {
-        writer.name("strings").jsonValue(serializer.toJson(strings));
+        writer.name("strings");
+        serializer.getAdapter(Strings.class).write(writer, strings);
+    }
+
+    private static String nextNullableString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private static void writeStringArray(JsonWriter out, List<String> values) throws IOException {
+        out.beginArray();
+        for (String value : values) out.value(value);
+        out.endArray();
     }
 
-    public static class BenchSerializer implements JsonSerializer<Bench>, JsonDeserializer<Bench> {
+    private static List<String> readStringArray(JsonReader in) throws IOException {
+        List<String> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) values.add(in.nextString());
+        in.endArray();
+        return values;
+    }
+
+    private static void writeStringMap(JsonWriter out, Map<String, String> map) throws IOException {
+        out.beginObject();
+        for (Map.Entry<String, String> entry : map.entrySet()) out.name(entry.getKey()).value(entry.getValue());
+        out.endObject();
+    }
+
+    private static Map<String, String> readStringMap(JsonReader in) throws IOException {
+        Map<String, String> map = new HashMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            String key = in.nextName();
+            map.put(key, nextNullableString(in));
+        }
+        in.endObject();
+        return map;
+    }
+
+    private static void writeIntMap(JsonWriter out, Map<String, Integer> map) throws IOException {
+        out.beginObject();
+        for (Map.Entry<String, Integer> entry : map.entrySet()) out.name(entry.getKey()).value(entry.getValue());
+        out.endObject();
+    }
+
+    private static Map<String, Integer> readIntMap(JsonReader in) throws IOException {
+        Map<String, Integer> map = new HashMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            String key = in.nextName();
+            map.put(key, in.nextInt());
+        }
+        in.endObject();
+        return map;
+    }
+
+    public static class BenchAdapter extends TypeAdapter<Bench> {
 
         @Override
-        public JsonElement serialize(Bench bench, Type type, JsonSerializationContext jsonSerializationContext) {
-            JsonObject obj = new JsonObject();
-            obj.add("rel_path", new JsonPrimitive(bench.getRPath()));
-            obj.add("name", new JsonPrimitive(bench.getName()));
+        public void write(JsonWriter out, Bench bench) throws IOException {
+            out.beginObject();
+            out.name("rel_path").value(bench.getRPath());
+            out.name("name").value(bench.getName());
 
-            JsonObject categories = new JsonObject();
+            out.name("categories");
+            out.beginObject();
             for (Map.Entry<String, List<String>> entry : bench.getCategories().entrySet()) {
                 String benchIndex = bench.getOrder().get(entry.getKey()).toString(); // note that this will throw an NullPointerException if no such key-value pair exists
 
-                JsonObject value = new JsonObject();
-                value.add("name_id", new JsonPrimitive(entry.getKey()));
-                JsonArray recipes = new JsonArray();
-                entry.getValue().forEach(recipes::add);
-                value.add("recipes", recipes);
-
-                categories.add(benchIndex, value);
+                out.name(benchIndex);
+                out.beginObject();
+                out.name("name_id").value(entry.getKey());
+                out.name("recipes");
+                writeStringArray(out, entry.getValue());
+                out.endObject();
             }
-            obj.add("categories", categories);
-            return obj;
+            out.endObject();
+            out.endObject();
         }
 
         @Override
-        public Bench deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-            JsonObject obj = jsonElement.getAsJsonObject();
-            String rPath = obj.get("rel_path").getAsString();
-            String name = obj.get("name").getAsString();
+        public Bench read(JsonReader in) throws IOException {
+            String rPath = null;
+            String name = null;
             Map<String, List<String>> categories = new HashMap<>();
             Map<String, Integer> order = new HashMap<>();
-            JsonObject catsObj = obj.get("categories").getAsJsonObject();
-
-            catsObj.entrySet().forEach(e -> {
-                JsonObject val = e.getValue().getAsJsonObject();
-                int catOrder = Integer.parseInt(e.getKey());
-                String catName = val.get("name_id").getAsString();
-                List<String> recipes = new ArrayList<>();
-                val.get("recipes").getAsJsonArray().forEach(rec -> recipes.add(rec.getAsString()));
-                order.put(catName, catOrder);
-                categories.put(catName, recipes);
-            });
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "rel_path":
+                        rPath = in.nextString();
+                        break;
+                    case "name":
+                        name = in.nextString();
+                        break;
+                    case "categories":
+                        in.beginObject();
+                        while (in.hasNext()) {
+                            int catOrder = Integer.parseInt(in.nextName());
+                            String catName = null;
+                            List<String> recipes = new ArrayList<>();
+                            in.beginObject();
+                            while (in.hasNext()) {
+                                switch (in.nextName()) {
+                                    case "name_id":
+                                        catName = in.nextString();
+                                        break;
+                                    case "recipes":
+                                        recipes = readStringArray(in);
+                                        break;
+                                    default:
+                                        in.skipValue();
+                                }
+                            }
+                            in.endObject();
+                            order.put(catName, catOrder);
+                            categories.put(catName, recipes);
+                        }
+                        in.endObject();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
 
             return new Bench(name, rPath, order, categories);
         }
     }
 
-    public static class CollectionSerializer implements JsonSerializer<Collection>, JsonDeserializer<Collection> {
+    public static class CollectionAdapter extends TypeAdapter<Collection> {
 
         @Override
-        public JsonElement serialize(Collection collection, Type type, JsonSerializationContext jsonSerializationContext) {
-            JsonObject obj = new JsonObject();
-            obj.add("rel_path", new JsonPrimitive(collection.getRPath()));
-            obj.add("name", new JsonPrimitive(collection.getName()));
-            obj.add("desc", collection.getDesc() != null ? new JsonPrimitive(collection.getDesc()) : null);
-            obj.add("blueprint", collection.getBlueprint() != null ? new JsonPrimitive(collection.getBlueprint()) : null);
-            obj.add("trove_mr", new JsonPrimitive(collection.getTroveMR()));
-            obj.add("geode_mr", new JsonPrimitive(collection.getGeodeMR()));
-
-            JsonArray types = new JsonArray();
-            collection.getTypes().forEach(i -> types.add(i.toString()));
-
-            JsonObject properties = new JsonObject();
-            collection.getProperties().forEach((k, v) -> properties.add(k.toString(), new JsonPrimitive(v)));
-
-            JsonObject buffs = new JsonObject();
-            collection.getBuffs().forEach((k, v) -> buffs.add(k.toString(), new JsonPrimitive(v)));
-
-            obj.add("types", types);
-            obj.add("properties", properties);
-            obj.add("buffs", buffs);
+        public void write(JsonWriter out, Collection collection) throws IOException {
+            out.beginObject();
+            out.name("rel_path").value(collection.getRPath());
+            out.name("name").value(collection.getName());
+            out.name("desc").value(collection.getDesc());
+            out.name("blueprint").value(collection.getBlueprint());
+            out.name("trove_mr").value(collection.getTroveMR());
+            out.name("geode_mr").value(collection.getGeodeMR());
+
+            out.name("types");
+            out.beginArray();
+            for (Enums.Type t : collection.getTypes()) out.value(t.toString());
+            out.endArray();
+
+            out.name("properties");
+            out.beginObject();
+            for (Map.Entry<Enums.Property, Double> entry : collection.getProperties().entrySet()) {
+                out.name(entry.getKey().toString()).value(entry.getValue());
+            }
+            out.endObject();
 
-            return obj;
+            out.name("buffs");
+            out.beginObject();
+            for (Map.Entry<Enums.Buff, Double> entry : collection.getBuffs().entrySet()) {
+                out.name(entry.getKey().toString()).value(entry.getValue());
+            }
+            out.endObject();
+            out.endObject();
         }
 
         @Override
-        public Collection deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-            JsonObject obj = jsonElement.getAsJsonObject();
-            String rPath = obj.get("rel_path").getAsString();
-            String name = obj.get("name").getAsString();
-            String desc = obj.get("desc").isJsonNull() ? null : obj.get("desc").getAsString();
-            String blueprint = obj.get("blueprint").isJsonNull() ? null : obj.get("blueprint").getAsString();
-            int troveMR = obj.get("trove_mr").getAsInt();
-            int geodeMR = obj.get("geode_mr").getAsInt();
+        public Collection read(JsonReader in) throws IOException {
+            String rPath = null;
+            String name = null;
+            String desc = null;
+            String blueprint = null;
+            int troveMR = 0;
+            int geodeMR = 0;
             List<Enums.Type> types = new ArrayList<>();
             Map<Enums.Property, Double> properties = new HashMap<>();
             Map<Enums.Buff, Double> buffs = new HashMap<>();
 
-            JsonArray typesArr = obj.get("types").getAsJsonArray();
-            typesArr.forEach(t -> types.add(Enums.Type.valueOf(t.getAsString())));
-
-            JsonObject propsObj = obj.get("properties").getAsJsonObject();
-            propsObj.entrySet().forEach(e -> properties.put(Enums.Property.valueOf(e.getKey()), e.getValue().getAsDouble()));
-
-            JsonObject buffsObj = obj.get("buffs").getAsJsonObject();
-            buffsObj.entrySet().forEach(e -> buffs.put(Enums.Buff.valueOf(e.getKey()), e.getValue().getAsDouble()));
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "rel_path":
+                        rPath = in.nextString();
+                        break;
+                    case "name":
+                        name = in.nextString();
+                        break;
+                    case "desc":
+                        desc = nextNullableString(in);
+                        break;
+                    case "blueprint":
+                        blueprint = nextNullableString(in);
+                        break;
+                    case "trove_mr":
+                        troveMR = in.nextInt();
+                        break;
+                    case "geode_mr":
+                        geodeMR = in.nextInt();
+                        break;
+                    case "types":
+                        in.beginArray();
+                        while (in.hasNext()) types.add(Enums.Type.valueOf(in.nextString()));
+                        in.endArray();
+                        break;
+                    case "properties":
+                        in.beginObject();
+                        while (in.hasNext()) {
+                            Enums.Property property = Enums.Property.valueOf(in.nextName());
+                            properties.put(property, in.nextDouble());
+                        }
+                        in.endObject();
+                        break;
+                    case "buffs":
+                        in.beginObject();
+                        while (in.hasNext()) {
+                            Enums.Buff buff = Enums.Buff.valueOf(in.nextName());
+                            buffs.put(buff, in.nextDouble());
+                        }
+                        in.endObject();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
 
             return new Collection(name, desc, rPath, troveMR, geodeMR, blueprint, types, properties, buffs);
         }
     }
 
-    public static class CollectionIndexSerializer implements JsonSerializer<CollectionIndex>, JsonDeserializer<CollectionIndex> {
+    public static class CollectionIndexAdapter extends TypeAdapter<CollectionIndex> {
 
         @Override
-        public JsonElement serialize(CollectionIndex index, Type type, JsonSerializationContext jsonSerializationContext) {
-            JsonObject obj = new JsonObject();
-            obj.add("rel_path", new JsonPrimitive(index.getRPath()));
-            obj.add("type", new JsonPrimitive(index.getType()));
+        public void write(JsonWriter out, CollectionIndex index) throws IOException {
+            out.beginObject();
+            out.name("rel_path").value(index.getRPath());
+            out.name("type").value(index.getType());
 
-            JsonObject categories = new JsonObject();
+            out.name("categories");
+            out.beginObject();
             for (Map.Entry<String, String> nameEntry : index.getNames().entrySet()) {
                 String key = nameEntry.getKey();
-
-                JsonObject category = new JsonObject();
-                category.add("display_name", new JsonPrimitive(nameEntry.getValue()));
-
-                JsonArray entries = new JsonArray();
-                JsonObject additionalInfo = new JsonObject();
-                for (Map.Entry<String, String> infoEntry : index.getCategories().get(key).entrySet()) {
-                    entries.add(infoEntry.getKey());
-                    if (infoEntry.getValue() != null) {
-                        additionalInfo.add(infoEntry.getKey(), new JsonPrimitive(infoEntry.getValue()));
+                Map<String, String> info = index.getCategories().get(key);
+
+                out.name(key);
+                out.beginObject();
+                out.name("display_name").value(nameEntry.getValue());
+
+                boolean hasAdditionalInfo = false;
+                if (!info.isEmpty()) {
+                    out.name("entries");
+                    out.beginArray();
+                    for (Map.Entry<String, String> infoEntry : info.entrySet()) {
+                        out.value(infoEntry.getKey());
+                        if (infoEntry.getValue() != null) hasAdditionalInfo = true;
                     }
+                    out.endArray();
                 }
-                if (entries.size() > 0) category.add("entries", entries);
-                if (additionalInfo.size() > 0) category.add("additional_info", additionalInfo);
-                categories.add(key, category);
+                if (hasAdditionalInfo) {
+                    out.name("additional_info");
+                    out.beginObject();
+                    for (Map.Entry<String, String> infoEntry : info.entrySet()) {
+                        if (infoEntry.getValue() != null) out.name(infoEntry.getKey()).value(infoEntry.getValue());
+                    }
+                    out.endObject();
+                }
+                out.endObject();
             }
-            obj.add("categories", categories);
-            return obj;
+            out.endObject();
+            out.endObject();
         }
 
         @Override
-        public CollectionIndex deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-            JsonObject obj = jsonElement.getAsJsonObject();
-            String rPath = obj.get("rel_path").getAsString();
-            String ciType = obj.get("type").getAsString();
-            JsonObject catObj = obj.get("categories").getAsJsonObject();
+        public CollectionIndex read(JsonReader in) throws IOException {
+            String rPath = null;
+            String ciType = null;
             Map<String, String> names = new HashMap<>();
             Map<String, Map<String, String>> categories = new HashMap<>();
 
-            catObj.entrySet().forEach(e -> {
-                String key = e.getKey();
-                JsonObject val = e.getValue().getAsJsonObject();
-                names.put(key, val.get("display_name").getAsString());
-                Map<String, String> additionalInfo = new HashMap<>();
-                List<String> entries = new ArrayList<>();
-
-                if (val.keySet().contains("entries")) {
-                    JsonArray entriesArr = val.get("entries").getAsJsonArray();
-                    if (val.keySet().contains("additional_info")) {
-                        JsonObject addInfoObj = val.get("additional_info").getAsJsonObject();
-                        Set<String> addInfoKeys = addInfoObj.keySet();
-                        entriesArr.forEach(i -> {
-                            String currKey = i.getAsString();
-                            if (!addInfoKeys.contains(currKey))
-                                entries.add(currKey);
-                            else
-                                additionalInfo.put(currKey, addInfoObj.get(currKey).getAsString());
-                        });
-                    } else {
-                        entriesArr.forEach(i -> entries.add(i.getAsString()));
-                    }
-                    entries.forEach(k -> additionalInfo.put(k, null));
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "rel_path":
+                        rPath = in.nextString();
+                        break;
+                    case "type":
+                        ciType = in.nextString();
+                        break;
+                    case "categories":
+                        in.beginObject();
+                        while (in.hasNext()) {
+                            String key = in.nextName();
+                            List<String> entries = Collections.emptyList();
+                            Map<String, String> additionalInfo = Collections.emptyMap();
+                            in.beginObject();
+                            while (in.hasNext()) {
+                                switch (in.nextName()) {
+                                    case "display_name":
+                                        names.put(key, in.nextString());
+                                        break;
+                                    case "entries":
+                                        entries = readStringArray(in);
+                                        break;
+                                    case "additional_info":
+                                        additionalInfo = readStringMap(in);
+                                        break;
+                                    default:
+                                        in.skipValue();
+                                }
+                            }
+                            in.endObject();
+
+                            // entries without additional info are mapped to null
+                            Map<String, String> info = new HashMap<>();
+                            for (String entry : entries) info.put(entry, additionalInfo.get(entry));
+                            categories.put(key, info);
+                        }
+                        in.endObject();
+                        break;
+                    default:
+                        in.skipValue();
                 }
-                categories.put(key, additionalInfo);
-            });
+            }
+            in.endObject();
 
             return new CollectionIndex(rPath, ciType, names, categories);
         }
     }
 
-    public static class GearStyleTypeSerializer implements JsonSerializer<GearStyleType>, JsonDeserializer<GearStyleType> {
+    public static class GearStyleTypeAdapter extends TypeAdapter<GearStyleType> {
 
         @Override
-        public JsonElement serialize(GearStyleType gearStyleType, Type type, JsonSerializationContext jsonSerializationContext) {
-            JsonObject obj = new JsonObject();
-            obj.add("rel_path", new JsonPrimitive(gearStyleType.getRPath()));
-            obj.add("type", new JsonPrimitive(gearStyleType.getType()));
+        public void write(JsonWriter out, GearStyleType gearStyleType) throws IOException {
+            out.beginObject();
+            out.name("rel_path").value(gearStyleType.getRPath());
+            out.name("type").value(gearStyleType.getType());
 
-            JsonObject styles = new JsonObject();
+            out.name("styles");
+            out.beginObject();
             for (Map.Entry<String, Map<String, GearStyleEntry>> entry : gearStyleType.getStyles().entrySet()) {
-                String category = entry.getKey();
-                JsonObject categoryStyles = new JsonObject();
+                out.name(entry.getKey());
+                out.beginObject();
                 for (Map.Entry<String, GearStyleEntry> styleEntry : entry.getValue().entrySet()) {
-                    String blueprint = styleEntry.getKey();
                     GearStyleEntry value = styleEntry.getValue();
-                    String name = value.getName();
-                    String desc = value.getDesc();
-                    String info = value.getAdditionalInfo();
-                    JsonObject objectProps = new JsonObject();
-                    objectProps.add("name", name != null ? new JsonPrimitive(name) : null);
-                    objectProps.add("desc", desc != null ? new JsonPrimitive(desc) : null);
-                    objectProps.add("additional_info", info != null ? new JsonPrimitive(info) : null);
-                    categoryStyles.add(blueprint, objectProps);
+                    out.name(styleEntry.getKey());
+                    out.beginObject();
+                    out.name("name").value(value.getName());
+                    out.name("desc").value(value.getDesc());
+                    out.name("additional_info").value(value.getAdditionalInfo());
+                    out.endObject();
                 }
-                styles.add(category, categoryStyles);
+                out.endObject();
             }
-
-            obj.add("styles", styles);
-            return obj;
+            out.endObject();
+            out.endObject();
         }
 
         @Override
-        public GearStyleType deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-            JsonObject obj = jsonElement.getAsJsonObject();
-            String rPath = obj.get("rel_path").getAsString();
-            String gsType = obj.get("type").getAsString();
+        public GearStyleType read(JsonReader in) throws IOException {
+            String rPath = null;
+            String gsType = null;
             Map<String, Map<String, GearStyleEntry>> styles = new HashMap<>();
 
-            JsonObject categories = obj.get("styles").getAsJsonObject();
-            categories.entrySet().forEach(c -> {
-                String key = c.getKey();
-                JsonObject entriesObj = c.getValue().getAsJsonObject();
-                Map<String, GearStyleEntry> entries = new HashMap<>();
-                entriesObj.entrySet().forEach(e -> {
-                    String blueprint = e.getKey();
-                    JsonObject val = e.getValue().getAsJsonObject();
-                    String name = val.get("name").isJsonNull() ? null : val.get("name").getAsString();
-                    String desc = val.get("desc").isJsonNull() ? null : val.get("desc").getAsString();
-                    String additional = val.get("additional_info").isJsonNull() ? null : val.get("additional_info").getAsString();
-                    entries.put(blueprint, new GearStyleEntry(name, desc, blueprint, additional));
-                });
-                styles.put(key, entries);
-            });
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "rel_path":
+                        rPath = in.nextString();
+                        break;
+                    case "type":
+                        gsType = in.nextString();
+                        break;
+                    case "styles":
+                        in.beginObject();
+                        while (in.hasNext()) {
+                            String key = in.nextName();
+                            Map<String, GearStyleEntry> entries = new HashMap<>();
+                            in.beginObject();
+                            while (in.hasNext()) {
+                                String blueprint = in.nextName();
+                                entries.put(blueprint, readStyle(in, blueprint));
+                            }
+                            in.endObject();
+                            styles.put(key, entries);
+                        }
+                        in.endObject();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
 
             return new GearStyleType(rPath, gsType, styles);
         }
+
+        private GearStyleEntry readStyle(JsonReader in, String blueprint) throws IOException {
+            String name = null;
+            String desc = null;
+            String additional = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "name":
+                        name = nextNullableString(in);
+                        break;
+                    case "desc":
+                        desc = nextNullableString(in);
+                        break;
+                    case "additional_info":
+                        additional = nextNullableString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return new GearStyleEntry(name, desc, blueprint, additional);
+        }
     }
 
-    public static class ItemSerializer implements JsonSerializer<Item>, JsonDeserializer<Item> {
+    public static class ItemAdapter extends TypeAdapter<Item> {
 
         @Override
-        public JsonElement serialize(Item item, Type type, JsonSerializationContext jsonSerializationContext) {
-            JsonObject obj = new JsonObject();
-            obj.add("rel_path", new JsonPrimitive(item.getRPath()));
-            obj.add("name", new JsonPrimitive(item.getName()));
-            obj.add("desc", item.getDesc() != null ? new JsonPrimitive(item.getDesc()) : null);
-            obj.add("blueprint", item.getBlueprint() != null ? new JsonPrimitive(item.getBlueprint()) : null);
-            obj.add("tradable", new JsonPrimitive(item.getTradable()));
-            obj.add("lootbox", new JsonPrimitive(item.getLootbox()));
-            obj.add("decay", new JsonPrimitive(item.getDecay()));
-
-            JsonArray unlocks = new JsonArray();
-            item.getUnlocks().forEach(unlocks::add);
-
-            obj.add("unlocks", unlocks);
-
-            return obj;
+        public void write(JsonWriter out, Item item) throws IOException {
+            out.beginObject();
+            out.name("rel_path").value(item.getRPath());
+            out.name("name").value(item.getName());
+            out.name("desc").value(item.getDesc());
+            out.name("blueprint").value(item.getBlueprint());
+            out.name("tradable").value(item.getTradable());
+            out.name("lootbox").value(item.getLootbox());
+            out.name("decay").value(item.getDecay());
+            out.name("unlocks");
+            writeStringArray(out, item.getUnlocks());
+            out.endObject();
         }
 
         @Override
-        public Item deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-            JsonObject obj = jsonElement.getAsJsonObject();
-            String rPath = obj.get("rel_path").getAsString();
-            String name = obj.get("name").getAsString();
-            String desc = obj.get("desc").isJsonNull() ? null : obj.get("desc").getAsString();
-            String blueprint = obj.get("blueprint").isJsonNull() ? null : obj.get("blueprint").getAsString();
-            boolean tradable = obj.get("tradable").getAsBoolean();
-            boolean lootbox = obj.get("lootbox").getAsBoolean();
-            boolean decay = obj.get("decay").getAsBoolean();
-            JsonArray unlocksArray = obj.get("unlocks").getAsJsonArray();
-
-            List<String> unlocks = new ArrayList<>();
-            for (int i = 0; i < unlocksArray.size(); i++) unlocks.add(unlocksArray.get(i).getAsString());
+        public Item read(JsonReader in) throws IOException {
+            String rPath = null;
+            String name = null;
+            String desc = null;
+            String blueprint = null;
+            boolean tradable = false;
+            boolean lootbox = false;
+            boolean decay = false;
+            List<String> unlocks = Collections.emptyList();
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "rel_path":
+                        rPath = in.nextString();
+                        break;
+                    case "name":
+                        name = in.nextString();
+                        break;
+                    case "desc":
+                        desc = nextNullableString(in);
+                        break;
+                    case "blueprint":
+                        blueprint = nextNullableString(in);
+                        break;
+                    case "tradable":
+                        tradable = in.nextBoolean();
+                        break;
+                    case "lootbox":
+                        lootbox = in.nextBoolean();
+                        break;
+                    case "decay":
+                        decay = in.nextBoolean();
+                        break;
+                    case "unlocks":
+                        unlocks = readStringArray(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
 
             return new Item(name, desc, rPath, unlocks.toArray(new String[0]), blueprint, tradable, lootbox, decay);
         }
     }
 
-    public static class PlaceableSerializer implements JsonSerializer<Placeable>, JsonDeserializer<Placeable> {
+    public static class LangFileAdapter extends TypeAdapter<LangFile> {
 
         @Override
-        public JsonElement serialize(Placeable placeable, Type type, JsonSerializationContext jsonSerializationContext) {
-            JsonObject obj = new JsonObject();
-            obj.add("rel_path", new JsonPrimitive(placeable.getRPath()));
-            obj.add("name", new JsonPrimitive(placeable.getName()));
-            obj.add("desc", placeable.getDesc() != null ? new JsonPrimitive(placeable.getDesc()) : null);
-            obj.add("blueprint", placeable.getBlueprint() != null ? new JsonPrimitive(placeable.getBlueprint()) : null);
-            obj.add("tradable", new JsonPrimitive(placeable.getTradable() ? 1 : 0));
-
-            return obj;
+        public void write(JsonWriter out, LangFile langFile) throws IOException {
+            out.beginObject();
+            out.name("rel_path").value(langFile.getRPath());
+            out.name("name").value(langFile.getName());
+            out.name("lang").value(langFile.getLang());
+            out.name("strings");
+            writeStringMap(out, langFile.getStrings());
+            out.endObject();
         }
 
         @Override
-        public Placeable deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-            JsonObject obj = jsonElement.getAsJsonObject();
-            String rPath = obj.get("rel_path").getAsString();
-            String name = obj.get("name").getAsString();
-            String desc = obj.get("desc").isJsonNull() ? null : obj.get("desc").getAsString();
-            String blueprint = obj.get("blueprint").isJsonNull() ? null : obj.get("blueprint").getAsString();
-            boolean tradable = obj.get("tradable").getAsInt() == 1;
+        public LangFile read(JsonReader in) throws IOException {
+            String rPath = null;
+            String name = null;
+            String lang = null;
+            Map<String, String> strings = new HashMap<>();
 
-            return new Placeable(name, desc, rPath, blueprint, tradable);
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "rel_path":
+                        rPath = nextNullableString(in);
+                        break;
+                    case "name":
+                        name = nextNullableString(in);
+                        break;
+                    case "lang":
+                        lang = nextNullableString(in);
+                        break;
+                    case "strings":
+                        strings = readStringMap(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+
+            return new LangFile(name, rPath, lang, strings);
         }
     }
 
-    public static class RecipeSerializer implements JsonSerializer<Recipe>, JsonDeserializer<Recipe> {
+    public static class PlaceableAdapter extends TypeAdapter<Placeable> {
 
         @Override
-        public JsonElement serialize(Recipe recipe, Type type, JsonSerializationContext jsonSerializationContext) {
-            JsonObject obj = new JsonObject();
-            obj.add("rel_path", new JsonPrimitive(recipe.getRPath()));
-            obj.add("name", new JsonPrimitive(recipe.getName()));
+        public void write(JsonWriter out, Placeable placeable) throws IOException {
+            out.beginObject();
+            out.name("rel_path").value(placeable.getRPath());
+            out.name("name").value(placeable.getName());
+            out.name("desc").value(placeable.getDesc());
+            out.name("blueprint").value(placeable.getBlueprint());
+            out.name("tradable").value(placeable.getTradable() ? 1 : 0);
+            out.endObject();
+        }
 
-            JsonObject costs = new JsonObject();
-            recipe.getCosts().forEach((k, v) -> costs.add(k, new JsonPrimitive(v)));
+        @Override
+        public Placeable read(JsonReader in) throws IOException {
+            String rPath = null;
+            String name = null;
+            String desc = null;
+            String blueprint = null;
+            boolean tradable = false;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "rel_path":
+                        rPath = in.nextString();
+                        break;
+                    case "name":
+                        name = in.nextString();
+                        break;
+                    case "desc":
+                        desc = nextNullableString(in);
+                        break;
+                    case "blueprint":
+                        blueprint = nextNullableString(in);
+                        break;
+                    case "tradable":
+                        tradable = in.nextInt() == 1;
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
 
-            JsonObject output = new JsonObject();
-            recipe.getOutput().forEach((k, v) -> output.add(k, new JsonPrimitive(v)));
+            return new Placeable(name, desc, rPath, blueprint, tradable);
+        }
+    }
 
-            obj.add("costs", costs);
-            obj.add("output", output);
+    public static class RecipeAdapter extends TypeAdapter<Recipe> {
 
-            return obj;
+        @Override
+        public void write(JsonWriter out, Recipe recipe) throws IOException {
+            out.beginObject();
+            out.name("rel_path").value(recipe.getRPath());
+            out.name("name").value(recipe.getName());
+            out.name("costs");
+            writeIntMap(out, recipe.getCosts());
+            out.name("output");
+            writeIntMap(out, recipe.getOutput());
+            out.endObject();
         }
 
         @Override
-        public Recipe deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-            JsonObject obj = jsonElement.getAsJsonObject();
-            String rPath = obj.get("rel_path").getAsString();
-            String name = obj.get("name").getAsString();
-            JsonObject costsObj = obj.get("costs").getAsJsonObject();
-            JsonObject outputObj = obj.get("output").getAsJsonObject();
-
+        public Recipe read(JsonReader in) throws IOException {
+            String rPath = null;
+            String name = null;
             Map<String, Integer> costs = new HashMap<>();
             Map<String, Integer> output = new HashMap<>();
 
-            costsObj.entrySet().forEach(e -> costs.put(e.getKey(), e.getValue().getAsInt()));
-            outputObj.entrySet().forEach(e -> output.put(e.getKey(), e.getValue().getAsInt()));
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "rel_path":
+                        rPath = in.nextString();
+                        break;
+                    case "name":
+                        name = in.nextString();
+                        break;
+                    case "costs":
+                        costs = readIntMap(in);
+                        break;
+                    case "output":
+                        output = readIntMap(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
 
             return new Recipe(name, rPath, costs, output);
         }
     }
 
-    public static class SkinSerializer implements JsonSerializer<Skin>, JsonDeserializer<Skin> {
+    public static class SkinAdapter extends TypeAdapter<Skin> {
 
         @Override
-        public JsonElement serialize(Skin skin, Type type, JsonSerializationContext jsonSerializationContext) {
-            JsonObject obj = new JsonObject();
-            obj.add("rel_path", new JsonPrimitive(skin.getRPath()));
-            obj.add("name", new JsonPrimitive(skin.getName()));
-            obj.add("desc", skin.getDesc() != null ? new JsonPrimitive(skin.getDesc()) : null);
-            obj.add("blueprint", new JsonPrimitive(skin.getBlueprint()));
-
-            return obj;
+        public void write(JsonWriter out, Skin skin) throws IOException {
+            out.beginObject();
+            out.name("rel_path").value(skin.getRPath());
+            out.name("name").value(skin.getName());
+            out.name("desc").value(skin.getDesc());
+            out.name("blueprint").value(skin.getBlueprint());
+            out.endObject();
         }
 
         @Override
-        public Skin deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-            JsonObject obj = jsonElement.getAsJsonObject();
-            String rPath = obj.get("rel_path").getAsString();
-            String name = obj.get("name").getAsString();
-            String desc = obj.get("desc").isJsonNull() ? null : obj.get("desc").getAsString();
-            String blueprint = obj.get("blueprint").getAsString();
+        public Skin read(JsonReader in) throws IOException {
+            String rPath = null;
+            String name = null;
+            String desc = null;
+            String blueprint = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "rel_path":
+                        rPath = in.nextString();
+                        break;
+                    case "name":
+                        name = in.nextString();
+                        break;
+                    case "desc":
+                        desc = nextNullableString(in);
+                        break;
+                    case "blueprint":
+                        blueprint = in.nextString();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
 
             return new Skin(rPath, name, desc, blueprint);
         }
     }
 
-    public static class StringsSerializer implements JsonSerializer<Strings>, JsonDeserializer<Strings> {
+    public static class StringsAdapter extends TypeAdapter<Strings> {
 
         @Override
-        public JsonElement serialize(Strings s, Type type, JsonSerializationContext jsonSerializationContext) {
-            JsonObject obj = new JsonObject();
-//            obj.add("lang", new JsonPrimitive(s.getLang() == null ? "n/a" : s.getLang()));
-
-            JsonObject strings = new JsonObject();
-            s.getStrings().forEach((k, v) -> strings.add(k, v == null ? null : new JsonPrimitive(v)));
-
-            obj.add("strings", strings);
-
-            return obj;
+        public void write(JsonWriter out, Strings s) throws IOException {
+            out.beginObject();
+//            out.name("lang").value(s.getLang() == null ? "n/a" : s.getLang());
+            out.name("strings");
+            writeStringMap(out, s.getStrings());
+            out.endObject();
         }
 
         @Override
-        public Strings deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-            JsonObject obj = jsonElement.getAsJsonObject();
-//            String lang = obj.get("lang").getAsString();
-            JsonObject strObj = obj.get("strings").getAsJsonObject();
+        public Strings read(JsonReader in) throws IOException {
+//            String lang = null;
             Map<String, String> strings = new HashMap<>();
-            strObj.entrySet().forEach(e -> strings.put(e.getKey(), e.getValue().isJsonNull() ? null : e.getValue().getAsString()));
+
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("strings")) {
+                    strings = readStringMap(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
 
             return new Strings("n/a", strings);
         }
@@ -0,0 +1,212 @@
+package datamodel;
+
+import datamodel.objects.Article;
+
+import java.util.*;
+
+/**
+ * The versions of the session data, one per merge or edit, so that merges and edits can be undone and redone.
+ * <p>
+ * A version holds a {@link PersistentMap} per type, so each version shares everything but what its merge changed with
+ * the version before it; undoing and redoing only move the pointer to the current version. Making a new version drops
+ * the versions that were undone, and only so many versions are retained, the oldest being dropped first.
+ */
+public class SessionHistory {
+
+    public static final int DEFAULT_RETAINED_VERSIONS = 50;
+    // rough sizes with compressed references: a node with its array, and a slot of the array
+    private static final int NODE_BYTES = 40;
+    private static final int SLOT_BYTES = 8;
+
+    private final List<Version> versions = new ArrayList<>();
+    private int current;
+    private int retained;
+    private int nextNumber;
+
+    /**
+     * @param retained the number of versions kept, including the current one
+     */
+    public SessionHistory(int retained) {
+        setRetained(retained);
+        reset(new EnumMap<>(Enums.ObjectType.class), PersistentMap.empty());
+    }
+
+    public Version getCurrent() {
+        return versions.get(current);
+    }
+
+    /**
+     * Replaces the history with a single version, for changes to the session that are not merges, such as loading it.
+     */
+    public void reset(Map<Enums.ObjectType, PersistentMap<String, Article>> articles, PersistentMap<String, String> strings) {
+        versions.clear();
+        current = 0;
+        versions.add(new Version(nextNumber++, articles, strings, null, Collections.emptyList(), "loaded"));
+    }
+
+    /**
+     * Makes the version of a merge the current one.
+     *
+     * @param mergedType  the type of what was merged
+     * @param mergedPaths the paths that were merged, in the order they were merged in
+     */
+    public Version commit(Map<Enums.ObjectType, PersistentMap<String, Article>> articles, PersistentMap<String, String> strings,
+                          Enums.ObjectType mergedType, List<String> mergedPaths) {
+        String description = mergedPaths.size() + " " + mergedType + " path" + (mergedPaths.size() != 1 ? "s" : "") + " merged";
+        return push(new Version(nextNumber++, articles, strings, mergedType, mergedPaths, description));
+    }
+
+    /**
+     * Makes the version of an edit that is not a merge the current one, such as adding an article to the session or
+     * removing one from it. As the edit left the changes alone, undoing and redoing it only move between versions.
+     *
+     * @param description what was edited, as shown in the report
+     */
+    public Version commitEdit(Map<Enums.ObjectType, PersistentMap<String, Article>> articles, PersistentMap<String, String> strings,
+                              String description) {
+        return push(new Version(nextNumber++, articles, strings, null, Collections.emptyList(), description));
+    }
+
+    private Version push(Version version) {
+        versions.subList(current + 1, versions.size()).clear();
+        versions.add(version);
+        current = versions.size() - 1;
+        trim();
+        return version;
+    }
+
+    public boolean canUndo() {
+        return current > 0;
+    }
+
+    public boolean canRedo() {
+        return current < versions.size() - 1;
+    }
+
+    /**
+     * @return the version that was undone, whose merge, if it was made by one, has to be reverted in the changes
+     */
+    public Version undo() {
+        if (!canUndo()) throw new IllegalStateException("There is nothing to undo.");
+        return versions.get(current--);
+    }
+
+    /**
+     * @return the version that was redone, whose merge, if it was made by one, has to be made again in the changes
+     */
+    public Version redo() {
+        if (!canRedo()) throw new IllegalStateException("There is nothing to redo.");
+        return versions.get(++current);
+    }
+
+    public int getRetained() {
+        return retained;
+    }
+
+    /**
+     * Sets the number of versions kept, including the current one. If fewer are kept than there are, the oldest are
+     * dropped, and then the newest of those that were undone.
+     */
+    public void setRetained(int retained) {
+        if (retained < 1) throw new IllegalArgumentException("At least one version must be retained, got " + retained);
+        this.retained = retained;
+        trim();
+    }
+
+    private void trim() {
+        int dropped = Math.min(versions.size() - retained, current);
+        if (dropped > 0) {
+            versions.subList(0, dropped).clear();
+            current -= dropped;
+        }
+        if (versions.size() > retained) versions.subList(retained, versions.size()).clear();
+    }
+
+    /**
+     * Describes each version, oldest first: what was merged, and roughly how much memory it takes on top of the
+     * version before it. The oldest version is measured in full, as it shares nothing with a retained version.
+     */
+    public List<String> getReport() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < versions.size(); i++) {
+            Version version = versions.get(i);
+            int[] counts = version.countUnshared(i > 0 ? versions.get(i - 1) : null);
+            long bytes = (long) counts[0] * NODE_BYTES + (long) counts[1] * SLOT_BYTES;
+            lines.add((i == current ? "* " : "  ") + version + ": " + counts[0] + " new node" + (counts[0] != 1 ? "s" : "")
+                    + ", about " + Math.max(1, Math.round(bytes / 1024.0)) + " KB");
+        }
+        return lines;
+    }
+
+    /**
+     * The session data as it was after a merge or an edit, or as it was loaded.
+     */
+    public static class Version {
+        private final int number;
+        private final Map<Enums.ObjectType, PersistentMap<String, Article>> articles;
+        private final PersistentMap<String, String> strings;
+        private final Enums.ObjectType mergedType;
+        private final List<String> mergedPaths;
+        private final String description;
+
+        private Version(int number, Map<Enums.ObjectType, PersistentMap<String, Article>> articles, PersistentMap<String, String> strings,
+                        Enums.ObjectType mergedType, List<String> mergedPaths, String description) {
+            this.number = number;
+            this.articles = new EnumMap<>(Enums.ObjectType.class);
+            this.articles.putAll(articles);
+            this.strings = strings;
+            this.mergedType = mergedType;
+            this.mergedPaths = Collections.unmodifiableList(new ArrayList<>(mergedPaths));
+            this.description = description;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        /**
+         * @return the articles of the type, which is empty if none were added
+         */
+        public PersistentMap<String, Article> getArticles(Enums.ObjectType type) {
+            PersistentMap<String, Article> map = articles.get(type);
+            return map != null ? map : PersistentMap.empty();
+        }
+
+        /**
+         * @return the articles of every type, to make a new version from
+         */
+        public Map<Enums.ObjectType, PersistentMap<String, Article>> getAllArticles() {
+            return Collections.unmodifiableMap(articles);
+        }
+
+        public PersistentMap<String, String> getStrings() {
+            return strings;
+        }
+
+        /**
+         * @return the type of what was merged, or null if the version was not made by a merge
+         */
+        public Enums.ObjectType getMergedType() {
+            return mergedType;
+        }
+
+        public List<String> getMergedPaths() {
+            return mergedPaths;
+        }
+
+        private int[] countUnshared(Version previous) {
+            int[] counts = strings.countUnshared(previous == null ? null : previous.strings);
+            for (Map.Entry<Enums.ObjectType, PersistentMap<String, Article>> entry : articles.entrySet()) {
+                int[] typeCounts = entry.getValue().countUnshared(previous == null ? null : previous.getArticles(entry.getKey()));
+                counts[0] += typeCounts[0];
+                counts[1] += typeCounts[1];
+            }
+            return counts;
+        }
+
+        @Override
+        public String toString() {
+            return "Version " + number + " (" + description + ")";
+        }
+    }
+}
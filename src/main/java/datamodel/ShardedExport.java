@@ -0,0 +1,214 @@
+package datamodel;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+import datamodel.objects.Article;
+import datamodel.objects.Strings;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Writes a JSON export on several threads.
+ * <p>
+ * Each category is serialized on its own, and large categories, strings included, are split into shards of
+ * {@link #DEFAULT_SHARD_SIZE} entries that are serialized on their own as well. Every shard is written to a temporary segment next to the export.
+ * Once all segments are written, they are stitched together in order behind an {@link ExportIndex}, so the export is
+ * byte for byte the same as one written a category at a time.
+ */
+public class ShardedExport {
+
+    public static final int DEFAULT_SHARD_SIZE = 2000;
+
+    private final Gson serializer;
+    private final int parallelism;
+    private final int shardSize;
+    private final List<Category<?>> categories = new ArrayList<>();
+
+    public ShardedExport(Gson serializer, int parallelism) {
+        this(serializer, parallelism, DEFAULT_SHARD_SIZE);
+    }
+
+    public ShardedExport(Gson serializer, int parallelism, int shardSize) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+        if (shardSize < 1) throw new IllegalArgumentException("Shard size must be at least 1, got " + shardSize);
+        this.serializer = serializer;
+        this.parallelism = parallelism;
+        this.shardSize = shardSize;
+    }
+
+    /**
+     * Adds a category of articles. The entries are copied when added, so the map is not read again while writing.
+     */
+    public <T extends Article> void addCategory(String name, Map<String, T> entries, Class<T> type) {
+        categories.add(new Category<>(name, new ArrayList<>(entries.entrySet()), serializer.getAdapter(type), false));
+    }
+
+    /**
+     * Adds the strings, which are sharded like articles. They are copied when added, as articles are.
+     */
+    public void addStrings(Strings strings) {
+        categories.add(new Category<>("strings", new ArrayList<>(strings.getStrings().entrySet()), serializer.getAdapter(String.class), true));
+    }
+
+    public void writeTo(Path path) throws IOException, InterruptedException {
+        writeTo(path, Codec.NONE);
+    }
+
+    /**
+     * Writes the categories added so far to the given path. Temporary segments are removed once the export is written,
+     * whether it succeeded or not.
+     *
+     * @param codec compresses the export as it is stitched together; the index then gives offsets in the uncompressed
+     *              export, which are of use once it has been decompressed
+     * @throws InterruptedException if the calling thread is interrupted; the export is left incomplete
+     */
+    public void writeTo(Path path, Codec codec) throws IOException, InterruptedException {
+        Path directory = path.toAbsolutePath().getParent();
+        List<Path> segmentFiles = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Workers.newFixedPool("export-worker", parallelism);
+        try {
+            List<List<Future<Segment>>> futures = new ArrayList<>();
+            for (Category<?> category : categories) {
+                int shardCount = Math.max(1, (category.entries.size() + shardSize - 1) / shardSize);
+                List<Future<Segment>> shards = new ArrayList<>(shardCount);
+                for (int shard = 0; shard < shardCount; shard++) {
+                    int index = shard;
+                    shards.add(executor.submit(() -> writeShard(directory, segmentFiles, category, index, shardCount)));
+                }
+                futures.add(shards);
+            }
+
+            List<List<Segment>> segments = new ArrayList<>();
+            Map<String, Long> lengths = new LinkedHashMap<>();
+            Map<String, Integer> counts = new HashMap<>();
+            for (int i = 0; i < categories.size(); i++) {
+                List<Segment> shards = new ArrayList<>();
+                long length = 1; // the separator before the category
+                for (Future<Segment> future : futures.get(i)) {
+                    Segment segment = Workers.getResult(future);
+                    length += (shards.isEmpty() ? 0 : 1) + segment.to - segment.from;
+                    shards.add(segment);
+                }
+                segments.add(shards);
+                lengths.put(categories.get(i).name, length);
+                counts.put(categories.get(i).name, categories.get(i).entries.size());
+            }
+
+            // every segment is written by now, so the index is known before the export is started and is never patched
+            byte[][] frame = ExportIndex.plan(serializer, lengths, counts);
+            try (OutputStream out = Codec.newOutputStream(path.toFile(), false, codec)) {
+                out.write(frame[0]);
+                for (List<Segment> shards : segments) {
+                    out.write(',');
+                    for (int j = 0; j < shards.size(); j++) {
+                        if (j > 0) out.write(',');
+                        shards.get(j).copyTo(out);
+                    }
+                }
+                out.write(frame[1]);
+            }
+        } finally {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } finally {
+                synchronized (segmentFiles) {
+                    for (Path file : segmentFiles) Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Serializes one shard of a category. The shard is written inside the same objects it ends up in, so that pretty
+     * printing indents it as it would be in the export; the segment is only the part of the file that belongs to the
+     * shard. The first shard carries the category's name and the last one its closing brace. Strings are nested one
+     * level deeper, as {@link Serializer.StringsAdapter} writes them.
+     */
+    private Segment writeShard(Path directory, List<Path> segmentFiles, Category<?> category, int shard, int shardCount) throws IOException {
+        Path file = Files.createTempFile(directory, "export-", ".part");
+        segmentFiles.add(file);
+        try (ExportIndex.CountingOutputStream counter = new ExportIndex.CountingOutputStream(new FileOutputStream(file.toFile()))) {
+            // the writer is not closed, as it would reject the unfinished document
+            JsonWriter writer = serializer.newJsonWriter(new BufferedWriter(new OutputStreamWriter(counter, Charset.defaultCharset())));
+            writer.beginObject();
+            writer.flush();
+            long nameStart = counter.getCount();
+            writer.name(category.name);
+            writer.beginObject();
+            if (category.strings) {
+                writer.name("strings");
+                writer.beginObject();
+            }
+            writer.flush();
+            long entriesStart = counter.getCount();
+            int from = shard * shardSize;
+            category.writeEntries(writer, from, Math.min(category.entries.size(), from + shardSize));
+            writer.flush();
+            long entriesEnd = counter.getCount();
+            if (category.strings) writer.endObject();
+            writer.endObject();
+            writer.flush();
+            return new Segment(file, shard == 0 ? nameStart : entriesStart, shard == shardCount - 1 ? counter.getCount() : entriesEnd);
+        }
+    }
+
+    private static class Category<T> {
+        private final String name;
+        private final List<Map.Entry<String, T>> entries;
+        private final TypeAdapter<T> adapter;
+        private final boolean strings;
+
+        private Category(String name, List<Map.Entry<String, T>> entries, TypeAdapter<T> adapter, boolean strings) {
+            this.name = name;
+            this.entries = entries;
+            this.adapter = adapter;
+            this.strings = strings;
+        }
+
+        private void writeEntries(JsonWriter writer, int from, int to) throws IOException {
+            for (Map.Entry<String, T> entry : entries.subList(from, to)) {
+                writer.name(entry.getKey());
+                adapter.write(writer, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * The bytes of a segment file in [from, to).
+     */
+    private static class Segment {
+        private final Path file;
+        private final long from;
+        private final long to;
+
+        private Segment(Path file, long from, long to) {
+            this.file = file;
+            this.from = from;
+            this.to = to;
+        }
+
+        private void copyTo(OutputStream out) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long position = from;
+                while (position < to) {
+                    buffer.clear().limit((int) Math.min(buffer.capacity(), to - position));
+                    int read = channel.read(buffer, position);
+                    if (read == -1) throw new EOFException("Segment " + file + " ended before " + to + ".");
+                    out.write(buffer.array(), 0, read);
+                    position += read;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,615 @@
+package datamodel;
+
+import datamodel.objects.*;
+import datamodel.objects.Collection;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary snapshot of session data, which loads much faster than the equivalent JSON export.
+ * <p>
+ * Layout, with all integers big-endian:
+ * <pre>
+ * magic (4 bytes) | version (int)
+ * string table:  count (int), then per string its UTF-8 length (varint) and bytes
+ * directory:     count (int), then per category its name (string ref), offset (long), length (int), entries (int)
+ * sections:      the entries of each category, at the offset given by the directory
+ * checksum:      CRC32 of everything before it (int)
+ * </pre>
+ * Every string in the snapshot, be it a path, a name, a blueprint, a recipe id or an enum constant, is stored once in
+ * the string table and referred to by a varint holding its index plus one, 0 standing for null. The directory lets
+ * categories be decoded independently, and in parallel.
+ */
+public class Snapshot {
+
+    public static final String EXTENSION = ".snapshot";
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'T', 'V', 'S', 'S'};
+    private static final int DIRECTORY_ENTRY_SIZE = 16; // offset, length and entries, after the category's name
+
+    private final Map<String, Integer> stringIndices = new HashMap<>();
+    private final List<String> stringTable = new ArrayList<>();
+    private final Map<String, Section> sections = new LinkedHashMap<>();
+
+    public static boolean isSnapshot(String path) {
+        return path != null && path.endsWith(EXTENSION);
+    }
+
+    // WRITING
+
+    public void writeBenches(Map<String, Bench> benches) {
+        Section section = newSection("benches", benches.size());
+        for (Bench bench : benches.values()) {
+            section.writeString(bench.getRPath());
+            section.writeString(bench.getName());
+            section.writeVarint(bench.getCategories().size());
+            for (Map.Entry<String, List<String>> entry : bench.getCategories().entrySet()) {
+                section.writeString(entry.getKey());
+                section.writeVarint(bench.getOrder().get(entry.getKey())); // note that this will throw an NullPointerException if no such key-value pair exists
+                section.writeStrings(entry.getValue());
+            }
+        }
+    }
+
+    public void writeCollections(Map<String, Collection> collections) {
+        Section section = newSection("collections", collections.size());
+        for (Collection collection : collections.values()) {
+            section.writeString(collection.getRPath());
+            section.writeString(collection.getName());
+            section.writeString(collection.getDesc());
+            section.writeString(collection.getBlueprint());
+            section.writeSignedVarint(collection.getTroveMR());
+            section.writeSignedVarint(collection.getGeodeMR());
+            section.writeVarint(collection.getTypes().size());
+            for (Enums.Type t : collection.getTypes()) section.writeString(t.name());
+            section.writeVarint(collection.getProperties().size());
+            for (Map.Entry<Enums.Property, Double> entry : collection.getProperties().entrySet()) {
+                section.writeString(entry.getKey().name());
+                section.writeDouble(entry.getValue());
+            }
+            section.writeVarint(collection.getBuffs().size());
+            for (Map.Entry<Enums.Buff, Double> entry : collection.getBuffs().entrySet()) {
+                section.writeString(entry.getKey().name());
+                section.writeDouble(entry.getValue());
+            }
+        }
+    }
+
+    public void writeCollectionIndices(Map<String, CollectionIndex> indices) {
+        Section section = newSection("collection_indices", indices.size());
+        for (CollectionIndex index : indices.values()) {
+            section.writeString(index.getRPath());
+            section.writeString(index.getType());
+            section.writeVarint(index.getNames().size());
+            for (Map.Entry<String, String> nameEntry : index.getNames().entrySet()) {
+                section.writeString(nameEntry.getKey());
+                section.writeString(nameEntry.getValue());
+                section.writeStringMap(index.getCategories().get(nameEntry.getKey()));
+            }
+        }
+    }
+
+    public void writeGearStyles(Map<String, GearStyleType> styles) {
+        Section section = newSection("gear_styles", styles.size());
+        for (GearStyleType type : styles.values()) {
+            section.writeString(type.getRPath());
+            section.writeString(type.getType());
+            section.writeVarint(type.getStyles().size());
+            for (Map.Entry<String, Map<String, GearStyleEntry>> entry : type.getStyles().entrySet()) {
+                section.writeString(entry.getKey());
+                section.writeVarint(entry.getValue().size());
+                for (GearStyleEntry style : entry.getValue().values()) {
+                    section.writeString(style.getBlueprint());
+                    section.writeString(style.getName());
+                    section.writeString(style.getDesc());
+                    section.writeString(style.getAdditionalInfo());
+                }
+            }
+        }
+    }
+
+    public void writeItems(Map<String, Item> items) {
+        Section section = newSection("items", items.size());
+        for (Item item : items.values()) {
+            section.writeString(item.getRPath());
+            section.writeString(item.getName());
+            section.writeString(item.getDesc());
+            section.writeString(item.getBlueprint());
+            section.writeByte((item.getTradable() ? 1 : 0) | (item.getLootbox() ? 2 : 0) | (item.getDecay() ? 4 : 0));
+            section.writeStrings(item.getUnlocks());
+        }
+    }
+
+    public void writePlaceables(Map<String, Placeable> placeables) {
+        Section section = newSection("placeables", placeables.size());
+        for (Placeable placeable : placeables.values()) {
+            section.writeString(placeable.getRPath());
+            section.writeString(placeable.getName());
+            section.writeString(placeable.getDesc());
+            section.writeString(placeable.getBlueprint());
+            section.writeByte(placeable.getTradable() ? 1 : 0);
+        }
+    }
+
+    public void writeRecipes(Map<String, Recipe> recipes) {
+        Section section = newSection("recipes", recipes.size());
+        for (Recipe recipe : recipes.values()) {
+            section.writeString(recipe.getRPath());
+            section.writeString(recipe.getName());
+            section.writeIntMap(recipe.getCosts());
+            section.writeIntMap(recipe.getOutput());
+        }
+    }
+
+    public void writeSkins(Map<String, Skin> skins) {
+        Section section = newSection("skins", skins.size());
+        for (Skin skin : skins.values()) {
+            section.writeString(skin.getRPath());
+            section.writeString(skin.getName());
+            section.writeString(skin.getDesc());
+            section.writeString(skin.getBlueprint());
+        }
+    }
+
+    public void writeStrings(Strings strings) {
+        Section section = newSection("strings", 1);
+        section.writeString(strings.getLang());
+        section.writeStringMap(strings.getStrings());
+    }
+
+    private Section newSection(String category, int entries) {
+        if (sections.containsKey(category)) throw new IllegalStateException(category + " has already been written.");
+        Section section = new Section(entries);
+        sections.put(category, section);
+        intern(category);
+        return section;
+    }
+
+    private int intern(String s) {
+        Integer index = stringIndices.get(s);
+        if (index == null) {
+            index = stringTable.size();
+            stringIndices.put(s, index);
+            stringTable.add(s);
+        }
+        return index;
+    }
+
+    /**
+     * Writes the snapshot out, once every category that is to be included has been written.
+     */
+    public void writeTo(Path path) throws IOException {
+        Section header = new Section(0);
+        header.write(MAGIC, 0, MAGIC.length);
+        header.writeInt(VERSION);
+        header.writeInt(stringTable.size());
+        for (String s : stringTable) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            header.writeVarint(bytes.length);
+            header.write(bytes, 0, bytes.length);
+        }
+
+        // the directory's size only depends on the category names, so the offsets of the sections are known up front
+        header.writeInt(sections.size());
+        long offset = header.size();
+        for (String category : sections.keySet()) offset += varintLength(intern(category) + 1) + DIRECTORY_ENTRY_SIZE;
+        for (Map.Entry<String, Section> entry : sections.entrySet()) {
+            header.writeVarint(intern(entry.getKey()) + 1);
+            header.writeLong(offset);
+            header.writeInt(entry.getValue().size());
+            header.writeInt(entry.getValue().entries);
+            offset += entry.getValue().size();
+        }
+
+        CRC32 crc = new CRC32();
+        try (OutputStream out = Files.newOutputStream(path)) {
+            header.writeTo(out, crc);
+            for (Section section : sections.values()) section.writeTo(out, crc);
+            long checksum = crc.getValue();
+            out.write(new byte[]{(byte) (checksum >>> 24), (byte) (checksum >>> 16), (byte) (checksum >>> 8), (byte) checksum});
+        }
+    }
+
+    private static int varintLength(int value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) length++;
+        return length;
+    }
+
+    /**
+     * Growable buffer holding the encoded entries of one category.
+     */
+    private class Section {
+        private final int entries;
+        private byte[] bytes = new byte[1024];
+        private int size = 0;
+
+        private Section(int entries) {
+            this.entries = entries;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+
+        void write(byte[] b, int off, int len) {
+            ensure(len);
+            System.arraycopy(b, off, bytes, size, len);
+            size += len;
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            bytes[size++] = (byte) b;
+        }
+
+        void writeInt(int v) {
+            ensure(4);
+            bytes[size++] = (byte) (v >>> 24);
+            bytes[size++] = (byte) (v >>> 16);
+            bytes[size++] = (byte) (v >>> 8);
+            bytes[size++] = (byte) v;
+        }
+
+        void writeLong(long v) {
+            writeInt((int) (v >>> 32));
+            writeInt((int) v);
+        }
+
+        void writeDouble(double v) {
+            writeLong(Double.doubleToLongBits(v));
+        }
+
+        void writeVarint(int v) {
+            ensure(5);
+            while ((v & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            bytes[size++] = (byte) v;
+        }
+
+        void writeSignedVarint(int v) {
+            writeVarint((v << 1) ^ (v >> 31));
+        }
+
+        void writeString(String s) {
+            writeVarint(s == null ? 0 : intern(s) + 1);
+        }
+
+        void writeStrings(List<String> list) {
+            writeVarint(list.size());
+            for (String s : list) writeString(s);
+        }
+
+        void writeStringMap(Map<String, String> map) {
+            writeVarint(map.size());
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                writeString(entry.getKey());
+                writeString(entry.getValue());
+            }
+        }
+
+        void writeIntMap(Map<String, Integer> map) {
+            writeVarint(map.size());
+            for (Map.Entry<String, Integer> entry : map.entrySet()) {
+                writeString(entry.getKey());
+                writeSignedVarint(entry.getValue());
+            }
+        }
+
+        void writeTo(OutputStream out, CRC32 crc) throws IOException {
+            crc.update(bytes, 0, size);
+            out.write(bytes, 0, size);
+        }
+    }
+
+    // READING
+
+    /**
+     * Loads every category of a snapshot into the session data of the model. Categories are decoded in parallel, and
+     * added to the model once they have all been decoded, so a damaged snapshot leaves the model untouched.
+     *
+     * @return the number of entries loaded
+     */
+    public static int read(Path path, DataModel model) throws IOException {
+        return read(path, model, new HashSet<>(Serializer.CATEGORIES));
+    }
+
+    /**
+     * Loads the given categories of a snapshot into the session data of the model. The sections of other categories are
+     * not decoded; the directory gives where each section starts, so they are skipped without being read.
+     *
+     * @param categories names of the categories to load, as in {@link Serializer#CATEGORIES}
+     * @return the number of entries loaded
+     */
+    public static int read(Path path, DataModel model, Set<String> categories) throws IOException {
+        // read onto the heap rather than mapped, as it is decoded in full anyway, and a mapping would keep the file locked
+        // on Windows until it is garbage collected
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        try {
+            return read(buffer, model, categories);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException(path + " is not a valid snapshot: " + e, e);
+        }
+    }
+
+    private static int read(ByteBuffer buffer, DataModel model, Set<String> categories) throws IOException {
+        if (buffer.remaining() < MAGIC.length + 8) throw new IOException("Snapshot is too short.");
+        for (byte b : MAGIC) {
+            if (buffer.get() != b) throw new IOException("Not a snapshot file.");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) throw new IOException("Unsupported snapshot version " + version + "; expected " + VERSION + ".");
+
+        CRC32 crc = new CRC32();
+        ByteBuffer body = buffer.duplicate();
+        body.position(0).limit(buffer.limit() - 4);
+        crc.update(body);
+        if ((int) crc.getValue() != buffer.getInt(buffer.limit() - 4)) throw new IOException("Snapshot checksum does not match; the file is damaged.");
+
+        String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            int length = Input.readVarint(buffer);
+            strings[i] = Input.decode(buffer, length);
+        }
+
+        int categoryCount = buffer.getInt();
+        List<Input> inputs = new ArrayList<>(categoryCount);
+        for (int i = 0; i < categoryCount; i++) {
+            String category = strings[Input.readVarint(buffer) - 1];
+            long offset = buffer.getLong();
+            int length = buffer.getInt();
+            int entries = buffer.getInt();
+            if (!categories.contains(category)) continue;
+            ByteBuffer slice = buffer.duplicate();
+            slice.position((int) offset).limit((int) offset + length);
+            inputs.add(new Input(category, slice.slice(), entries, strings));
+        }
+
+        List<List<Article>> decoded = inputs.parallelStream().map(Input::decode).collect(Collectors.toList());
+
+        int count = 0;
+        DataModel.SessionLoad load = model.beginSessionLoad();
+        for (int i = 0; i < inputs.size(); i++) {
+            Enums.ObjectType type = inputs.get(i).type;
+            for (Article a : decoded.get(i)) {
+                if (a instanceof LangFile) {
+                    LangFile l = (LangFile) a;
+                    load.setStrings(new Strings(l.getLang(), l.getStrings()));
+                    count += l.getStrings().size();
+                } else {
+                    load.add(a, type);
+                    count++;
+                }
+            }
+        }
+        load.commit();
+        return count;
+    }
+
+    /**
+     * Decoder for the entries of one category.
+     */
+    private static class Input {
+        private final String category;
+        private final Enums.ObjectType type;
+        private final ByteBuffer buffer;
+        private final int entries;
+        private final String[] strings;
+
+        private Input(String category, ByteBuffer buffer, int entries, String[] strings) {
+            this.category = category;
+            this.type = getType(category);
+            this.buffer = buffer;
+            this.entries = entries;
+            this.strings = strings;
+        }
+
+        private static Enums.ObjectType getType(String category) {
+            switch (category) {
+                case "benches":
+                    return Enums.ObjectType.BENCH;
+                case "collections":
+                    return Enums.ObjectType.COLLECTION;
+                case "collection_indices":
+                    return Enums.ObjectType.COLL_INDEX;
+                case "gear_styles":
+                    return Enums.ObjectType.GEAR_STYLE;
+                case "items":
+                    return Enums.ObjectType.ITEM;
+                case "placeables":
+                    return Enums.ObjectType.PLACEABLE;
+                case "recipes":
+                    return Enums.ObjectType.RECIPE;
+                case "skins":
+                    return Enums.ObjectType.SKIN;
+                case "strings":
+                    return Enums.ObjectType.LANG_FILE;
+                default:
+                    throw new IllegalArgumentException("No such type: " + category);
+            }
+        }
+
+        private List<Article> decode() {
+            List<Article> articles = new ArrayList<>(entries);
+            for (int i = 0; i < entries; i++) articles.add(readArticle());
+            if (buffer.hasRemaining()) throw new IllegalArgumentException(category + " has " + buffer.remaining() + " trailing bytes.");
+            return articles;
+        }
+
+        private Article readArticle() {
+            switch (type) {
+                case BENCH: {
+                    String rPath = readString();
+                    String name = readString();
+                    int count = readVarint();
+                    Map<String, List<String>> categories = new HashMap<>();
+                    Map<String, Integer> order = new HashMap<>();
+                    for (int i = 0; i < count; i++) {
+                        String catName = readString();
+                        order.put(catName, readVarint());
+                        categories.put(catName, readStrings());
+                    }
+                    return new Bench(name, rPath, order, categories);
+                }
+                case COLLECTION: {
+                    String rPath = readString();
+                    String name = readString();
+                    String desc = readString();
+                    String blueprint = readString();
+                    int troveMR = readSignedVarint();
+                    int geodeMR = readSignedVarint();
+                    int typeCount = readVarint();
+                    List<Enums.Type> types = new ArrayList<>(typeCount);
+                    for (int i = 0; i < typeCount; i++) types.add(Enums.Type.valueOf(readString()));
+                    int propertyCount = readVarint();
+                    Map<Enums.Property, Double> properties = new HashMap<>();
+                    for (int i = 0; i < propertyCount; i++) properties.put(Enums.Property.valueOf(readString()), buffer.getDouble());
+                    int buffCount = readVarint();
+                    Map<Enums.Buff, Double> buffs = new HashMap<>();
+                    for (int i = 0; i < buffCount; i++) buffs.put(Enums.Buff.valueOf(readString()), buffer.getDouble());
+                    return new Collection(name, desc, rPath, troveMR, geodeMR, blueprint, types, properties, buffs);
+                }
+                case COLL_INDEX: {
+                    String rPath = readString();
+                    String ciType = readString();
+                    int count = readVarint();
+                    Map<String, String> names = new HashMap<>();
+                    Map<String, Map<String, String>> categories = new HashMap<>();
+                    for (int i = 0; i < count; i++) {
+                        String key = readString();
+                        names.put(key, readString());
+                        categories.put(key, readStringMap());
+                    }
+                    return new CollectionIndex(rPath, ciType, names, categories);
+                }
+                case GEAR_STYLE: {
+                    String rPath = readString();
+                    String gsType = readString();
+                    int count = readVarint();
+                    Map<String, Map<String, GearStyleEntry>> styles = new HashMap<>();
+                    for (int i = 0; i < count; i++) {
+                        String key = readString();
+                        int entryCount = readVarint();
+                        Map<String, GearStyleEntry> entries = new HashMap<>();
+                        for (int j = 0; j < entryCount; j++) {
+                            String blueprint = readString();
+                            entries.put(blueprint, new GearStyleEntry(readString(), readString(), blueprint, readString()));
+                        }
+                        styles.put(key, entries);
+                    }
+                    return new GearStyleType(rPath, gsType, styles);
+                }
+                case ITEM: {
+                    String rPath = readString();
+                    String name = readString();
+                    String desc = readString();
+                    String blueprint = readString();
+                    int flags = buffer.get();
+                    List<String> unlocks = readStrings();
+                    return new Item(name, desc, rPath, unlocks.toArray(new String[0]), blueprint, (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0);
+                }
+                case PLACEABLE: {
+                    String rPath = readString();
+                    String name = readString();
+                    String desc = readString();
+                    String blueprint = readString();
+                    return new Placeable(name, desc, rPath, blueprint, buffer.get() == 1);
+                }
+                case RECIPE: {
+                    String rPath = readString();
+                    String name = readString();
+                    Map<String, Integer> costs = readIntMap();
+                    Map<String, Integer> output = readIntMap();
+                    return new Recipe(name, rPath, costs, output);
+                }
+                case SKIN: {
+                    String rPath = readString();
+                    String name = readString();
+                    String desc = readString();
+                    String blueprint = readString();
+                    return new Skin(rPath, name, desc, blueprint);
+                }
+                default: {
+                    // strings are stored as a single entry, and handed over as a language file
+                    String lang = readString();
+                    return new LangFile(null, null, lang, readStringMap());
+                }
+            }
+        }
+
+        static int readVarint(ByteBuffer buffer) {
+            int value = 0;
+            int shift = 0;
+            int curr;
+            do {
+                curr = buffer.get();
+                value |= (curr & 0x7F) << shift;
+                shift += 7;
+            } while ((curr & 0x80) != 0 && shift < 35);
+            return value;
+        }
+
+        static String decode(ByteBuffer buffer, int length) {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int readVarint() {
+            return readVarint(buffer);
+        }
+
+        private int readSignedVarint() {
+            int raw = readVarint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        private String readString() {
+            int ref = readVarint();
+            return ref == 0 ? null : strings[ref - 1];
+        }
+
+        private List<String> readStrings() {
+            int count = readVarint();
+            List<String> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) list.add(readString());
+            return list;
+        }
+
+        private Map<String, String> readStringMap() {
+            int count = readVarint();
+            Map<String, String> map = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String key = readString();
+                map.put(key, readString());
+            }
+            return map;
+        }
+
+        private Map<String, Integer> readIntMap() {
+            int count = readVarint();
+            Map<String, Integer> map = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String key = readString();
+                map.put(key, readSignedVarint());
+            }
+            return map;
+        }
+    }
+}
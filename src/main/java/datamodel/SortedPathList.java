@@ -0,0 +1,71 @@
+package datamodel;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.*;
+
+/**
+ * The paths of a category of changes in sorted order, kept up to date a batch of changes at a time rather than sorted
+ * anew whenever it is shown.
+ * <p>
+ * A batch is applied to the list in place: each path is inserted or removed at the position found by a binary search, so
+ * a view of the list only hears about the paths that changed. A batch that touches a large part of the list is merged
+ * into a new list instead, which is then set in one change, as that is cheaper than many small ones.
+ */
+public class SortedPathList {
+
+    // batches larger than this fraction of the list, and larger than the minimum, are merged rather than applied in place
+    private static final int MERGE_DIVISOR = 8;
+    private static final int MERGE_MINIMUM = 64;
+
+    private final ObservableList<String> paths = FXCollections.observableArrayList();
+    private final ObservableList<String> readOnlyPaths = FXCollections.unmodifiableObservableList(paths);
+
+    /**
+     * @return the paths in sorted order; the list cannot be changed through it
+     */
+    public ObservableList<String> getPaths() {
+        return readOnlyPaths;
+    }
+
+    /**
+     * Applies a batch. Must be called on the thread that owns the views of the list.
+     *
+     * @param added   paths that are not in the list yet
+     * @param removed paths that are in the list
+     */
+    public void apply(Collection<String> added, Collection<String> removed) {
+        int changes = added.size() + removed.size();
+        if (changes == 0) return;
+        if (changes > MERGE_MINIMUM && changes > paths.size() / MERGE_DIVISOR) {
+            paths.setAll(merge(added, removed));
+            return;
+        }
+        for (String path : removed) {
+            int index = Collections.binarySearch(paths, path);
+            if (index >= 0) paths.remove(index);
+        }
+        for (String path : added) {
+            int index = Collections.binarySearch(paths, path);
+            if (index < 0) paths.add(-index - 1, path);
+        }
+    }
+
+    private List<String> merge(Collection<String> added, Collection<String> removed) {
+        Set<String> removedSet = removed instanceof Set ? (Set<String>) removed : new HashSet<>(removed);
+        List<String> sortedAdded = new ArrayList<>(added);
+        Collections.sort(sortedAdded);
+
+        List<String> merged = new ArrayList<>(paths.size() + sortedAdded.size());
+        int i = 0;
+        for (String path : paths) {
+            if (removedSet.contains(path)) continue;
+            while (i < sortedAdded.size() && sortedAdded.get(i).compareTo(path) < 0) merged.add(sortedAdded.get(i++));
+            if (i < sortedAdded.size() && sortedAdded.get(i).equals(path)) i++;
+            merged.add(path);
+        }
+        while (i < sortedAdded.size()) merged.add(sortedAdded.get(i++));
+        return merged;
+    }
+}
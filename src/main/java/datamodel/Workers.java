@@ -0,0 +1,65 @@
+package datamodel;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread pools for background work, and how their results are waited for.
+ * <p>
+ * Pools run on daemon threads, so that work left behind never keeps the application from exiting, and their threads are
+ * named after what they do, so that they can be told apart in a thread dump.
+ */
+public final class Workers {
+
+    private Workers() {
+    }
+
+    /**
+     * @param name the name of the threads, which are numbered after it, such as "parse-worker-1"
+     */
+    public static ExecutorService newFixedPool(String name, int threads) {
+        return Executors.newFixedThreadPool(threads, daemonThreads(name, true));
+    }
+
+    /**
+     * @param name the name of the thread
+     */
+    public static ExecutorService newSingleThread(String name) {
+        return Executors.newSingleThreadExecutor(daemonThreads(name, false));
+    }
+
+    /**
+     * @param name the name of the thread
+     */
+    public static ScheduledExecutorService newScheduledSingleThread(String name) {
+        return Executors.newSingleThreadScheduledExecutor(daemonThreads(name, false));
+    }
+
+    private static ThreadFactory daemonThreads(String name, boolean numbered) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, numbered ? name + "-" + threadCount.incrementAndGet() : name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Waits for a task to finish. An IOException or an unchecked exception thrown by the task is rethrown as it is, and
+     * any other exception is wrapped in an IllegalStateException, as tasks are not expected to throw one.
+     *
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public static <T> T getResult(Future<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+}
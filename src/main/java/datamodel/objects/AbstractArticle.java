@@ -0,0 +1,42 @@
+package datamodel.objects;
+
+/**
+ * Caches the content fingerprint of an article, and derives the article's hash code from it.
+ * <p>
+ * The fingerprint is computed on first use and reset by every mutator. Collections are only handed out as unmodifiable
+ * views, so that the cached fingerprint cannot go stale through a getter.
+ */
+public abstract class AbstractArticle implements Article {
+
+    // 0 until computed; a computed fingerprint of 0 is kept as 1, so that one field is enough to tell the two apart
+    private volatile long fingerprint;
+
+    @Override
+    public final long getFingerprint() {
+        long f = fingerprint;
+        if (f == 0) {
+            // the class is part of the fingerprint, so that articles of different types with the same fields differ
+            Fingerprint builder = new Fingerprint().add(getClass().getName());
+            addContent(builder);
+            f = builder.get();
+            if (f == 0) f = 1;
+            fingerprint = f;
+        }
+        return f;
+    }
+
+    /**
+     * Adds every field that equals compares to the fingerprint.
+     */
+    protected abstract void addContent(Fingerprint fingerprint);
+
+    protected final void invalidateFingerprint() {
+        fingerprint = 0;
+    }
+
+    @Override
+    public int hashCode() {
+        long f = getFingerprint();
+        return (int) (f ^ (f >>> 32));
+    }
+}
@@ -4,4 +4,10 @@ public interface Article {
 
     // should have a relative path available for all classes
     String getRPath();
+
+    /**
+     * @return a 64-bit fingerprint of the article's content; articles that are equal have the same fingerprint, and
+     * articles with the same fingerprint are equal but for a vanishingly unlikely collision
+     */
+    long getFingerprint();
 }
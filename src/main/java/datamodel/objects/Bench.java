@@ -1,9 +1,11 @@
 package datamodel.objects;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-public class Bench implements Article {
+public class Bench extends AbstractArticle {
 
     String name; // the string identifier of the bench's name
     String rPath;
@@ -14,7 +16,14 @@ public class Bench implements Article {
         this.name = name;
         this.rPath = rPath;
         this.order = order;
-        this.categories = categories;
+        this.categories = unmodifiableLists(categories);
+    }
+
+    // the lists are wrapped once here, as getCategories only wraps the outer map
+    private static Map<String, List<String>> unmodifiableLists(Map<String, List<String>> categories) {
+        Map<String, List<String>> wrapped = new LinkedHashMap<>();
+        categories.forEach((k, v) -> wrapped.put(k, Collections.unmodifiableList(v)));
+        return wrapped;
     }
 
     public String getName() {
@@ -26,17 +35,23 @@ public class Bench implements Article {
     }
 
     public Map<String, Integer> getOrder() {
-        return order;
+        return Collections.unmodifiableMap(order);
     }
 
     public Map<String, List<String>> getCategories() {
-        return categories;
+        return Collections.unmodifiableMap(categories);
+    }
+
+    @Override
+    protected void addContent(Fingerprint fingerprint) {
+        fingerprint.add(name).add(rPath).add(order).add(categories);
     }
 
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof Bench)) return false;
         Bench b = (Bench) o;
+        if (getFingerprint() != b.getFingerprint()) return false;
         return name.equals(b.getName()) && rPath.equals(b.getRPath()) && categories.equals(b.getCategories()) && order.equals(b.getOrder());
     }
 }
@@ -2,11 +2,12 @@ package datamodel.objects;
 
 import datamodel.Enums;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
-public class Collection implements Article {
+public class Collection extends AbstractArticle {
 
     String name;
     String desc;
@@ -39,6 +40,7 @@ public class Collection implements Article {
 
     public void setName(String name) {
         this.name = name;
+        invalidateFingerprint();
     }
 
     public String getDesc() {
@@ -47,6 +49,7 @@ public class Collection implements Article {
 
     public void setDesc(String desc) {
         this.desc = desc;
+        invalidateFingerprint();
     }
 
     public String getRPath() {
@@ -59,6 +62,7 @@ public class Collection implements Article {
 
     public void setTroveMR(int troveMR) {
         this.troveMR = troveMR;
+        invalidateFingerprint();
     }
 
     public int getGeodeMR() {
@@ -67,30 +71,34 @@ public class Collection implements Article {
 
     public void setGeodeMR(int geodeMR) {
         this.geodeMR = geodeMR;
+        invalidateFingerprint();
     }
 
     public List<Enums.Type> getTypes() {
-        return types;
+        return Collections.unmodifiableList(types);
     }
 
     public void setTypes(List<Enums.Type> types) {
         this.types = types;
+        invalidateFingerprint();
     }
 
     public Map<Enums.Property, Double> getProperties() {
-        return properties;
+        return Collections.unmodifiableMap(properties);
     }
 
     public void setProperties(Map<Enums.Property, Double> properties) {
         this.properties = properties;
+        invalidateFingerprint();
     }
 
     public Map<Enums.Buff, Double> getBuffs() {
-        return buffs;
+        return Collections.unmodifiableMap(buffs);
     }
 
     public void setBuffs(Map<Enums.Buff, Double> buffs) {
         this.buffs = buffs;
+        invalidateFingerprint();
     }
 
     public String getBlueprint() {
@@ -99,12 +107,19 @@ public class Collection implements Article {
 
     public void setBlueprint(String blueprint) {
         this.blueprint = blueprint;
+        invalidateFingerprint();
+    }
+
+    @Override
+    protected void addContent(Fingerprint fingerprint) {
+        fingerprint.add(name).add(desc).add(rPath).add(troveMR).add(geodeMR).add(types).add(properties).add(buffs).add(blueprint);
     }
 
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof Collection)) return false;
         Collection c = (Collection) o;
+        if (getFingerprint() != c.getFingerprint()) return false;
         return name.equals(c.getName()) && Objects.equals(desc, c.getDesc()) && rPath.equals(c.getRPath()) && troveMR == c.getTroveMR()
                 && geodeMR == c.getGeodeMR() && types.equals(c.getTypes()) && properties.equals(c.getProperties()) && buffs.equals(c.getBuffs())
                 && Objects.equals(blueprint, c.getBlueprint());
@@ -1,8 +1,10 @@
 package datamodel.objects;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
-public class CollectionIndex implements Article {
+public class CollectionIndex extends AbstractArticle {
 
     String rPath;
     String type;
@@ -13,7 +15,14 @@ public class CollectionIndex implements Article {
         this.rPath = rPath;
         this.type = type;
         this.names = nameMap;
-        this.categories = categories;
+        this.categories = unmodifiableMaps(categories);
+    }
+
+    // the inner maps are wrapped once here, as getCategories only wraps the outer map
+    private static Map<String, Map<String, String>> unmodifiableMaps(Map<String, Map<String, String>> categories) {
+        Map<String, Map<String, String>> wrapped = new LinkedHashMap<>();
+        categories.forEach((k, v) -> wrapped.put(k, Collections.unmodifiableMap(v)));
+        return wrapped;
     }
 
     public String getRPath() {
@@ -25,29 +34,38 @@ public class CollectionIndex implements Article {
     }
 
     public Map<String, String> getNames() {
-        return names;
+        return Collections.unmodifiableMap(names);
     }
 
     public Map<String, Map<String, String>> getCategories() {
-        return categories;
+        return Collections.unmodifiableMap(categories);
     }
 
     public void setType(String type) {
         this.type = type;
+        invalidateFingerprint();
     }
 
     public void setNames(Map<String, String> names) {
         this.names = names;
+        invalidateFingerprint();
     }
 
     public void setCategories(Map<String, Map<String, String>> categories) {
-        this.categories = categories;
+        this.categories = unmodifiableMaps(categories);
+        invalidateFingerprint();
+    }
+
+    @Override
+    protected void addContent(Fingerprint fingerprint) {
+        fingerprint.add(rPath).add(type).add(names).add(categories);
     }
 
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof CollectionIndex)) return false;
         CollectionIndex ci = (CollectionIndex) o;
+        if (getFingerprint() != ci.getFingerprint()) return false;
         return rPath.equals(ci.getRPath()) && type.equals(ci.getType()) && names.equals(ci.getNames()) && categories.equals(ci.getCategories());
     }
 }
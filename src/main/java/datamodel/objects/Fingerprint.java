@@ -0,0 +1,86 @@
+package datamodel.objects;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the 64-bit content fingerprint of an article from its fields, added one after another.
+ * <p>
+ * Fingerprints only depend on content and a fixed mixing function, never on identity hash codes, so an article has the
+ * same fingerprint on every run and fingerprints can be stored alongside the articles. Lists are fingerprinted in order
+ * and maps regardless of their iteration order, matching their equals; doubles are compared by their bits, as
+ * {@link Double#equals} does.
+ */
+public final class Fingerprint {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long NULL = 0x5BD1E9955BD1E995L;
+
+    private long state = SEED;
+
+    public Fingerprint add(long value) {
+        state = mix(state ^ mix(value + SEED));
+        return this;
+    }
+
+    public Fingerprint add(int value) {
+        return add((long) value);
+    }
+
+    public Fingerprint add(boolean value) {
+        return add(value ? 1L : 2L);
+    }
+
+    public Fingerprint add(String value) {
+        if (value == null) return add(NULL);
+        long h = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            h = h * 0x100000001B3L ^ value.charAt(i);
+        }
+        return add(h);
+    }
+
+    public Fingerprint add(Object value) {
+        if (value == null) return add(NULL);
+        if (value instanceof String) return add((String) value);
+        if (value instanceof Integer || value instanceof Long) return add(((Number) value).longValue());
+        if (value instanceof Double) return add(Double.doubleToLongBits((Double) value));
+        if (value instanceof Boolean) return add((boolean) (Boolean) value);
+        if (value instanceof Enum) return add(((Enum<?>) value).name());
+        if (value instanceof List) return add((List<?>) value);
+        if (value instanceof Map) return add((Map<?, ?>) value);
+        if (value instanceof GearStyleEntry) {
+            GearStyleEntry g = (GearStyleEntry) value;
+            return add(g.getName()).add(g.getDesc()).add(g.getBlueprint()).add(g.getAdditionalInfo());
+        }
+        throw new IllegalArgumentException("Cannot fingerprint a " + value.getClass().getName());
+    }
+
+    public Fingerprint add(List<?> values) {
+        if (values == null) return add(NULL);
+        add(values.size());
+        for (Object value : values) add(value);
+        return this;
+    }
+
+    public Fingerprint add(Map<?, ?> values) {
+        if (values == null) return add(NULL);
+        // entries are fingerprinted on their own and summed, so the order they come in does not matter
+        long sum = 0;
+        for (Map.Entry<?, ?> entry : values.entrySet()) {
+            sum += new Fingerprint().add(entry.getKey()).add(entry.getValue()).get();
+        }
+        return add(values.size()).add(sum);
+    }
+
+    public long get() {
+        return state;
+    }
+
+    // the finalizer of SplitMix64, which spreads every input bit over the whole output
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -38,4 +38,9 @@ public class GearStyleEntry {
         GearStyleEntry g = (GearStyleEntry) o;
         return Objects.equals(name, g.getName()) && Objects.equals(desc, g.getDesc()) && Objects.equals(blueprint, g.getBlueprint()) && Objects.equals(additionalInfo, g.getAdditionalInfo());
     }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, desc, blueprint, additionalInfo);
+    }
 }
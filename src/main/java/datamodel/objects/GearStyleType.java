@@ -1,8 +1,10 @@
 package datamodel.objects;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
-public class GearStyleType implements Article {
+public class GearStyleType extends AbstractArticle {
 
     String rPath;
     String type;
@@ -11,7 +13,14 @@ public class GearStyleType implements Article {
     public GearStyleType(String rPath, String type, Map<String, Map<String, GearStyleEntry>> styles) {
         this.rPath = rPath;
         this.type = type;
-        this.styles = styles;
+        this.styles = unmodifiableMaps(styles);
+    }
+
+    // the inner maps are wrapped once here, as getStyles only wraps the outer map
+    private static Map<String, Map<String, GearStyleEntry>> unmodifiableMaps(Map<String, Map<String, GearStyleEntry>> styles) {
+        Map<String, Map<String, GearStyleEntry>> wrapped = new LinkedHashMap<>();
+        styles.forEach((k, v) -> wrapped.put(k, Collections.unmodifiableMap(v)));
+        return wrapped;
     }
 
     public String getRPath() {
@@ -23,17 +32,24 @@ public class GearStyleType implements Article {
     }
 
     public Map<String, Map<String, GearStyleEntry>> getStyles() {
-        return styles;
+        return Collections.unmodifiableMap(styles);
     }
 
     public void setType(String type) {
         this.type = type;
+        invalidateFingerprint();
+    }
+
+    @Override
+    protected void addContent(Fingerprint fingerprint) {
+        fingerprint.add(rPath).add(type).add(styles);
     }
 
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof GearStyleType)) return false;
         GearStyleType g = (GearStyleType) o;
+        if (getFingerprint() != g.getFingerprint()) return false;
         return rPath.equals(g.getRPath()) && type.equals(g.getType()) && styles.equals(g.getStyles());
     }
 }
@@ -2,10 +2,11 @@ package datamodel.objects;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
-public class Item implements Article {
+public class Item extends AbstractArticle {
 
     String name;
     String desc; // nullable
@@ -33,6 +34,7 @@ public class Item implements Article {
 
     public void setName(String name) {
         this.name = name;
+        invalidateFingerprint();
     }
 
     public String getDesc() {
@@ -41,6 +43,7 @@ public class Item implements Article {
 
     public void setDesc(String desc) {
         this.desc = desc;
+        invalidateFingerprint();
     }
 
     public String getRPath() {
@@ -48,15 +51,17 @@ public class Item implements Article {
     }
 
     public List<String> getUnlocks() {
-        return unlocks;
+        return Collections.unmodifiableList(unlocks);
     }
 
     public void setUnlocks(List<String> unlocks) {
         this.unlocks = unlocks;
+        invalidateFingerprint();
     }
 
     public void addUnlock(String unlock) {
         this.unlocks.add(unlock);
+        invalidateFingerprint();
     }
 
     public boolean getTradable() {
@@ -65,6 +70,7 @@ public class Item implements Article {
 
     public void setTradable(boolean tradable) {
         this.tradable = tradable;
+        invalidateFingerprint();
     }
 
     public String getBlueprint() {
@@ -73,6 +79,7 @@ public class Item implements Article {
 
     public void setBlueprint(String blueprint) {
         this.blueprint = blueprint;
+        invalidateFingerprint();
     }
 
     public boolean getLootbox() {
@@ -81,6 +88,7 @@ public class Item implements Article {
 
     public void setLootbox(boolean isLootbox) {
         this.lootbox = isLootbox;
+        invalidateFingerprint();
     }
 
     public boolean getDecay() {
@@ -89,12 +97,19 @@ public class Item implements Article {
 
     public void setDecay(boolean decay) {
         this.decay = decay;
+        invalidateFingerprint();
+    }
+
+    @Override
+    protected void addContent(Fingerprint fingerprint) {
+        fingerprint.add(name).add(desc).add(rPath).add(unlocks).add(blueprint).add(tradable).add(lootbox).add(decay);
     }
 
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof Item)) return false;
         Item i = (Item) o;
+        if (getFingerprint() != i.getFingerprint()) return false;
         return name.equals(i.getName()) && Objects.equals(desc, i.getDesc()) && rPath.equals(i.getRPath())
                 && Objects.equals(blueprint, i.getBlueprint()) && tradable == i.getTradable() && lootbox == i.getLootbox()
                 && decay == i.getDecay() && unlocks.equals(i.getUnlocks());
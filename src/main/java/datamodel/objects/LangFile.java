@@ -1,8 +1,9 @@
 package datamodel.objects;
 
+import java.util.Collections;
 import java.util.Map;
 
-public class LangFile implements Article {
+public class LangFile extends AbstractArticle {
 
     // language file, can contain multiple
 
@@ -39,7 +40,11 @@ public class LangFile implements Article {
     }
 
     public Map<String, String> getStrings() {
-        return strings;
+        return Collections.unmodifiableMap(strings);
     }
 
+    @Override
+    protected void addContent(Fingerprint fingerprint) {
+        fingerprint.add(name).add(lang).add(rPath).add(strings);
+    }
 }
@@ -2,7 +2,7 @@ package datamodel.objects;
 
 import java.util.Objects;
 
-public class Placeable implements Article {
+public class Placeable extends AbstractArticle {
 
     String name;
     String desc;
@@ -24,7 +24,7 @@ public class Placeable implements Article {
 
     public void setName(String name) {
         this.name = name;
-
+        invalidateFingerprint();
     }
 
     public String getDesc() {
@@ -33,7 +33,7 @@ public class Placeable implements Article {
 
     public void setDesc(String desc) {
         this.desc = desc;
-
+        invalidateFingerprint();
     }
 
     public String getRPath() {
@@ -46,6 +46,7 @@ public class Placeable implements Article {
 
     public void setTradable(boolean tradable) {
         this.tradable = tradable;
+        invalidateFingerprint();
     }
 
     public String getBlueprint() {
@@ -54,12 +55,19 @@ public class Placeable implements Article {
 
     public void setBlueprint(String blueprint) {
         this.blueprint = blueprint;
+        invalidateFingerprint();
+    }
+
+    @Override
+    protected void addContent(Fingerprint fingerprint) {
+        fingerprint.add(name).add(desc).add(rPath).add(blueprint).add(tradable);
     }
 
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof Placeable)) return false;
         Placeable p = (Placeable) o;
+        if (getFingerprint() != p.getFingerprint()) return false;
         return name.equals(p.getName()) && Objects.equals(desc, p.getDesc()) && rPath.equals(p.getRPath())
                 && Objects.equals(blueprint, p.getBlueprint()) && tradable == p.getTradable();
     }
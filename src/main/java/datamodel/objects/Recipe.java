@@ -4,9 +4,10 @@ import javafx.beans.property.SimpleMapProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableMap;
 
+import java.util.Collections;
 import java.util.Map;
 
-public class Recipe implements Article {
+public class Recipe extends AbstractArticle {
 
     String name;
     String rPath;
@@ -29,10 +30,12 @@ public class Recipe implements Article {
 
     public void updateCost(String itemRPath, int quantity) {
         this.costs.put(itemRPath, quantity);
+        invalidateFingerprint();
     }
 
     public void updateOutput(String articleRPath, int quantity) {
         this.output.put(articleRPath, quantity);
+        invalidateFingerprint();
     }
 
     public String getName() {
@@ -41,6 +44,7 @@ public class Recipe implements Article {
 
     public void setName(String name) {
         this.name = name;
+        invalidateFingerprint();
     }
 
     public String getRPath() {
@@ -48,25 +52,33 @@ public class Recipe implements Article {
     }
 
     public Map<String, Integer> getCosts() {
-        return costs;
+        return Collections.unmodifiableMap(costs);
     }
 
     public void setCosts(Map<String, Integer> costs) {
         this.costs = costs;
+        invalidateFingerprint();
     }
 
     public Map<String, Integer> getOutput() {
-        return output;
+        return Collections.unmodifiableMap(output);
     }
 
     public void setOutput(Map<String, Integer> output) {
         this.output = output;
+        invalidateFingerprint();
+    }
+
+    @Override
+    protected void addContent(Fingerprint fingerprint) {
+        fingerprint.add(name).add(rPath).add(costs).add(output);
     }
 
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof Recipe)) return false;
         Recipe r = (Recipe) o;
+        if (getFingerprint() != r.getFingerprint()) return false;
         return name.equals(r.getName()) && rPath.equals(r.getRPath()) && costs.equals(r.getCosts()) && output.equals(r.getOutput());
     }
 }
@@ -2,7 +2,7 @@ package datamodel.objects;
 
 import java.util.Objects;
 
-public class Skin implements Article {
+public class Skin extends AbstractArticle {
 
     String rPath;
     String name;
@@ -26,6 +26,7 @@ public class Skin implements Article {
 
     public void setName(String name) {
         this.name = name;
+        invalidateFingerprint();
     }
 
     public String getDesc() {
@@ -34,6 +35,7 @@ public class Skin implements Article {
 
     public void setDesc(String desc) {
         this.desc = desc;
+        invalidateFingerprint();
     }
 
     public String getBlueprint() {
@@ -42,12 +44,19 @@ public class Skin implements Article {
 
     public void setBlueprint(String blueprint) {
         this.blueprint = blueprint;
+        invalidateFingerprint();
+    }
+
+    @Override
+    protected void addContent(Fingerprint fingerprint) {
+        fingerprint.add(rPath).add(name).add(desc).add(blueprint);
     }
 
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof Skin)) return false;
         Skin s = (Skin) o;
+        if (getFingerprint() != s.getFingerprint()) return false;
         return name.equals(s.getName()) && Objects.equals(desc, s.getDesc()) && rPath.equals(s.getRPath()) && blueprint.equals(s.getBlueprint());
     }
 }
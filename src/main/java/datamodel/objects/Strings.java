@@ -6,6 +6,7 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableMap;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.Observable;
 
 public class Strings {
@@ -52,4 +53,9 @@ public class Strings {
         Strings s = (Strings) o;
         return lang.equals(s.getLang()) && strings.equals(s.getStrings());
     }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lang, strings);
+    }
 }
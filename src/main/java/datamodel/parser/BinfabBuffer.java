@@ -0,0 +1,236 @@
+package datamodel.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Read-only, byte-level view over the contents of a binfab file.
+ * <p>
+ * Strategies can search for markers and decode values directly against this view, instead of against the spaced hex
+ * string produced by {@link #toSplitString()}. All positions are absolute byte offsets from the start of the file.
+ */
+public class BinfabBuffer {
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    // used to decode strings out of buffers that are not backed by an accessible array, such as direct buffers
+    private static final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private final ByteBuffer buffer;
+    private final int length;
+    private final byte[] array;
+    private final int arrayOffset;
+
+    public BinfabBuffer(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    public BinfabBuffer(ByteBuffer buffer) {
+        ByteBuffer slice = buffer.slice();
+        this.array = slice.hasArray() ? slice.array() : null;
+        this.arrayOffset = slice.hasArray() ? slice.arrayOffset() : 0;
+        this.buffer = slice.asReadOnlyBuffer();
+        this.length = this.buffer.remaining();
+    }
+
+    /**
+     * Converts a spaced hex string (e.g. a marker from {@link Markers}, or the legacy parser input) into raw bytes.
+     */
+    public static byte[] toBytes(String hex) {
+        String trimmed = hex.trim();
+        if (trimmed.isEmpty()) return new byte[0];
+        byte[] bytes = new byte[(trimmed.length() + 1) / 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) ((Character.digit(trimmed.charAt(3 * i), 16) << 4) | Character.digit(trimmed.charAt(3 * i + 1), 16));
+        }
+        return bytes;
+    }
+
+    public static BinfabBuffer fromSplitString(String splitString) {
+        return new BinfabBuffer(toBytes(splitString));
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return the unsigned value of the byte at the given position
+     */
+    public int byteAt(int pos) {
+        return buffer.get(pos) & 0xFF;
+    }
+
+    public boolean matchesAt(byte[] marker, int pos) {
+        if (pos < 0 || pos + marker.length > length) return false;
+        for (int i = 0; i < marker.length; i++) {
+            if (buffer.get(pos + i) != marker[i]) return false;
+        }
+        return true;
+    }
+
+    public int indexOf(byte[] marker) {
+        return indexOf(marker, 0, length);
+    }
+
+    public int indexOf(byte[] marker, int from) {
+        return indexOf(marker, from, length);
+    }
+
+    /**
+     * @return the position of the first occurrence of marker lying entirely within [from, to), or -1 if there is none
+     */
+    public int indexOf(byte[] marker, int from, int to) {
+        if (marker.length == 0) return Math.max(from, 0);
+        byte first = marker[0];
+        int last = Math.min(to, length) - marker.length;
+        for (int i = Math.max(from, 0); i <= last; i++) {
+            if (buffer.get(i) == first && matchesAt(marker, i)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the position of the last occurrence of marker starting at or before from, or -1 if there is none
+     */
+    public int lastIndexOf(byte[] marker, int from) {
+        for (int i = Math.min(from, length - marker.length); i >= 0; i--) {
+            if (matchesAt(marker, i)) return i;
+        }
+        return -1;
+    }
+
+    public boolean contains(byte[] marker) {
+        return indexOf(marker) != -1;
+    }
+
+    /**
+     * @return the number of non-overlapping occurrences of marker
+     */
+    public int count(byte[] marker) {
+        int count = 0;
+        int index = indexOf(marker);
+        while (index != -1) {
+            count++;
+            index = indexOf(marker, index + marker.length);
+        }
+        return count;
+    }
+
+    /**
+     * Reads an unsigned LEB128 varint starting at the given position.
+     */
+    public int varintAt(int pos) {
+        int value = 0;
+        int shift = 0;
+        int curr;
+        do {
+            curr = byteAt(pos++);
+            value |= (curr & 0x7F) << shift;
+            shift += 7;
+        } while ((curr & 0x80) != 0 && shift < 32);
+        return value;
+    }
+
+    /**
+     * @return the number of bytes taken up by the varint starting at the given position
+     */
+    public int varintLength(int pos) {
+        int start = pos;
+        while ((byteAt(pos) & 0x80) != 0 && pos - start < 4) pos++;
+        return pos - start + 1;
+    }
+
+    /**
+     * Reads a zig-zag encoded varint, the format used for signed quantities such as recipe costs.
+     */
+    public int zigZagVarintAt(int pos) {
+        int raw = varintAt(pos);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    /**
+     * Decodes len bytes starting at pos, one char per byte; equivalent to {@link Parser#hexToAscii(String)}.
+     */
+    public String stringAt(int pos, int len) {
+        return stringAt(pos, len, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Decodes len bytes starting at pos in the given charset. Heap buffers are decoded in place; runs of pure ASCII
+     * skip the UTF-8 decoder, as both charsets agree on them.
+     */
+    public String stringAt(int pos, int len, Charset charset) {
+        if (pos < 0 || len < 0 || pos + len > length) {
+            throw new IndexOutOfBoundsException("String of " + len + " bytes at " + pos + " exceeds buffer of " + length + " bytes.");
+        }
+        byte[] src;
+        int offset;
+        if (array != null) {
+            src = array;
+            offset = arrayOffset + pos;
+        } else {
+            src = scratch.get();
+            if (src.length < len) {
+                src = new byte[Math.max(len, src.length * 2)];
+                scratch.set(src);
+            }
+            offset = 0;
+            for (int i = 0; i < len; i++) src[i] = buffer.get(pos + i);
+        }
+        if ((charset == StandardCharsets.UTF_8 || charset == StandardCharsets.US_ASCII) && isAscii(src, offset, len)) {
+            charset = StandardCharsets.ISO_8859_1;
+        }
+        return new String(src, offset, len, charset);
+    }
+
+    private static boolean isAscii(byte[] bytes, int offset, int len) {
+        for (int i = offset, end = offset + len; i < end; i++) {
+            if (bytes[i] < 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Decodes a string prefixed by its varint-encoded length.
+     */
+    public String lengthPrefixedStringAt(int pos) {
+        return lengthPrefixedStringAt(pos, StandardCharsets.ISO_8859_1);
+    }
+
+    public String lengthPrefixedStringAt(int pos, Charset charset) {
+        return stringAt(pos + varintLength(pos), varintAt(pos), charset);
+    }
+
+    /**
+     * Feeds the whole file to the given digest, without copying it out of the buffer first.
+     */
+    public void digest(MessageDigest digest) {
+        digest.update(buffer.duplicate());
+    }
+
+    /**
+     * @return the bytes in [from, to) as a spaced hex string, in the same format as {@link #toSplitString()}
+     */
+    public String toHex(int from, int to) {
+        if (to <= from) return "";
+        char[] chars = new char[(to - from) * 3 - 1];
+        for (int i = from, j = 0; i < to; i++, j += 3) {
+            int b = buffer.get(i) & 0xFF;
+            chars[j] = HEX_DIGITS[b >>> 4];
+            chars[j + 1] = HEX_DIGITS[b & 0x0F];
+            if (j + 2 < chars.length) chars[j + 2] = ' ';
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Materializes the whole file as a spaced, upper-case hex string (e.g. "08 1E 24"), the input format of the
+     * string-based parse strategies.
+     */
+    public String toSplitString() {
+        return toHex(0, length);
+    }
+}
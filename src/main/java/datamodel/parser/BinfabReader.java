@@ -0,0 +1,77 @@
+package datamodel.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Opens binfab files as {@link BinfabBuffer}s, closing each file before it is parsed.
+ * <p>
+ * Files are read into a heap buffer that is pooled per thread, so a buffer returned by {@link #read(String)} is only
+ * valid until the next call to read on the same thread; strategies must not hold on to it after parsing. Files above the
+ * pooling threshold (e.g. language files and the blueprint mapping sources) get a buffer of their own instead, so that
+ * the pool does not keep the largest file read on each thread. Files are not memory-mapped, as a mapping keeps its file
+ * locked on Windows until it is garbage collected, and the file could not be replaced or deleted meanwhile.
+ */
+public class BinfabReader {
+
+    public static final long DEFAULT_POOLING_THRESHOLD = 1 << 20;
+
+    private static final int INITIAL_POOL_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<byte[]> pool = ThreadLocal.withInitial(() -> new byte[INITIAL_POOL_SIZE]);
+
+    private long poolingThreshold;
+
+    public BinfabReader() {
+        this(DEFAULT_POOLING_THRESHOLD);
+    }
+
+    /**
+     * @param poolingThreshold files with at least this many bytes are read into a buffer of their own instead of the pool
+     */
+    public BinfabReader(long poolingThreshold) {
+        this.poolingThreshold = poolingThreshold;
+    }
+
+    public long getPoolingThreshold() {
+        return poolingThreshold;
+    }
+
+    public void setPoolingThreshold(long poolingThreshold) {
+        this.poolingThreshold = poolingThreshold;
+    }
+
+    public BinfabBuffer read(String path) throws IOException {
+        Path file = Paths.get(path);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(path + " is too large to be parsed.");
+            }
+            if (size >= poolingThreshold) return new BinfabBuffer(readFully(channel, new byte[(int) size], (int) size));
+            return new BinfabBuffer(readPooled(channel, (int) size));
+        }
+    }
+
+    private ByteBuffer readPooled(FileChannel channel, int size) throws IOException {
+        byte[] array = pool.get();
+        if (array.length < size) {
+            array = new byte[Math.max(size, array.length * 2)];
+            pool.set(array);
+        }
+        return readFully(channel, array, size);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, byte[] array, int size) throws IOException {
+        ByteBuffer target = ByteBuffer.wrap(array, 0, size);
+        while (target.hasRemaining()) {
+            if (channel.read(target) == -1) break;
+        }
+        target.flip();
+        return target;
+    }
+}
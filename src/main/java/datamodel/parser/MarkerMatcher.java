@@ -0,0 +1,156 @@
+package datamodel.parser;
+
+import java.util.*;
+
+/**
+ * Finds the first occurrence of each of a fixed set of markers in a single pass over a buffer.
+ * <p>
+ * The markers are compiled once into an Aho-Corasick automaton. Failure links are resolved at construction time, so
+ * scanning is one table lookup per byte regardless of the number of markers. Only bytes that occur in some marker get
+ * their own column in the transition table; every other byte shares a single column.
+ */
+public class MarkerMatcher {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final int[] lengths;
+    private final int[] byteClass = new int[256];
+    private final int classCount;
+    private final int[] transitions;
+    private final int[][] outputs;
+
+    /**
+     * @param markers spaced hex strings, as declared in {@link Markers}
+     */
+    public MarkerMatcher(String... markers) {
+        byte[][] patterns = new byte[markers.length][];
+        lengths = new int[markers.length];
+        for (int i = 0; i < markers.length; i++) {
+            if (ids.put(markers[i], i) != null) {
+                throw new IllegalArgumentException("Duplicate marker: " + markers[i]);
+            }
+            patterns[i] = BinfabBuffer.toBytes(markers[i]);
+            if (patterns[i].length == 0) {
+                throw new IllegalArgumentException("Empty marker at index " + i);
+            }
+            lengths[i] = patterns[i].length;
+        }
+
+        // class 0 is shared by all bytes that do not occur in any marker
+        int classes = 1;
+        for (byte[] pattern : patterns) {
+            for (byte b : pattern) {
+                if (byteClass[b & 0xFF] == 0) byteClass[b & 0xFF] = classes++;
+            }
+        }
+        classCount = classes;
+
+        // build the trie; -1 marks a missing edge until failure links are resolved
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> out = new ArrayList<>();
+        trie.add(newRow());
+        out.add(new ArrayList<>());
+        for (int p = 0; p < patterns.length; p++) {
+            int state = 0;
+            for (byte b : patterns[p]) {
+                int c = byteClass[b & 0xFF];
+                if (trie.get(state)[c] == -1) {
+                    trie.get(state)[c] = trie.size();
+                    trie.add(newRow());
+                    out.add(new ArrayList<>());
+                }
+                state = trie.get(state)[c];
+            }
+            out.get(state).add(p);
+        }
+
+        // resolve failure links breadth-first, turning the trie into a complete transition table
+        int[] fail = new int[trie.size()];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < classCount; c++) {
+            int next = trie.get(0)[c];
+            if (next == -1) {
+                trie.get(0)[c] = 0;
+            } else {
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            out.get(state).addAll(out.get(fail[state]));
+            for (int c = 0; c < classCount; c++) {
+                int next = trie.get(state)[c];
+                if (next == -1) {
+                    trie.get(state)[c] = trie.get(fail[state])[c];
+                } else {
+                    fail[next] = trie.get(fail[state])[c];
+                    queue.add(next);
+                }
+            }
+        }
+
+        transitions = new int[trie.size() * classCount];
+        outputs = new int[trie.size()][];
+        for (int s = 0; s < trie.size(); s++) {
+            System.arraycopy(trie.get(s), 0, transitions, s * classCount, classCount);
+            outputs[s] = out.get(s).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private int[] newRow() {
+        int[] row = new int[classCount];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    /**
+     * Scans the whole buffer once.
+     *
+     * @return the position of the first occurrence of every marker
+     */
+    public Offsets scan(BinfabBuffer buffer) {
+        int[] first = new int[lengths.length];
+        Arrays.fill(first, -1);
+        int remaining = lengths.length;
+
+        int state = 0;
+        for (int i = 0, n = buffer.length(); i < n && remaining > 0; i++) {
+            state = transitions[state * classCount + byteClass[buffer.byteAt(i)]];
+            for (int p : outputs[state]) {
+                if (first[p] == -1) {
+                    first[p] = i - lengths[p] + 1;
+                    remaining--;
+                }
+            }
+        }
+        return new Offsets(first);
+    }
+
+    /**
+     * First-occurrence table produced by {@link #scan(BinfabBuffer)}, queried with the same marker strings the matcher
+     * was built from.
+     */
+    public class Offsets {
+
+        private final int[] first;
+
+        private Offsets(int[] first) {
+            this.first = first;
+        }
+
+        /**
+         * @return the byte position of the first occurrence of the marker, or -1 if it does not occur
+         */
+        public int indexOf(String marker) {
+            Integer id = ids.get(marker);
+            if (id == null) {
+                throw new IllegalArgumentException("Marker was not compiled into this matcher: " + marker);
+            }
+            return first[id];
+        }
+
+        public boolean contains(String marker) {
+            return indexOf(marker) != -1;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package datamodel.parser;
 
 import com.google.re2j.Matcher;
-import com.google.re2j.Pattern;
 import datamodel.Enums;
 import datamodel.objects.Article;
 import datamodel.parser.parsestrategies.*;
@@ -15,14 +14,39 @@ import java.util.Map;
 
 public class Parser {
 
+    // must be bumped whenever a strategy starts producing different output for the same file, so that articles cached
+    // by an earlier version are parsed again
+    public static final int PARSER_VERSION = 1;
+
+    private static final byte[] OB_SEGMENT_SPLITTER = {(byte) 0x80, 0x3F, 0x1E};
+
+    private final BinfabReader reader = new BinfabReader();
+
     public static String hexToAscii(String hexString) {
-        StringBuilder output = new StringBuilder();
+        return hexToAscii(hexString, 0, hexString.length());
+    }
+
+    /**
+     * Decodes the spaced hex in [from, to) one char per byte, without creating a substring per byte. Passing the bounds
+     * of a matcher group (start, end) avoids creating the group's substring as well.
+     */
+    public static String hexToAscii(CharSequence hex, int from, int to) {
+        if ((to - from) % 3 == 1) {
+            throw new IllegalArgumentException("Incomplete hex pair at " + (to - 1) + ".");
+        }
+        char[] chars = new char[(to - from + 1) / 3];
+        for (int i = 0, j = from; i < chars.length; i++, j += 3) {
+            chars[i] = (char) (hexDigit(hex, j) << 4 | hexDigit(hex, j + 1));
+        }
+        return new String(chars);
+    }
 
-        for (int i = 0; i < hexString.length(); i += 3) {
-            String str = hexString.substring(i, i + 2);
-            output.append((char) Integer.parseInt(str, 16));
+    private static int hexDigit(CharSequence hex, int index) {
+        int digit = Character.digit(hex.charAt(index), 16);
+        if (digit == -1) {
+            throw new NumberFormatException("Invalid hex digit '" + hex.charAt(index) + "' at " + index + ".");
         }
-        return output.toString();
+        return digit;
     }
 
     public static int recipeH2D(String hexNumber, String item) throws ParseException {
@@ -63,8 +87,14 @@ public class Parser {
 
     public static double collectionH2D(String hexNumber) {
         String[] hexPartition = hexNumber.split(" ");
-        int first = Integer.parseInt(hexPartition[0], 16);
-        int second = Integer.parseInt(hexPartition[1], 16);
+        return collectionH2D(Integer.parseInt(hexPartition[0], 16), Integer.parseInt(hexPartition[1], 16));
+    }
+
+    /**
+     * @param first  the unsigned value of the first byte
+     * @param second the unsigned value of the second byte
+     */
+    public static double collectionH2D(int first, int second) {
         int denom = 67 - second;
 
         if (first > 128) {
@@ -95,40 +125,54 @@ public class Parser {
         return hexRaw.replaceAll("(.{2})", "$1 ").trim();
     }
 
+    /**
+     * See {@link BinfabReader} for how long the returned buffer stays valid.
+     */
+    public BinfabBuffer readBuffer(String path) throws IOException {
+        return reader.read(path);
+    }
+
+    public BinfabReader getReader() {
+        return reader;
+    }
+
     public Article createObject(String path, Enums.ObjectType itemType, boolean useRPath) throws IOException, ParseException {
-        String splitString = insertSpaces(byteToString(path));
+        return createObject(readBuffer(path), path, itemType, useRPath);
+    }
+
+    public Article createObject(BinfabBuffer buffer, String path, Enums.ObjectType itemType, boolean useRPath) throws ParseException {
         ParseContext context;
         switch (itemType) {
             case BENCH:
                 context = new ParseContext(new ParseBench());
-                return context.parse(splitString, path, useRPath);
+                return context.parse(buffer, path, useRPath);
             case COLLECTION:
                 context = new ParseContext(new ParseCollection());
-                return context.parse(splitString, path, useRPath);
+                return context.parse(buffer, path, useRPath);
             case COLL_INDEX:
                 context = new ParseContext(new ParseCollectionIndex());
-                return context.parse(splitString, path, useRPath);
+                return context.parse(buffer, path, useRPath);
             case GEAR_STYLE:
                 context = new ParseContext(new ParseGearStyle());
-                return context.parse(splitString, path, useRPath);
+                return context.parse(buffer, path, useRPath);
             case ITEM:
                 context = new ParseContext(new ParseItem());
-                return context.parse(splitString, path, useRPath);
+                return context.parse(buffer, path, useRPath);
             case PLACEABLE:
                 context = new ParseContext(new ParsePlaceable());
-                return context.parse(splitString, path, useRPath);
+                return context.parse(buffer, path, useRPath);
             case PROFESSION:
                 context = new ParseContext(new ParseProfession());
-                return context.parse(splitString, path, useRPath);
+                return context.parse(buffer, path, useRPath);
             case RECIPE:
                 context = new ParseContext(new ParseRecipe());
-                return context.parse(splitString, path, useRPath);
+                return context.parse(buffer, path, useRPath);
             case SKIN:
                 context = new ParseContext(new ParseSkin());
-                return context.parse(splitString, path, useRPath);
+                return context.parse(buffer, path, useRPath);
             case LANG_FILE:
                 context = new ParseContext(new ParseLangFile());
-                return context.parse(splitString, path, useRPath);
+                return context.parse(buffer, path, useRPath);
             default:
                 return null;
         }
@@ -146,23 +190,23 @@ public class Parser {
     }
 
     public Map<String, String> getOBMappingFromFile(String filePath, boolean useAltPosition) throws IOException {
-        Regexes r = new Regexes();
-        Matcher m = Pattern.compile(r.bpMappingExtractor).matcher("");
-
         if (!new File(filePath).exists()) return null;
         Map<String, String> map = new HashMap<>();
 
-        String splitString = insertSpaces(byteToString(filePath));
-
-        String splitter = "80 3F 1E ";
-        String[] segments = splitString.split(splitter);
-
-        for (String str : segments) {
-            if (m.reset(str).find()) {
-                String bp = useAltPosition ? Parser.hexToAscii(m.group(4)) : m.group(5).equals("00 ") ? null : Parser.hexToAscii(m.group(7));
+        BinfabBuffer buffer = readBuffer(filePath);
+
+        // only one segment is converted to hex at a time; segments followed by the splitter keep their trailing space
+        int segmentStart = 0;
+        while (segmentStart < buffer.length()) {
+            int splitIndex = buffer.indexOf(OB_SEGMENT_SPLITTER, segmentStart, buffer.length() - 1);
+            String str = splitIndex == -1 ? buffer.toHex(segmentStart, buffer.length()) : buffer.toHex(segmentStart, splitIndex) + " ";
+            segmentStart = splitIndex == -1 ? buffer.length() : splitIndex + OB_SEGMENT_SPLITTER.length;
+            Matcher m = Patterns.BP_MAPPING.matcher(str);
+            if (Patterns.BP_MAPPING.find(m)) {
+                String bp = useAltPosition ? hexToAscii(str, m.start(4), m.end(4)) : m.group(5).equals("00 ") ? null : hexToAscii(str, m.start(7), m.end(7));
                 // basic filter to filter out unwanted junk from gardening.binfab
                 if (bp != null && (Character.isLetter(bp.charAt(0)) || Character.isDigit(bp.charAt(0))))
-                    map.put(Parser.hexToAscii(m.group(2)), bp);
+                    map.put(hexToAscii(str, m.start(2), m.end(2)), bp);
             }
         }
         return map;
@@ -0,0 +1,156 @@
+package datamodel.parser;
+
+import com.google.re2j.Matcher;
+import com.google.re2j.Pattern;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of the compiled patterns used by the parser.
+ * <p>
+ * Every pattern in {@link Regexes} and {@link Markers} that is matched as a regex is compiled exactly once, when this
+ * class is loaded. Matchers are reused per thread, so a matcher obtained from an entry is only valid until the next
+ * call to {@link Entry#matcher(CharSequence)} on the same entry and thread.
+ */
+public final class Patterns {
+
+    private static final List<Entry> entries = new ArrayList<>();
+    private static long compileNanos = 0;
+
+    public static final Entry LANG_SPLITTER = register("langSplitter", Regexes.langSplitter);
+    public static final Entry LANG_EXTRACTOR = register("langExtractor", Regexes.langExtractor);
+    public static final Entry BP_MAPPING = register("bpMappingExtractor", Regexes.bpMappingExtractor);
+    public static final Entry RECIPE_DIVIDER = register("recipeDivider", Regexes.recipeDivider);
+    public static final Entry RECIPE_INPUT_DIVIDER = register("recipeInputDivider", Regexes.recipeInputDivider);
+    public static final Entry RECIPE_INPUT_EXTRACT = register("recipeInputExtract", Regexes.recipeInputExtract);
+    public static final Entry RECIPE_OUTPUT_SPLITTER = register("recipeOutputSplitter", Regexes.recipeOutputSplitter);
+    public static final Entry RECIPE_OUTPUT_DIVIDER = register("recipeOutputDivider", Regexes.recipeOutputDivider);
+    public static final Entry RECIPE_OUTPUT_OBJECT = register("recipeOutputObject", Regexes.recipeOutputObject);
+    public static final Entry RECIPE_OUTPUT_COLLECTION = register("recipeOutputCollection", Regexes.recipeOutputCollection);
+    public static final Entry RECIPE_OUTPUT_CLASS = register("recipeOutputClass", Regexes.recipeOutputClass);
+    public static final Entry RECIPE = register("recipe", Markers.recipe);
+
+    // bytes whose hex pair matches Markers.alphabetRecipe, evaluated once instead of once per pair parsed
+    private static final boolean[] recipeAlphabet = new boolean[256];
+
+    static {
+        long start = System.nanoTime();
+        Pattern alphabet = Pattern.compile(Markers.alphabetRecipe);
+        for (int i = 0; i < recipeAlphabet.length; i++) {
+            recipeAlphabet[i] = alphabet.matcher(String.format("%02X", i)).matches();
+        }
+        compileNanos += System.nanoTime() - start;
+    }
+
+    private Patterns() {
+    }
+
+    private static Entry register(String name, String regex) {
+        long start = System.nanoTime();
+        Entry entry = new Entry(name, Pattern.compile(regex));
+        compileNanos += System.nanoTime() - start;
+        entries.add(entry);
+        return entry;
+    }
+
+    /**
+     * Forces the registry to be built, e.g. during application start-up rather than in the middle of the first parse.
+     *
+     * @return the number of registered patterns
+     */
+    public static int init() {
+        return entries.size();
+    }
+
+    public static List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    public static long getCompileTimeMillis() {
+        return compileNanos / 1_000_000;
+    }
+
+    /**
+     * @param b an unsigned byte value
+     * @return true if b is a lowercase letter, digit or underscore, as defined by {@link Markers#alphabetRecipe}
+     */
+    public static boolean isRecipeByte(int b) {
+        return recipeAlphabet[b & 0xFF];
+    }
+
+    /**
+     * @return one line per pattern that has been used, in descending order of successful matches
+     */
+    public static List<String> getReport() {
+        List<Entry> used = new ArrayList<>();
+        entries.forEach(e -> {
+            if (e.getAttempts() > 0) used.add(e);
+        });
+        used.sort((a, b) -> Long.compare(b.getMatches(), a.getMatches()));
+
+        List<String> report = new ArrayList<>();
+        report.add("Pattern registry: " + entries.size() + " patterns compiled in " + getCompileTimeMillis() + " ms.");
+        used.forEach(e -> report.add(e.getName() + ": " + e.getMatches() + " matches over " + e.getAttempts() + " inputs"));
+        return report;
+    }
+
+    public static void resetCounts() {
+        entries.forEach(Entry::resetCounts);
+    }
+
+    public static final class Entry {
+
+        private final String name;
+        private final Pattern pattern;
+        private final ThreadLocal<Matcher> matcher;
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder matches = new LongAdder();
+
+        private Entry(String name, Pattern pattern) {
+            this.name = name;
+            this.pattern = pattern;
+            this.matcher = ThreadLocal.withInitial(() -> pattern.matcher(""));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Pattern getPattern() {
+            return pattern;
+        }
+
+        /**
+         * @return this thread's matcher for this pattern, reset to the given input
+         */
+        public Matcher matcher(CharSequence input) {
+            attempts.increment();
+            return matcher.get().reset(input);
+        }
+
+        /**
+         * Calls find on a matcher of this pattern, recording the match if there is one.
+         */
+        public boolean find(Matcher m) {
+            boolean found = m.find();
+            if (found) matches.increment();
+            return found;
+        }
+
+        public long getAttempts() {
+            return attempts.sum();
+        }
+
+        public long getMatches() {
+            return matches.sum();
+        }
+
+        private void resetCounts() {
+            attempts.reset();
+            matches.reset();
+        }
+    }
+}
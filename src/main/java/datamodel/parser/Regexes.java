@@ -2,25 +2,23 @@ package datamodel.parser;
 
 public class Regexes {
 
-    public String gearStyleCatExtractor = "[0-9A-F]4 (?:0[0-7] )?08 [0-9A-F][0-9A-F] ((?:[0-9A-F][0-9A-F] )+?)BE 01 [0-9A-F]E ((?:[0-9A-F][0-9A-F] (?:[0-9A-F][0-9A-F] )?)?)00 ((?:[0-9A-F]4 (?:[0-9][0-9A-F] )?08 [0-9A-F][0-9A-F] (?:(?:[0-9A-F][0-9A-F] )+?)18 (?:00 |(?:[0-9A-F][0-9A-F] (?:(?:[0-9A-F][0-9A-F] )+?)))28 (?:00 |(?:[0-9A-F][0-9A-F] (?:(?:[0-9A-F][0-9A-F] )+?)))30 [0-9A-F][0-9A-F] BE 04 08 00 08 58 (?:00 |[0-9A-F][0-9A-F] (?:(?:[0-9A-F][0-9A-F] )+?))68 00 1E )*?)08 1E";
-    public String gearStyleInfoExtractor = "[0-9A-F]4 (?:[0-9][0-9A-F] )?08 [0-9A-F][0-9A-F] ((?:[0-9A-F][0-9A-F] )+?)18 (00 |(?:[0-9A-F][0-9A-F] ((?:[0-9A-F][0-9A-F] )+?)))28 (00 |(?:[0-9A-F][0-9A-F] ((?:[0-9A-F][0-9A-F] )+?)))30 [0-9A-F][0-9A-F] BE 04 08 00 08 58 (00 |[0-9A-F][0-9A-F] ((?:[0-9A-F][0-9A-F] )+?))68 00 1E";
+    public static final String langSplitter = "BE 03 0[0-9A-F] 0[0-9A-F] 0[0-9A-F] 1E";
+    public static final String langExtractor = "08 ([0-9A-F][0-9A-F] )+?(24 ([0-9A-F][0-9A-F] )+?)18 (00 |([0-9A-F][0-9A-F]) (0[0-9A-F] )?(([0-9A-F][0-9A-F] )+))";
 
-    public String langSplitter = "BE 03 0[0-9A-F] 0[0-9A-F] 0[0-9A-F] 1E";
-    public String langExtractor = "08 ([0-9A-F][0-9A-F] )+?(24 ([0-9A-F][0-9A-F] )+?)18 (00 |([0-9A-F][0-9A-F]) (0[0-9A-F] )?(([0-9A-F][0-9A-F] )+))";
+    // name/description, blueprint and tradable are matched at the byte level by ParseHelper, and its docs link to these
+    public static final String nameDescExtractor = "[0-9]8 ([0-9A-F][0-9A-F]) (24 ([0-9A-F][0-9A-F] )+)([0-9A-F][0-9A-F] )+?(00 |([0-9A-F][0-9A-F]) (24 ([0-9A-F][0-9A-F] )+))68 00 80";
 
-    public String nameDescExtractor = "[0-9]8 ([0-9A-F][0-9A-F]) (24 ([0-9A-F][0-9A-F] )+)([0-9A-F][0-9A-F] )+?(00 |([0-9A-F][0-9A-F]) (24 ([0-9A-F][0-9A-F] )+))68 00 80";
+    public static final String blueprintExtractor = "1E 4A [0-9A-F][0-9A-F] (?:0[0-9] )?08 ([0-9A-F][0-9A-F]) ((?:[0-9A-F][0-9A-F] )+?)14 [0-9A-F][0-9A-F] [0-9A-F][0-9A-F] [0-9A-F][0-9A-F] [0-9A-F][0-9A-F] 20 0[0-9]";
 
-    public String skinInfoExtractor = "(08 1E 1E 08 BE 03 2E 00 |24 ([0-9A-F][0-9A-F] ){5})08 48 (([0-9A-F][0-9A-F]) (([0-9A-F][0-9A-F] )+))58 (([0-9A-F][0-9A-F]) (([0-9A-F][0-9A-F] )+))68 (([0-9A-F][0-9A-F]) (([0-9A-F][0-9A-F] )*))1E$";
+    public static final String tradableExtractor = "01 0[0-9] 90 01 [0-9A-F][0-9A-F] A0 01 [0-9A-F][0-9A-F] C0 01 0[0-9] D0 01 00 E0 01 (0[02]) F0 01 0[02] 80";
+    public static final String recipeDivider = "08 BE 01 AE 0[0-9A-F] 00";
+    public static final String recipeInputDivider = "(28 00 AE 03 00 01 18 00)";
+    public static final String recipeInputExtract = "([0-6]4 08 [0-9A-F][0-9A-F] )(([0-9A-F][0-9A-F] )+)(10 )(([0-9A-F][0-9A-F] ){1,5})(28 00 AE 03 00 01 18 00)";
+    public static final String recipeOutputSplitter = "(28 00 1E 40 0[0-9] 1E)";
+    public static final String recipeOutputDivider = "([0-6]4 08 )(([0-9A-F][0-9A-F] )+)(28 00 1E 40 0[0-9] 1E)";
+    public static final String recipeOutputObject = "([0-9A-F][0-9A-F] )(([0-9A-F][0-9A-F] )+)(10 )(([0-9A-F][0-9A-F] ){1,4})(28 00 AE)";
+    public static final String recipeOutputCollection = "(00 10 0[0-9] 28 00 AE 03 00 [0-9A-F][0-9A-F] 18 )([0-9A-F][0-9A-F] )(([0-9A-F][0-9A-F] )+)";
+    public static final String recipeOutputClass = "(00 10 00 28 )([0-9A-F][0-9A-F] )(([0-9A-F][0-9A-F] )+)(AE 03 00 01 18 00)";
 
-    public String collIndexCatExtractor = "[0-9A-F]4 (?:0[0-7] )?08 [0-9A-F][0-9A-F] ((?:[0-9A-F][0-9A-F] )+?)18 [0-9A-F][0-9A-F] ((?:[0-9A-F][0-9A-F] )+?)20 0[0-9] BE 03 [0-9A-F]E ([0-9A-F][0-9A-F] (?:[0-9A-F][0-9A-F] )?)?00 ((?:[0-9A-F][0-9A-F] )*?)08 40 0[0-9A-F] 1E";
-    public String collIndexInfoExtractor = "[0-9A-F]4 (?:[0-9A-F][0-9A-F] )?08 [0-9A-F][0-9A-F] ((?:[0-9A-F][0-9A-F] )+?)BE 01 (?:[0-9A-F][0-9A-F] ){4}(00 |[0-9A-F][0-9A-F] ((?:[0-9A-F][0-9A-F] )+?))BE 03 [0-9]8 00 (?:[0-9A-F][0-9A-F] )*?08 1E";
-
-    public String blueprintExtractor = "1E 4A [0-9A-F][0-9A-F] (?:0[0-9] )?08 ([0-9A-F][0-9A-F]) ((?:[0-9A-F][0-9A-F] )+?)14 [0-9A-F][0-9A-F] [0-9A-F][0-9A-F] [0-9A-F][0-9A-F] [0-9A-F][0-9A-F] 20 0[0-9]";
-
-    public String tradableExtractor = "01 0[0-9] 90 01 [0-9A-F][0-9A-F] A0 01 [0-9A-F][0-9A-F] C0 01 0[0-9] D0 01 00 E0 01 (0[02]) F0 01 0[02] 80";
-    public String bpMappingExtractor = "[0-9A-F]4 (?:[0-9A-F][0-9A-F] ){0,2}08 ([0-9A-F][0-9A-F] )((?:[0-9A-F][0-9A-F] )+?)1E 08 ([0-9A-F][0-9A-F] )((?:[0-9A-F][0-9A-F] )+?)18 (00 |([0-9A-F][0-9A-F] )((?:[0-9A-F][0-9A-F] )+?))2[1-9A-E] ((?:[0-9A-F][0-9A-F] )+?)";
-
-    // old, superseded by blueprintExtractor
-    public String bpExtractorOld = "[0-9]8 ([0-9A-F][0-9A-F]) ((?:(?:2[06CF]|3[0-9]|4[0-9A-F]|5[0-9ABDF]|6[1-9A-F]|7[0-9A]) )+?)2E 62 6C 75 65 70 72 69 6E 74";
-    public String bpExtractorOldLowAcc = "[0-9]8 ([0-9A-F][0-9A-F]) ((?:(?:3[0-9]|4[0-9A-F]|5[0-9ABDF]|6[1-9A-F]|7[0-9A]) )+)";
+    public static final String bpMappingExtractor = "[0-9A-F]4 (?:[0-9A-F][0-9A-F] ){0,2}08 ([0-9A-F][0-9A-F] )((?:[0-9A-F][0-9A-F] )+?)1E 08 ([0-9A-F][0-9A-F] )((?:[0-9A-F][0-9A-F] )+?)18 (00 |([0-9A-F][0-9A-F] )((?:[0-9A-F][0-9A-F] )+?))2[1-9A-E] ((?:[0-9A-F][0-9A-F] )+?)";
 }
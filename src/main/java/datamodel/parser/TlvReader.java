@@ -0,0 +1,196 @@
+package datamodel.parser;
+
+/**
+ * Cursor over the tagged fields of a binfab.
+ * <p>
+ * The low nibble of a tag gives the wire type and the high nibble the field number: 08, 18 and 28 are fields 0, 1 and 2
+ * holding a string prefixed by its varint-encoded length, 10, 20 and 30 hold varints, X4 starts a list element, and
+ * BE 0n opens a container that is later closed by 1E. Strings are read by their length rather than by scanning for the
+ * next tag, so navigating a file is linear in its size.
+ * <p>
+ * Reads that do not fit the expected layout return false (or null) and leave the cursor where it was, so callers can
+ * try another layout from the same position.
+ */
+public class TlvReader {
+
+    public static final int VARINT = 0x0;
+    public static final int ELEMENT = 0x4;
+    public static final int STRING = 0x8;
+    public static final int CONTAINER = 0xE;
+
+    private final BinfabBuffer buffer;
+    private int position;
+
+    public TlvReader(BinfabBuffer buffer) {
+        this(buffer, 0);
+    }
+
+    public TlvReader(BinfabBuffer buffer, int position) {
+        this.buffer = buffer;
+        this.position = position;
+    }
+
+    public static int wireType(int tag) {
+        return tag & 0x0F;
+    }
+
+    public static int fieldNumber(int tag) {
+        return tag >>> 4;
+    }
+
+    public BinfabBuffer getBuffer() {
+        return buffer;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public void position(int position) {
+        this.position = position;
+    }
+
+    public int remaining() {
+        return buffer.length() - position;
+    }
+
+    public boolean hasRemaining() {
+        return position < buffer.length();
+    }
+
+    /**
+     * @return the unsigned byte at the cursor, or -1 at the end of the buffer
+     */
+    public int peek() {
+        return peek(0);
+    }
+
+    /**
+     * @return the unsigned byte the given number of bytes ahead of the cursor, or -1 if that is outside the buffer
+     */
+    public int peek(int ahead) {
+        int pos = position + ahead;
+        return pos >= 0 && pos < buffer.length() ? buffer.byteAt(pos) : -1;
+    }
+
+    public void skip(int count) {
+        position += count;
+    }
+
+    /**
+     * Consumes the given bytes if the cursor is at them.
+     */
+    public boolean accept(int... bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (peek(i) != bytes[i]) return false;
+        }
+        position += bytes.length;
+        return true;
+    }
+
+    /**
+     * Consumes a tag of the given wire type, whatever its field number.
+     */
+    public boolean acceptType(int wireType) {
+        int tag = peek();
+        if (tag == -1 || wireType(tag) != wireType) return false;
+        position++;
+        return true;
+    }
+
+    /**
+     * Reads a varint, or returns -1 without moving if it runs past the end of the buffer.
+     */
+    public int readVarint() {
+        int length = 0;
+        while (peek(length) != -1 && (peek(length) & 0x80) != 0 && length < 4) length++;
+        if (peek(length) == -1) return -1;
+        int value = buffer.varintAt(position);
+        position += length + 1;
+        return value;
+    }
+
+    /**
+     * Reads a length-prefixed string, or returns null without moving if it runs past the end of the buffer.
+     *
+     * @return the string, which is empty if its length is 0
+     */
+    public String readString() {
+        int start = position;
+        int length = readVarint();
+        if (length == -1 || length > remaining()) {
+            position = start;
+            return null;
+        }
+        String value = buffer.stringAt(position, length);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Reads a string field with the given tag.
+     *
+     * @return the string, or null without moving if the cursor is not at such a field
+     */
+    public String readString(int tag) {
+        int start = position;
+        if (!accept(tag)) return null;
+        String value = readString();
+        if (value == null) position = start;
+        return value;
+    }
+
+    /**
+     * Skips a length-prefixed string without decoding it, so that the rest of a layout can be checked before any of its
+     * strings are decoded; the string can be decoded afterwards with {@link #stringAt}.
+     *
+     * @return the length of the string, or -1 without moving if it runs past the end of the buffer
+     */
+    public int skipString() {
+        int start = position;
+        int length = readVarint();
+        if (length == -1 || length > remaining()) {
+            position = start;
+            return -1;
+        }
+        position += length;
+        return length;
+    }
+
+    /**
+     * Skips a string field with the given tag without decoding it; its string starts right after the tag.
+     *
+     * @return the length of the string, or -1 without moving if the cursor is not at such a field
+     */
+    public int skipString(int tag) {
+        int start = position;
+        if (!accept(tag)) return -1;
+        int length = skipString();
+        if (length == -1) position = start;
+        return length;
+    }
+
+    /**
+     * Decodes the length-prefixed string at the given position, which was skipped with {@link #skipString}, leaving the
+     * cursor where it is.
+     */
+    public String stringAt(int stringPosition) {
+        int start = position;
+        position = stringPosition;
+        String value = readString();
+        position = start;
+        return value;
+    }
+
+    /**
+     * Moves the cursor to the next occurrence of the given bytes.
+     *
+     * @return false, without moving, if they do not occur after the cursor
+     */
+    public boolean skipTo(byte[] marker) {
+        int index = buffer.indexOf(marker, position);
+        if (index == -1) return false;
+        position = index;
+        return true;
+    }
+}
@@ -12,20 +12,19 @@ public class ParseBench implements ParseStrategy {
     @Override
     public Article parseObject(String splitString, String absPath, boolean useRPath) throws ParseException {
         try {
-            Markers m = new Markers();
             List<List<String>> categoryList = new ArrayList<>();
             ParseHelper helper = new ParseHelper();
 
             String rPath = useRPath ? Parser.extractRPath(absPath).replace("_interactive", "") : absPath.replace("\\", "/").replace("_interactive", "");
 
             // first identify the number of categories; $prefabs show up at least twice for 0 categories; +1 for each additional
-            String temp = splitString.replace(m.prefab, "");
-            int occ = (splitString.length() - temp.length()) / m.prefab.length();
+            String temp = splitString.replace(Markers.prefab, "");
+            int occ = (splitString.length() - temp.length()) / Markers.prefab.length();
 
             // only 1 category
             if (occ == 2) {
-                int rangeStart = splitString.indexOf(m.prefab) + 24;
-                int rangeEnd = splitString.substring(rangeStart).indexOf(m.prefab) + rangeStart;
+                int rangeStart = splitString.indexOf(Markers.prefab) + 24;
+                int rangeEnd = splitString.substring(rangeStart).indexOf(Markers.prefab) + rangeStart;
 
                 String substring = splitString.substring(rangeStart, rangeEnd);
                 String dirtyStationName = splitString.substring(rangeEnd);
@@ -41,22 +40,22 @@ public class ParseBench implements ParseStrategy {
                     System.out.println("No crafting station name was found for " + rPath + ".");
                 }
 
-                categoryList.add(helper.parseHelper(substring, rPath, m.prefab));
+                categoryList.add(helper.parseHelper(substring, rPath, Markers.prefab));
 
             }
 
             // more than 1 category
             else if (occ > 2) {
-                String[] substrings = splitString.split(m.prefab);
+                String[] substrings = splitString.split(Markers.prefab);
                 String dirtyStationName = substrings[substrings.length - 1];
                 if (dirtyStationName.contains("20")) {
-                    String stationName = m.prefab + dirtyStationName.substring(0, dirtyStationName.indexOf("20"));
+                    String stationName = Markers.prefab + dirtyStationName.substring(0, dirtyStationName.indexOf("20"));
                     categoryList.add(Collections.singletonList(Parser.hexToAscii(stationName)));
                 } else {
                     System.out.println("No crafting station name was found for " + rPath + ".");
                 }
                 for (int i = 1; i < substrings.length - 1; i++) {
-                    categoryList.add(helper.parseHelper(substrings[i], rPath, m.prefab));
+                    categoryList.add(helper.parseHelper(substrings[i], rPath, Markers.prefab));
                 }
             }
 
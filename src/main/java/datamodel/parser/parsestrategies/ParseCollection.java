@@ -3,21 +3,38 @@ package datamodel.parser.parsestrategies;
 import datamodel.Enums;
 import datamodel.objects.Article;
 import datamodel.objects.Collection;
+import datamodel.parser.BinfabBuffer;
+import datamodel.parser.MarkerMatcher;
 import datamodel.parser.Markers;
 import datamodel.parser.Parser;
-import datamodel.parser.Regexes;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import com.google.re2j.Matcher;
-import com.google.re2j.Pattern;
 
 public class ParseCollection implements ParseStrategy {
 
+    // every marker looked up below, located in one pass over the file
+    private static final MarkerMatcher MARKERS = new MarkerMatcher(
+            Markers.groundSpeed, Markers.airSpeed, Markers.airSpeedA, Markers.glide, Markers.mag, Markers.waterSpeed,
+            Markers.turnRate, Markers.powerRank, Markers.maxHealth, Markers.maxHealth2, Markers.hpRegen, Markers.hpRegen2,
+            Markers.magicDamage, Markers.magicDamage2, Markers.magicDamage3, Markers.physDamage, Markers.physDamage2,
+            Markers.critDamage, Markers.critDamage2, Markers.critHit, Markers.critHit2, Markers.maxEnergy,
+            Markers.energyRegen, Markers.light, Markers.jump, Markers.laser, Markers.attackSpeed, Markers.magicFind,
+            Markers.magicFind2);
+
+    private static final byte[] STAT_START = {0x24};
+    private static final byte[] PERCENT = BinfabBuffer.toBytes(Markers.percent);
+    private static final int TURN_RATE_LENGTH = BinfabBuffer.toBytes(Markers.turnRate).length;
+
     @Override
     public Article parseObject(String splitString, String absPath, boolean useRPath) throws ParseException {
+        return parseObject(BinfabBuffer.fromSplitString(splitString), absPath, useRPath);
+    }
+
+    @Override
+    public Article parseObject(BinfabBuffer buffer, String absPath, boolean useRPath) throws ParseException {
         try {
             // obtain relative path
             String rPath = useRPath ? Parser.extractRPath(absPath) : absPath.replace("\\", "/");
@@ -33,99 +50,82 @@ public class ParseCollection implements ParseStrategy {
                 throw new ParseException(rPath + " is an explosion or a projectile, and thus not a collection.");
             }
 
-            // instantiate markers
-            Markers m = new Markers();
-            Regexes r = new Regexes();
-
             // instantiate variables
-            String name, desc;
+            ParseHelper helper = new ParseHelper();
             List<Enums.Type> types = new ArrayList<>();
             Map<Enums.Property, Double> properties = new HashMap<>(10);
 
             // identify name and desc paths
-            Pattern ndp = Pattern.compile(r.nameDescExtractor);
-            Pattern bp = Pattern.compile(r.blueprintExtractor);
-
-            int ndEnd = splitString.indexOf("68 00 80");
+            int ndEnd = buffer.indexOf(ParseHelper.ND_END);
             if (ndEnd == -1) {
                 throw new ParseException(rPath + " did not have an end marker.");
             }
 
-            Matcher ndm = ndp.matcher(splitString.substring(0, ndEnd + 8));
-            if (!ndm.find()) {
-                throw new ParseException(rPath + " did not match the pattern for name and description; does it satisfy the assumptions?");
-            }
-            int nLen = Integer.parseInt(ndm.group(1), 16);
-            name = Parser.hexToAscii(ndm.group(2).length() <= 3 * nLen ? ndm.group(2) : ndm.group(2).substring(0, 3 * nLen));
-
-            if (ndm.group(5).equals("00 ")) {
-                desc = null;
-            } else {
-                int dLen = Integer.parseInt(ndm.group(6), 16);
-                desc = Parser.hexToAscii(ndm.group(7).length() <= 3 * dLen ? ndm.group(7) : ndm.group(7).substring(0, 3 * dLen));
-            }
+            String[] nameDesc = helper.parseNameDesc(buffer, ndEnd, rPath);
+            String name = nameDesc[0];
+            String desc = nameDesc[1];
 
             // blueprint extraction
-            String blueprint = null;
-
-            Matcher bm = bp.matcher(splitString);
-            if (bm.find()) {
-                blueprint = Parser.hexToAscii(bm.group(2)).replace(".blueprint", "");
-            }
+            String blueprint = helper.parseBlueprint(buffer);
 
             // identify abilities/properties
+            MarkerMatcher.Offsets offsets = MARKERS.scan(buffer);
 
             // mount
-            if (splitString.contains(m.groundSpeed)) {
-                int indexG = splitString.indexOf(m.groundSpeed);
-                properties.put(Enums.Property.GROUND_MS, Parser.collectionH2D(splitString.substring(indexG - 6, indexG - 1)));
+            if (offsets.contains(Markers.groundSpeed)) {
+                properties.put(Enums.Property.GROUND_MS, valueBefore(buffer, offsets.indexOf(Markers.groundSpeed)));
                 types.add(Enums.Type.MOUNT);
             }
 
             // wings
-            if (splitString.contains(m.airSpeed) || splitString.contains(m.airSpeedA)) {
-                int indexA = splitString.contains(m.airSpeed) ? splitString.indexOf(m.airSpeed) : splitString.indexOf(m.airSpeedA);
-                int indexGlide = splitString.indexOf(m.glide);
+            if (offsets.contains(Markers.airSpeed) || offsets.contains(Markers.airSpeedA)) {
+                int indexA = offsets.contains(Markers.airSpeed) ? offsets.indexOf(Markers.airSpeed) : offsets.indexOf(Markers.airSpeedA);
+                int indexGlide = offsets.indexOf(Markers.glide);
 
-                if (indexA != -1 && indexGlide != -1) {
-                    properties.put(Enums.Property.AIR_MS, Parser.collectionH2D(splitString.substring(indexA - 6, indexA - 1)));
+                if (indexGlide != -1) {
+                    properties.put(Enums.Property.AIR_MS, valueBefore(buffer, indexA));
                     types.add(Enums.Type.WINGS);
 
-                    properties.put(Enums.Property.GLIDE, Parser.collectionH2D(splitString.substring(indexGlide - 6, indexGlide - 1)));
+                    properties.put(Enums.Property.GLIDE, valueBefore(buffer, indexGlide));
                 } else {
                     throw new ParseException(rPath + ": incomplete wings property identified.");
                 }
             }
 
             // mag rider
-            if (splitString.contains(m.mag)) {
-                int indexM = splitString.indexOf(m.mag);
-                properties.put(Enums.Property.MAG_MS, Parser.collectionH2D(splitString.substring(indexM + 3, indexM + 9)));
+            if (offsets.contains(Markers.mag)) {
+                int indexM = offsets.indexOf(Markers.mag);
+                properties.put(Enums.Property.MAG_MS, Parser.collectionH2D(buffer.byteAt(indexM + 1), buffer.byteAt(indexM + 2)));
                 types.add(Enums.Type.MAG);
             }
 
             // boat
-            if (splitString.contains(m.waterSpeed)) {
+            if (offsets.contains(Markers.waterSpeed)) {
                 types.add(Enums.Type.BOAT);
 
-                int indexW = splitString.indexOf(m.waterSpeed);
-                properties.put(Enums.Property.WATER_MS, Parser.collectionH2D(splitString.substring(indexW - 6, indexW - 1)));
+                properties.put(Enums.Property.WATER_MS, valueBefore(buffer, offsets.indexOf(Markers.waterSpeed)));
 
-                int indexT = splitString.indexOf(m.turnRate);
-                properties.put(Enums.Property.TURN_RATE, Parser.collectionH2D(splitString.substring(indexT - 6, indexT - 1)));
+                int indexT = offsets.indexOf(Markers.turnRate);
+                if (indexT == -1) {
+                    throw new ParseException(rPath + ": incomplete boat property identified.");
+                }
+                properties.put(Enums.Property.TURN_RATE, valueBefore(buffer, indexT));
 
-                int indexAc = splitString.indexOf("24", indexT + m.turnRate.length());
-                properties.put(Enums.Property.ACCEL, Parser.collectionH2D(splitString.substring(indexAc + 9, indexAc + 15)));
+                int indexAc = buffer.indexOf(STAT_START, indexT + TURN_RATE_LENGTH);
+                if (indexAc == -1) {
+                    throw new ParseException(rPath + ": incomplete boat property identified.");
+                }
+                properties.put(Enums.Property.ACCEL, Parser.collectionH2D(buffer.byteAt(indexAc + 3), buffer.byteAt(indexAc + 4)));
             }
 
             // dragon
-            Map<Enums.Buff, Double> dragonBuffs = parseBuffs(splitString, m);
+            Map<Enums.Buff, Double> dragonBuffs = parseBuffs(buffer, offsets);
             if (!dragonBuffs.isEmpty() && types.contains(Enums.Type.MOUNT)) {
                 types.add(Enums.Type.DRAGON);
             }
 
             // power rank
-            if (splitString.contains(m.powerRank)) {
+            if (offsets.contains(Markers.powerRank)) {
                 dragonBuffs.put(Enums.Buff.PR, 30.0);
             }
 
@@ -135,110 +135,113 @@ public class ParseCollection implements ParseStrategy {
         }
     }
 
+    /**
+     * Decodes the two bytes directly preceding a property marker.
+     */
+    private double valueBefore(BinfabBuffer buffer, int index) {
+        return Parser.collectionH2D(buffer.byteAt(index - 2), buffer.byteAt(index - 1));
+    }
 
-    private Map<Enums.Buff, Double> parseBuffs(String splitString, Markers m) {
+    private Map<Enums.Buff, Double> parseBuffs(BinfabBuffer buffer, MarkerMatcher.Offsets offsets) throws ParseException {
 
         Map<Enums.Buff, Double> buffs = new HashMap<>(10);
 
         // identify max health
-        if (splitString.contains(m.maxHealth)) {
-            statExtract(splitString, m, buffs, m.maxHealth, true, Enums.Buff.MH_PCT, Enums.Buff.MH);
+        if (offsets.contains(Markers.maxHealth)) {
+            statExtract(buffer, offsets, buffs, Markers.maxHealth, true, Enums.Buff.MH_PCT, Enums.Buff.MH);
 
-            if (splitString.contains(m.maxHealth2)) {
-                statExtract(splitString, m, buffs, m.maxHealth2, true, Enums.Buff.MH_PCT, Enums.Buff.MH);
+            if (offsets.contains(Markers.maxHealth2)) {
+                statExtract(buffer, offsets, buffs, Markers.maxHealth2, true, Enums.Buff.MH_PCT, Enums.Buff.MH);
             }
 
         }
 
         // identify hp regen
-        if (splitString.contains(m.hpRegen)) {
-            statExtract(splitString, m, buffs, m.hpRegen, true, Enums.Buff.HR_PCT, Enums.Buff.HR);
-        } else if (splitString.contains(m.hpRegen2)) {
-            statExtract(splitString, m, buffs, m.hpRegen2, true, Enums.Buff.HR_PCT, Enums.Buff.HR);
+        if (offsets.contains(Markers.hpRegen)) {
+            statExtract(buffer, offsets, buffs, Markers.hpRegen, true, Enums.Buff.HR_PCT, Enums.Buff.HR);
+        } else if (offsets.contains(Markers.hpRegen2)) {
+            statExtract(buffer, offsets, buffs, Markers.hpRegen2, true, Enums.Buff.HR_PCT, Enums.Buff.HR);
         }
 
         // identify magic damage
-        if (splitString.contains(m.magicDamage)) {
-            statExtract(splitString, m, buffs, m.magicDamage, false, Enums.Buff.MD, null);
-        } else if (splitString.contains(m.magicDamage2)) {
-            statExtract(splitString, m, buffs, m.magicDamage2, false, Enums.Buff.MD, null);
-        } else if (splitString.contains(m.magicDamage3)) {
-            statExtract(splitString, m, buffs, m.magicDamage3, false, Enums.Buff.MD, null);
+        if (offsets.contains(Markers.magicDamage)) {
+            statExtract(buffer, offsets, buffs, Markers.magicDamage, false, Enums.Buff.MD, null);
+        } else if (offsets.contains(Markers.magicDamage2)) {
+            statExtract(buffer, offsets, buffs, Markers.magicDamage2, false, Enums.Buff.MD, null);
+        } else if (offsets.contains(Markers.magicDamage3)) {
+            statExtract(buffer, offsets, buffs, Markers.magicDamage3, false, Enums.Buff.MD, null);
         }
 
         // identify physical damage
-        if (splitString.contains(m.physDamage)) {
-            statExtract(splitString, m, buffs, m.physDamage, false, Enums.Buff.PD, null);
-        } else if (splitString.contains(m.physDamage2)) {
-            statExtract(splitString, m, buffs, m.physDamage2, false, Enums.Buff.PD, null);
+        if (offsets.contains(Markers.physDamage)) {
+            statExtract(buffer, offsets, buffs, Markers.physDamage, false, Enums.Buff.PD, null);
+        } else if (offsets.contains(Markers.physDamage2)) {
+            statExtract(buffer, offsets, buffs, Markers.physDamage2, false, Enums.Buff.PD, null);
         }
 
         // identify crit damage
-        if (splitString.contains(m.critDamage)) {
-            statExtract(splitString, m, buffs, m.critDamage, false, Enums.Buff.CD, null);
-        } else if (splitString.contains(m.critDamage2)) {
-            statExtract(splitString, m, buffs, m.critDamage2, false, Enums.Buff.CD, null);
+        if (offsets.contains(Markers.critDamage)) {
+            statExtract(buffer, offsets, buffs, Markers.critDamage, false, Enums.Buff.CD, null);
+        } else if (offsets.contains(Markers.critDamage2)) {
+            statExtract(buffer, offsets, buffs, Markers.critDamage2, false, Enums.Buff.CD, null);
         }
 
         // identify crit hit chance
-        if (splitString.contains(m.critHit)) {
-            statExtract(splitString, m, buffs, m.critHit, false, Enums.Buff.CH, null);
-        } else if (splitString.contains(m.critHit2)) {
-            statExtract(splitString, m, buffs, m.critHit2, false, Enums.Buff.CH, null);
+        if (offsets.contains(Markers.critHit)) {
+            statExtract(buffer, offsets, buffs, Markers.critHit, false, Enums.Buff.CH, null);
+        } else if (offsets.contains(Markers.critHit2)) {
+            statExtract(buffer, offsets, buffs, Markers.critHit2, false, Enums.Buff.CH, null);
         }
 
         // identify max energy
-        if (splitString.contains(m.maxEnergy)) {
-            statExtract(splitString, m, buffs, m.maxEnergy, false, Enums.Buff.EN, null);
+        if (offsets.contains(Markers.maxEnergy)) {
+            statExtract(buffer, offsets, buffs, Markers.maxEnergy, false, Enums.Buff.EN, null);
         }
 
         // identify energy regen
-        if (splitString.contains(m.energyRegen)) {
-            statExtract(splitString, m, buffs, m.energyRegen, true, Enums.Buff.ER_PCT, Enums.Buff.ER);
+        if (offsets.contains(Markers.energyRegen)) {
+            statExtract(buffer, offsets, buffs, Markers.energyRegen, true, Enums.Buff.ER_PCT, Enums.Buff.ER);
         }
 
         // identify misc stats
-        if (splitString.contains(m.light)) {
-            statExtract(splitString, m, buffs, m.light, false, Enums.Buff.LT, null);
+        if (offsets.contains(Markers.light)) {
+            statExtract(buffer, offsets, buffs, Markers.light, false, Enums.Buff.LT, null);
         }
 
-        if (splitString.contains(m.jump)) {
-            statExtract(splitString, m, buffs, m.jump, false, Enums.Buff.JP, null);
+        if (offsets.contains(Markers.jump)) {
+            statExtract(buffer, offsets, buffs, Markers.jump, false, Enums.Buff.JP, null);
         }
 
-        if (splitString.contains(m.laser)) {
-            statExtract(splitString, m, buffs, m.laser, false, Enums.Buff.LS, null);
+        if (offsets.contains(Markers.laser)) {
+            statExtract(buffer, offsets, buffs, Markers.laser, false, Enums.Buff.LS, null);
         }
 
-        if (splitString.contains(m.attackSpeed)) {
-            statExtract(splitString, m, buffs, m.attackSpeed, false, Enums.Buff.AS, null);
+        if (offsets.contains(Markers.attackSpeed)) {
+            statExtract(buffer, offsets, buffs, Markers.attackSpeed, false, Enums.Buff.AS, null);
         }
 
-        if (splitString.contains(m.magicFind)) {
-            statExtract(splitString, m, buffs, m.magicFind, false, Enums.Buff.MF, null);
-        } else if (splitString.contains(m.magicFind2)) {
-            statExtract(splitString, m, buffs, m.magicFind2, false, Enums.Buff.MF, null);
+        if (offsets.contains(Markers.magicFind)) {
+            statExtract(buffer, offsets, buffs, Markers.magicFind, false, Enums.Buff.MF, null);
+        } else if (offsets.contains(Markers.magicFind2)) {
+            statExtract(buffer, offsets, buffs, Markers.magicFind2, false, Enums.Buff.MF, null);
         }
 
         return buffs;
     }
 
-    private void statExtract(String splitString, Markers m, Map<Enums.Buff, Double> buffs, String type, boolean options, Enums.Buff stat1, Enums.Buff stat2) {
+    private void statExtract(BinfabBuffer buffer, MarkerMatcher.Offsets offsets, Map<Enums.Buff, Double> buffs, String type, boolean options, Enums.Buff stat1, Enums.Buff stat2) throws ParseException {
 
-        int indexProp = splitString.indexOf(type) - 12;
-
-        int index = splitString.lastIndexOf("24", indexProp);
-
-        String stat = splitString.substring(index + 3, index + 14);   // excludes the trailing whitespace
+        int index = buffer.lastIndexOf(STAT_START, offsets.indexOf(type) - 4);
+        if (index == -1) {
+            throw new ParseException("No value was found for stat " + stat1 + ".");
+        }
 
-        if (options) {
-            if (stat.substring(0, 5).equals(m.percent)) {
-                buffs.put(stat1, Parser.collectionH2D(stat.substring(6)));
-            } else {
-                buffs.put(stat2, Parser.collectionH2D(stat.substring(6)));
-            }
+        // the value is the 4 bytes after the 24, of which the first 2 flag a percentage
+        double value = Parser.collectionH2D(buffer.byteAt(index + 3), buffer.byteAt(index + 4));
+        if (options && !buffer.matchesAt(PERCENT, index + 1)) {
+            buffs.put(stat2, value);
         } else {
-            buffs.put(stat1, Parser.collectionH2D(stat.substring(6)));
+            buffs.put(stat1, value);
         }
 
     }
@@ -1,52 +1,178 @@
 package datamodel.parser.parsestrategies;
 
-import com.google.re2j.Matcher;
-import com.google.re2j.Pattern;
 import datamodel.objects.Article;
 import datamodel.objects.CollectionIndex;
+import datamodel.parser.BinfabBuffer;
 import datamodel.parser.Parser;
-import datamodel.parser.Regexes;
+import datamodel.parser.TlvReader;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 public class ParseCollectionIndex implements ParseStrategy {
+
+    private static final byte[] ENTRY_END = {0x08, 0x1E};
+
     @Override
     public Article parseObject(String splitString, String absPath, boolean useRPath) throws ParseException {
-        try {
-            Regexes r = new Regexes();
+        return parseObject(BinfabBuffer.fromSplitString(splitString), absPath, useRPath);
+    }
 
+    @Override
+    public Article parseObject(BinfabBuffer buffer, String absPath, boolean useRPath) throws ParseException {
+        try {
             String rPath = useRPath ? Parser.extractRPath(absPath) : absPath.replace("\\", "/");
             if (!rPath.contains("collection_")) throw new ParseException(rPath + ": cannot extract collection type.");
             String type = rPath.substring(rPath.lastIndexOf("/") + 1).replace("collection_", "");
 
-            Matcher cm = Pattern.compile(r.collIndexCatExtractor).matcher(splitString);
-            Matcher im = Pattern.compile(r.collIndexInfoExtractor).matcher("");
-
-            Map<String, String> categories = new HashMap<>();
             Map<String, String> names = new HashMap<>();
             Map<String, Map<String, String>> entries = new HashMap<>();
 
-            while (cm.find()) {
-                String key = Parser.hexToAscii(cm.group(1));
-                names.put(key, Parser.hexToAscii(cm.group(2)));
-                categories.put(key, cm.group(4));
-            }
-
-            categories.forEach((k, v) -> {
-                Map<String, String> categoryEntries = new HashMap<>();
-                im.reset(v);
-                while (im.find()) {
-                    String val = im.group(2).equals("00 ") ? null : Parser.hexToAscii(im.group(3));
-                    if (val != null && val.contains("CollectableTag")) val = val.substring(0, val.length() - 3);
-                    categoryEntries.put(Parser.hexToAscii(im.group(1)), val);
+            // categories can start anywhere; positions that do not hold one are skipped a byte at a time. A failed
+            // attempt only reads a few bytes, as strings are decoded once the layout around them is known to fit and
+            // the ends of categories and entries are looked up rather than searched for again at every position.
+            TlvReader r = new TlvReader(buffer);
+            Ends ends = new Ends(buffer);
+            for (int start = 0; start < buffer.length(); ) {
+                r.position(start);
+                if (readCategory(r, ends, names, entries)) {
+                    start = r.position();
+                } else {
+                    start++;
                 }
-                entries.put(k, categoryEntries);
-            });
+            }
 
             return new CollectionIndex(rPath, type, names, entries);
         } catch (Exception e) {
             throw new ParseException(e.getMessage());
         }
     }
+
+    /**
+     * Reads a category: X4 [0n] 08 key 18 name 20 0n BE 03 XE [1-2 bytes] 00, its entries, then 08 40 0n 1E.
+     */
+    private boolean readCategory(TlvReader r, Ends ends, Map<String, String> names, Map<String, Map<String, String>> entries) {
+        if (!r.acceptType(TlvReader.ELEMENT)) return false;
+        if (r.peek() >= 0x00 && r.peek() <= 0x07) r.skip(1);
+        int keyAt = r.position() + 1;
+        if (r.skipString(0x08) <= 0) return false;
+        int nameAt = r.position() + 1;
+        if (r.skipString(0x18) <= 0 || !r.accept(0x20) || r.peek() < 0x00 || r.peek() > 0x09) return false;
+        r.skip(1);
+        if (!r.accept(0xBE, 0x03) || !r.acceptType(TlvReader.CONTAINER)) return false;
+
+        // up to two bytes of unknown purpose precede the 00 that opens the list of entries
+        if (r.peek(2) == 0x00) r.skip(3);
+        else if (r.peek(1) == 0x00) r.skip(2);
+        else if (r.peek() == 0x00) r.skip(1);
+        else return false;
+
+        // the entries end at the first 08 40 0n 1E
+        int bodyStart = r.position();
+        int bodyEnd = ends.nextCategoryEnd(bodyStart);
+        if (bodyEnd == -1) return false;
+
+        Map<String, String> categoryEntries = new HashMap<>();
+        for (int start = bodyStart; start < bodyEnd; ) {
+            r.position(start);
+            if (readEntry(r, ends, bodyEnd, categoryEntries)) {
+                start = r.position();
+            } else {
+                start++;
+            }
+        }
+
+        String key = r.stringAt(keyAt);
+        names.put(key, r.stringAt(nameAt));
+        entries.put(key, categoryEntries);
+        r.position(bodyEnd + 4);
+        return true;
+    }
+
+    /**
+     * Reads an entry ending before limit: X4 [XX] 08 key BE 01 XX XX XX XX value BE 03 X8 00 ... 08 1E.
+     */
+    private boolean readEntry(TlvReader r, Ends ends, int limit, Map<String, String> categoryEntries) {
+        if (!r.acceptType(TlvReader.ELEMENT)) return false;
+        int afterTag = r.position();
+
+        // the byte after the element tag is optional, so 08 could be either that byte or the key tag
+        if (r.peek(1) == 0x08) {
+            r.skip(1);
+            if (readEntryFields(r, ends, limit, categoryEntries)) return true;
+            r.position(afterTag);
+        }
+        return readEntryFields(r, ends, limit, categoryEntries);
+    }
+
+    private boolean readEntryFields(TlvReader r, Ends ends, int limit, Map<String, String> categoryEntries) {
+        int keyAt = r.position() + 1;
+        if (r.skipString(0x08) <= 0 || !r.accept(0xBE, 0x01)) return false;
+        r.skip(4);
+        int valAt = r.position();
+        if (r.skipString() == -1 || !r.accept(0xBE, 0x03) || (r.peek() & 0x0F) != 0x08 || r.peek() > 0x98) return false;
+        r.skip(1);
+        if (!r.accept(0x00) || r.position() > limit) return false;
+
+        // whatever follows is skipped up to the next 08 1E
+        int end = ends.nextEntryEnd(r.position(), limit);
+        if (end == -1) return false;
+        r.position(end + ENTRY_END.length);
+
+        String val = r.stringAt(valAt);
+        if (val.isEmpty()) val = null;
+        if (val != null && val.contains("CollectableTag")) val = val.substring(0, val.length() - 3);
+        categoryEntries.put(r.stringAt(keyAt), val);
+        return true;
+    }
+
+    /**
+     * Where the categories and entries of a file may end, found in one pass over it, so that looking up the end that
+     * follows a position does not read the file again.
+     */
+    private static class Ends {
+        private final int[] categoryEnds;
+        private final int[] entryEnds;
+
+        private Ends(BinfabBuffer b) {
+            int[] categories = new int[16];
+            int[] entries = new int[16];
+            int categoryCount = 0;
+            int entryCount = 0;
+            for (int i = 0; i + 1 < b.length(); i++) {
+                if (b.byteAt(i) != 0x08) continue;
+                if (b.byteAt(i + 1) == 0x1E) {
+                    if (entryCount == entries.length) entries = Arrays.copyOf(entries, entryCount * 2);
+                    entries[entryCount++] = i;
+                } else if (b.byteAt(i + 1) == 0x40 && i + 3 < b.length() && b.byteAt(i + 2) <= 0x0F && b.byteAt(i + 3) == 0x1E) {
+                    if (categoryCount == categories.length) categories = Arrays.copyOf(categories, categoryCount * 2);
+                    categories[categoryCount++] = i;
+                }
+            }
+            this.categoryEnds = Arrays.copyOf(categories, categoryCount);
+            this.entryEnds = Arrays.copyOf(entries, entryCount);
+        }
+
+        /**
+         * @return the position of the first 08 40 0n 1E at or after from, or -1 if there is none
+         */
+        private int nextCategoryEnd(int from) {
+            return next(categoryEnds, from);
+        }
+
+        /**
+         * @return the position of the first 08 1E lying entirely within [from, to), or -1 if there is none
+         */
+        private int nextEntryEnd(int from, int to) {
+            int end = next(entryEnds, from);
+            return end != -1 && end + ENTRY_END.length <= to ? end : -1;
+        }
+
+        private static int next(int[] positions, int from) {
+            int i = Arrays.binarySearch(positions, from);
+            if (i < 0) i = -i - 1;
+            return i < positions.length ? positions[i] : -1;
+        }
+    }
 }
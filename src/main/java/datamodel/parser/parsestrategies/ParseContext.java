@@ -1,6 +1,7 @@
 package datamodel.parser.parsestrategies;
 
 import datamodel.objects.Article;
+import datamodel.parser.BinfabBuffer;
 
 public class ParseContext {
     private final ParseStrategy strategy;
@@ -12,4 +13,8 @@ public class ParseContext {
     public Article parse(String splitString, String absPath, boolean useRPath) throws ParseException {
         return strategy.parseObject(splitString, absPath, useRPath);
     }
+
+    public Article parse(BinfabBuffer buffer, String absPath, boolean useRPath) throws ParseException {
+        return strategy.parseObject(buffer, absPath, useRPath);
+    }
 }
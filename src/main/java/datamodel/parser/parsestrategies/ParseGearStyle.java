@@ -1,48 +1,39 @@
 package datamodel.parser.parsestrategies;
 
-import com.google.re2j.Matcher;
-import com.google.re2j.Pattern;
 import datamodel.objects.Article;
 import datamodel.objects.GearStyleEntry;
 import datamodel.objects.GearStyleType;
+import datamodel.parser.BinfabBuffer;
 import datamodel.parser.Parser;
-import datamodel.parser.Regexes;
+import datamodel.parser.TlvReader;
 
 import java.util.HashMap;
 import java.util.Map;
 
 public class ParseGearStyle implements ParseStrategy {
+
     @Override
     public Article parseObject(String splitString, String absPath, boolean useRPath) throws ParseException {
-        try {
-            Regexes r = new Regexes();
+        return parseObject(BinfabBuffer.fromSplitString(splitString), absPath, useRPath);
+    }
 
+    @Override
+    public Article parseObject(BinfabBuffer buffer, String absPath, boolean useRPath) throws ParseException {
+        try {
             String rPath = useRPath ? Parser.extractRPath(absPath) : absPath.replace("\\", "/");
             String type = rPath.substring(rPath.lastIndexOf("/") + 1).replace("weapon_", "");
 
-            Matcher cm = Pattern.compile(r.gearStyleCatExtractor).matcher(splitString);
-            Matcher em = Pattern.compile(r.gearStyleInfoExtractor).matcher("");
-
-            Map<String, String> categories = new HashMap<>();
             Map<String, Map<String, GearStyleEntry>> styles = new HashMap<>();
 
-            while (cm.find()) {
-                categories.put(Parser.hexToAscii(cm.group(1)), cm.group(3));
+            // categories can start anywhere; positions that do not hold one are skipped, a byte at a time or past the
+            // styles a failed attempt read, so that no style is read by more than one attempt
+            TlvReader r = new TlvReader(buffer);
+            for (int start = 0; start < buffer.length(); ) {
+                r.position(start);
+                readCategory(r, styles);
+                start = r.position();
             }
 
-            categories.forEach((k, v) -> {
-                em.reset(v);
-                Map<String, GearStyleEntry> currStyles = new HashMap<>();
-                while (em.find()) {
-                    String blueprint = Parser.hexToAscii(em.group(1));
-                    String name = em.group(2).equals("00 ") ? null : Parser.hexToAscii(em.group(3));
-                    String desc = em.group(4).equals("00 ") ? null : Parser.hexToAscii(em.group(5));
-                    String info = em.group(6).equals("00 ") ? null : Parser.hexToAscii(em.group(7));
-                    currStyles.put(blueprint, new GearStyleEntry(name, desc, blueprint, info));
-                }
-                styles.put(k, currStyles);
-            });
-
             if (styles.isEmpty()) {
                 throw new ParseException(rPath + ": no styles extracted. This is an issue if the files used are correct.");
             }
@@ -52,4 +43,99 @@ public class ParseGearStyle implements ParseStrategy {
             throw new ParseException(e.getMessage());
         }
     }
+
+    /**
+     * Reads a category: X4 [0n] 08 name BE 01 XE [1-2 bytes] 00, its styles, then 08 1E.
+     * <p>
+     * Either way, the cursor is left where the next category can start: past the category, or past the styles read
+     * before one could not be, as those bytes hold styles rather than the start of a category.
+     */
+    private boolean readCategory(TlvReader r, Map<String, Map<String, GearStyleEntry>> styles) {
+        int start = r.position();
+        int resume = start + 1;
+        if (!r.acceptType(TlvReader.ELEMENT)) {
+            r.position(resume);
+            return false;
+        }
+        if (r.peek() >= 0x00 && r.peek() <= 0x07) r.skip(1);
+        int nameAt = r.position() + 1;
+        if (r.skipString(0x08) <= 0 || !r.accept(0xBE, 0x01) || !r.acceptType(TlvReader.CONTAINER)) {
+            r.position(resume);
+            return false;
+        }
+
+        // up to two bytes of unknown purpose precede the 00 that opens the list of styles; the longest prefix after
+        // which the styles can be read wins
+        int afterHeader = r.position();
+        for (int skip = 3; skip >= 1; skip--) {
+            r.position(afterHeader);
+            if (r.peek(skip - 1) != 0x00) continue;
+            r.skip(skip);
+            Map<String, GearStyleEntry> currStyles = readStyles(r);
+            if (currStyles != null) {
+                styles.put(r.stringAt(nameAt), currStyles);
+                return true;
+            }
+            resume = Math.max(resume, r.position());
+        }
+        r.position(resume);
+        return false;
+    }
+
+    /**
+     * Reads styles up to and including the closing 08 1E.
+     *
+     * @return the styles by blueprint, or null, with the cursor at the first thing that is not a style, if the cursor is
+     * not at a list of styles
+     */
+    private Map<String, GearStyleEntry> readStyles(TlvReader r) {
+        Map<String, GearStyleEntry> currStyles = new HashMap<>();
+        while (!r.accept(0x08, 0x1E)) {
+            GearStyleEntry entry = readStyle(r);
+            if (entry == null) return null;
+            currStyles.put(entry.getBlueprint(), entry);
+        }
+        return currStyles;
+    }
+
+    /**
+     * Reads a style: X4 [XX] 08 blueprint 18 name 28 desc 30 XX BE 04 08 00 08 58 info 68 00 1E.
+     *
+     * @return the style, or null if the cursor is not at one
+     */
+    private GearStyleEntry readStyle(TlvReader r) {
+        int start = r.position();
+        if (!r.acceptType(TlvReader.ELEMENT)) return null;
+        int afterTag = r.position();
+
+        // the byte after the element tag is optional, so 08 could be either that byte or the blueprint tag
+        if (r.peek() <= 0x9F && r.peek(1) == 0x08) {
+            r.skip(1);
+            GearStyleEntry entry = readStyleFields(r);
+            if (entry != null) return entry;
+            r.position(afterTag);
+        }
+        GearStyleEntry entry = readStyleFields(r);
+        if (entry == null) r.position(start);
+        return entry;
+    }
+
+    // the strings are decoded once the whole style is known to fit
+    private GearStyleEntry readStyleFields(TlvReader r) {
+        int blueprintAt = r.position() + 1;
+        if (r.skipString(0x08) <= 0) return null;
+        int nameAt = r.position() + 1;
+        if (r.skipString(0x18) == -1) return null;
+        int descAt = r.position() + 1;
+        if (r.skipString(0x28) == -1 || !r.accept(0x30)) return null;
+        r.skip(1);
+        if (!r.accept(0xBE, 0x04, 0x08, 0x00, 0x08)) return null;
+        int infoAt = r.position() + 1;
+        if (r.skipString(0x58) == -1 || !r.accept(0x68, 0x00, 0x1E)) return null;
+        return new GearStyleEntry(emptyToNull(r.stringAt(nameAt)), emptyToNull(r.stringAt(descAt)), r.stringAt(blueprintAt), emptyToNull(r.stringAt(infoAt)));
+    }
+
+    private String emptyToNull(String s) {
+        return s.isEmpty() ? null : s;
+    }
 }
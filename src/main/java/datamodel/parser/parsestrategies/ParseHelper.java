@@ -1,8 +1,8 @@
 package datamodel.parser.parsestrategies;
 
 import com.google.re2j.Matcher;
-import com.google.re2j.Pattern;
-import datamodel.parser.Markers;
+import datamodel.parser.BinfabBuffer;
+import datamodel.parser.Patterns;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,7 +16,6 @@ public class ParseHelper {
      * @return a list of strings, with index 0 being the category name and all other indices being recipe file paths
      */
     List<String> parseHelper(String unparsed, String path, String catMarker) throws ParseException {
-        Markers m = new Markers();
         List<String> recipes = new ArrayList<>();
 
         int nameEnd = unparsed.indexOf("BE "); // end character used to signify end of a category name in files
@@ -24,13 +23,12 @@ public class ParseHelper {
             String name = catMarker + unparsed.substring(0, nameEnd);
             recipes.add(name);
             String rawRecipes = unparsed.substring(nameEnd);
-            Pattern re = Pattern.compile(m.recipe);
-            Matcher matcher = re.matcher(rawRecipes);
+            Matcher matcher = Patterns.RECIPE.matcher(rawRecipes);
             List<Integer> indices = new ArrayList<>();
 
             // find all the starting points of recipes
             while (true) {
-                if (matcher.find()) {
+                if (Patterns.RECIPE.find(matcher)) {
                     int index = matcher.start();
                     if (!rawRecipes.startsWith("5F", index - 3)) { // ignore recipes that unlock recipes; if it matches 5F, the underscore, then it's not valid
                         indices.add(index);
@@ -56,7 +54,9 @@ public class ParseHelper {
                     processing = processing.substring(0, processing.length() - 6); // removing the guaranteed 2 characters that are useless
                     int lastIndex = 0;
                     for (int j = 0; j < processing.length(); j += 3) {
-                        if (processing.substring(j, j + 2).matches(m.alphabetRecipe)) {
+                        int hi = Character.digit(processing.charAt(j), 16);
+                        int lo = Character.digit(processing.charAt(j + 1), 16);
+                        if (hi != -1 && lo != -1 && Patterns.isRecipeByte(hi << 4 | lo)) {
                             lastIndex = j + 3;
                         } else {
                             break;
@@ -74,4 +74,101 @@ public class ParseHelper {
         return recipes;
     }
 
+    static final byte[] ND_END = {0x68, 0x00, (byte) 0x80};
+    static final byte[] COLLECTION_END = {0x28, 0x00};
+
+    /**
+     * Byte-level equivalent of matching {@link datamodel.parser.Regexes#nameDescExtractor} against the file up to and
+     * including the first name-description end marker.
+     *
+     * @param ndEnd position of the first {@link #ND_END} in the buffer
+     * @return an array of length 2, containing the name and the (nullable) description
+     */
+    String[] parseNameDesc(BinfabBuffer b, int ndEnd, String rPath) throws ParseException {
+        boolean emptyDesc = ndEnd > 0 && b.byteAt(ndEnd - 1) == 0x00;
+
+        // position of the length byte of the description, if there is one; the description itself starts with $
+        int descStart = -1;
+        if (!emptyDesc) {
+            for (int q = ndEnd - 3; q >= 0; q--) {
+                if (b.byteAt(q + 1) == 0x24) {
+                    descStart = q;
+                    break;
+                }
+            }
+        }
+
+        for (int s = 0; s + 2 < ndEnd; s++) {
+            int marker = b.byteAt(s);
+            if ((marker & 0x0F) != 0x08 || (marker >>> 4) > 9 || b.byteAt(s + 2) != 0x24) continue;
+
+            int nameEnd;
+            if (emptyDesc) {
+                nameEnd = ndEnd - 2;
+            } else {
+                nameEnd = descStart - 1;
+            }
+            if (nameEnd < s + 4) continue;
+
+            int nLen = b.byteAt(s + 1);
+            String name = b.stringAt(s + 2, Math.min(nameEnd - s - 2, nLen));
+            String desc = null;
+            if (!emptyDesc) {
+                int dLen = b.byteAt(descStart);
+                desc = b.stringAt(descStart + 1, Math.min(ndEnd - descStart - 1, dLen));
+            }
+            return new String[]{name, desc};
+        }
+        throw new ParseException(rPath + " did not match the pattern for name and description; does it satisfy the assumptions?");
+    }
+
+    /**
+     * Byte-level equivalent of matching {@link datamodel.parser.Regexes#blueprintExtractor}.
+     *
+     * @return the blueprint name without its extension, or null if no blueprint was found
+     */
+    String parseBlueprint(BinfabBuffer b) {
+        for (int s = 0; s + 1 < b.length(); s++) {
+            if (b.byteAt(s) != 0x1E || b.byteAt(s + 1) != 0x4A) continue;
+
+            // the byte between the marker and 08 is optional
+            if (s + 4 < b.length() && b.byteAt(s + 3) <= 0x09 && b.byteAt(s + 4) == 0x08) {
+                String bp = blueprintFrom(b, s + 5);
+                if (bp != null) return bp;
+            }
+            if (s + 3 < b.length() && b.byteAt(s + 3) == 0x08) {
+                String bp = blueprintFrom(b, s + 4);
+                if (bp != null) return bp;
+            }
+        }
+        return null;
+    }
+
+    private String blueprintFrom(BinfabBuffer b, int lenPos) {
+        int start = lenPos + 1;
+        for (int u = start + 1; u + 6 < b.length(); u++) {
+            if (b.byteAt(u) == 0x14 && b.byteAt(u + 5) == 0x20 && b.byteAt(u + 6) <= 0x09) {
+                return b.stringAt(start, u - start).replace(".blueprint", "");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Byte-level equivalent of matching {@link datamodel.parser.Regexes#tradableExtractor} from the given position.
+     */
+    boolean parseTradable(BinfabBuffer b, int from, String rPath) throws ParseException {
+        for (int i = from; i + 20 < b.length(); i++) {
+            if (b.byteAt(i) == 0x01 && b.byteAt(i + 1) <= 0x09 && b.byteAt(i + 2) == 0x90 && b.byteAt(i + 3) == 0x01
+                    && b.byteAt(i + 5) == 0xA0 && b.byteAt(i + 6) == 0x01 && b.byteAt(i + 8) == 0xC0 && b.byteAt(i + 9) == 0x01
+                    && b.byteAt(i + 10) <= 0x09 && b.byteAt(i + 11) == 0xD0 && b.byteAt(i + 12) == 0x01 && b.byteAt(i + 13) == 0x00
+                    && b.byteAt(i + 14) == 0xE0 && b.byteAt(i + 15) == 0x01 && (b.byteAt(i + 16) == 0x00 || b.byteAt(i + 16) == 0x02)
+                    && b.byteAt(i + 17) == 0xF0 && b.byteAt(i + 18) == 0x01 && (b.byteAt(i + 19) == 0x00 || b.byteAt(i + 19) == 0x02)
+                    && b.byteAt(i + 20) == 0x80) {
+                return b.byteAt(i + 16) == 0x02;
+            }
+        }
+        throw new ParseException(rPath + ": failed to determine tradability.");
+    }
+
 }
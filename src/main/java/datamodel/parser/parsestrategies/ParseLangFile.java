@@ -1,13 +1,12 @@
 package datamodel.parser.parsestrategies;
 
 import com.google.re2j.Matcher;
-import com.google.re2j.Pattern;
 import datamodel.objects.Article;
 import datamodel.objects.LangFile;
 import datamodel.parser.Markers;
 import datamodel.parser.Outliers;
 import datamodel.parser.Parser;
-import datamodel.parser.Regexes;
+import datamodel.parser.Patterns;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -16,14 +15,10 @@ public class ParseLangFile implements ParseStrategy {
     @Override
     public Article parseObject(String splitString, String absPath, boolean useRPath) throws ParseException {
         try {
-            Regexes r = new Regexes();
-            Pattern p = Pattern.compile(r.langSplitter);
-            Pattern ep = Pattern.compile(r.langExtractor);
-            Matcher m = p.matcher(splitString);
-            Markers mk = new Markers();
+            Matcher m = Patterns.LANG_SPLITTER.matcher(splitString);
             Outliers o = new Outliers();
 
-            String name = absPath.substring(absPath.lastIndexOf("\\") + 1, absPath.indexOf(mk.endFile));
+            String name = absPath.substring(absPath.lastIndexOf("\\") + 1, absPath.indexOf(Markers.endFile));
             String rPath = useRPath ? Parser.extractRPath(absPath) : absPath.replace("\\", "/");
 
             String lang;
@@ -40,17 +35,18 @@ public class ParseLangFile implements ParseStrategy {
 
             int currStartIndex = 0;
             String currString;
-            Matcher em = ep.matcher("");
+            Matcher em;
             String key;
-            while (m.find()) {
+            while (Patterns.LANG_SPLITTER.find(m)) {
                 currString = splitString.substring(currStartIndex, m.start());
-                em.reset(currString);
-                if (!em.find()) {
+                em = Patterns.LANG_EXTRACTOR.matcher(currString);
+                if (!Patterns.LANG_EXTRACTOR.find(em)) {
                     boolean replaced = false;
                     for (int i = 0; i < o.strings.size(); i++) {
                         if (currString.contains(o.strings.get(i))) {
                             currString = currString.replace(o.strings.get(i), o.replacements.get(i));
-                            em.reset(currString).find();
+                            em = Patterns.LANG_EXTRACTOR.matcher(currString);
+                            Patterns.LANG_EXTRACTOR.find(em);
                             replaced = true;
                             break;
                         }
@@ -58,9 +54,9 @@ public class ParseLangFile implements ParseStrategy {
                     if (!replaced)
                         throw new ParseException(rPath + " has an unrecognized invalid string pattern: " + currString);
                 }
-                key = Parser.hexToAscii(em.group(2));
+                key = Parser.hexToAscii(currString, em.start(2), em.end(2));
                 if (!Character.isLetter(key.charAt(1)) && !Character.isDigit(key.charAt(1))) key = key.substring(1);
-                strings.put(key, em.group(4).equals("00 ") ? null : Parser.hexToAscii(em.group(7)));
+                strings.put(key, em.group(4).equals("00 ") ? null : Parser.hexToAscii(currString, em.start(7), em.end(7)));
                 currStartIndex = m.start() + 18;
             }
 
@@ -12,16 +12,14 @@ public class ParseProfession implements ParseStrategy {
     @Override
     public Article parseObject(String splitString, String absPath, boolean useRPath) throws ParseException {
         try {
-            Markers m = new Markers();
-
             // instantiate the necessary variables
             List<List<String>> categoryList = new ArrayList<>();
             ParseHelper helper = new ParseHelper();
 
             // getting recipes
-            String[] substrings = splitString.split(m.crafting);
+            String[] substrings = splitString.split(Markers.crafting);
             for (int i = 1; i < substrings.length - 1; i++) {
-                categoryList.add(helper.parseHelper(substrings[i], absPath, m.crafting));
+                categoryList.add(helper.parseHelper(substrings[i], absPath, Markers.crafting));
             }
 
             // cleaning up the category names, and putting the converted stuff into the map
@@ -40,7 +38,7 @@ public class ParseProfession implements ParseStrategy {
             }
 
             // creating the Bench object
-            String path = absPath.substring(absPath.lastIndexOf("\\") + 1, absPath.indexOf(m.endFile));
+            String path = absPath.substring(absPath.lastIndexOf("\\") + 1, absPath.indexOf(Markers.endFile));
             String rPath = useRPath ? Parser.extractRPath(absPath) : absPath.replace("\\", "/");
 
             return new Bench(path, rPath, order, categories);
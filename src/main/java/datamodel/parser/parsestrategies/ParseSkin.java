@@ -1,69 +1,61 @@
 package datamodel.parser.parsestrategies;
 
-import com.google.re2j.Matcher;
-import com.google.re2j.Pattern;
 import datamodel.objects.Article;
 import datamodel.objects.Skin;
+import datamodel.parser.BinfabBuffer;
 import datamodel.parser.Parser;
-import datamodel.parser.Regexes;
+import datamodel.parser.TlvReader;
 
 public class ParseSkin implements ParseStrategy {
+
+    private static final byte[] INFO_PREFIX = {0x08, 0x1E, 0x1E, 0x08, (byte) 0xBE, 0x03, 0x2E, 0x00};
+
     @Override
     public Article parseObject(String splitString, String absPath, boolean useRPath) throws ParseException {
+        return parseObject(BinfabBuffer.fromSplitString(splitString), absPath, useRPath);
+    }
+
+    @Override
+    public Article parseObject(BinfabBuffer buffer, String absPath, boolean useRPath) throws ParseException {
         try {
             String rPath = useRPath ? Parser.extractRPath(absPath) : absPath.replace("\\", "/");
-            Regexes r = new Regexes();
-            Pattern p = Pattern.compile(r.skinInfoExtractor);
-            Matcher mt = p.matcher(splitString);
-            if (!mt.find()) {
-                throw new ParseException(rPath + ": invalid skin structure; if this is not a bomb skin, then this is an issue.");
-            }
-            int bpLen;
-            int nLen = -1;
-
-            String bpExcess = null;
-            String nExcess = null;
-
-            try {
-                bpLen = Integer.parseInt(mt.group(4), 16);
-            } catch (NumberFormatException e) {
-                throw new ParseException(rPath + ": failed to extract blueprint.");
-            }
-
-            String bpTxt = Parser.hexToAscii(mt.group(5));
-            if (bpLen == -1) {
-                throw new ParseException(rPath + ": failed to determine blueprint text length.");
-            } else if (bpTxt.length() > bpLen) {
-                bpExcess = bpTxt.substring(bpLen);
-                bpTxt = bpTxt.substring(0, bpLen);
-            } else if (bpTxt.length() < bpLen) {
-                throw new ParseException(rPath + ": blueprint text longer than calculated.");
-            }
-            if (!bpTxt.contains(".blueprint")) bpTxt = bpTxt + ".blueprint";
-
-            try {
-                nLen = Integer.parseInt(mt.group(8), 16);
-            } catch (NumberFormatException e) {
-                System.out.println(e.getMessage());
-            }
 
-            String nTxt = bpExcess == null ? Parser.hexToAscii(mt.group(9)) : bpExcess.substring(2) + Parser.hexToAscii("58 " + mt.group(12) + " " + mt.group(9));
-            if (nLen == -1) {
-                throw new ParseException(rPath + ": failed to determine name length.");
-            } else if (nTxt.length() > nLen) {
-                nExcess = nTxt.substring(nLen);
-                nTxt = nTxt.substring(0, nLen);
-            } else if (nTxt.length() < nLen) {
-                System.out.println(nLen);
-                System.out.println(nTxt);
-                throw new ParseException(rPath + ": name longer than calculated.");
+            // the skin info closes the file, and is preceded by either a fixed prefix or a 24 and 5 other bytes
+            TlvReader r = new TlvReader(buffer);
+            for (int start = 0; start < buffer.length(); start++) {
+                if (buffer.matchesAt(INFO_PREFIX, start)) {
+                    r.position(start + INFO_PREFIX.length);
+                    String[] info = readInfo(r);
+                    if (info != null) return new Skin(rPath, info[1], info[2], info[0]);
+                }
+                if (buffer.byteAt(start) == 0x24) {
+                    r.position(start + 6);
+                    String[] info = readInfo(r);
+                    if (info != null) return new Skin(rPath, info[1], info[2], info[0]);
+                }
             }
-
-            String dTxt = nExcess == null ? Parser.hexToAscii(mt.group(13)) : nExcess.substring(2) + Parser.hexToAscii("68 " + mt.group(12) + " " + mt.group(13));
-            dTxt = dTxt.equals("") ? null : dTxt;
-            return new Skin(rPath, nTxt, dTxt, bpTxt);
+            throw new ParseException(rPath + ": invalid skin structure; if this is not a bomb skin, then this is an issue.");
         } catch (Exception e) {
             throw new ParseException(e.getMessage());
         }
     }
+
+    /**
+     * Reads 08 48 blueprint 58 name 68 desc 1E, which must end at the end of the file.
+     *
+     * @return the blueprint, name and description, the latter being null if empty, or null if the cursor is not at the
+     * info
+     */
+    private String[] readInfo(TlvReader r) {
+        if (!r.accept(0x08)) return null;
+        String bpTxt = r.readString(0x48);
+        if (bpTxt == null || bpTxt.isEmpty()) return null;
+        String nTxt = r.readString(0x58);
+        if (nTxt == null || nTxt.isEmpty()) return null;
+        String dTxt = r.readString(0x68);
+        if (dTxt == null || !r.accept(0x1E) || r.hasRemaining()) return null;
+
+        if (!bpTxt.contains(".blueprint")) bpTxt = bpTxt + ".blueprint";
+        return new String[]{bpTxt, nTxt, dTxt.isEmpty() ? null : dTxt};
+    }
 }
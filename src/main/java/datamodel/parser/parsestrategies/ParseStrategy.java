@@ -1,8 +1,17 @@
 package datamodel.parser.parsestrategies;
 
 import datamodel.objects.Article;
+import datamodel.parser.BinfabBuffer;
 
 interface ParseStrategy {
 
     Article parseObject(String splitString, String absPath, boolean useRPath) throws ParseException;
+
+    /**
+     * Parses directly from the file bytes. Strategies that have not been ported to the byte view fall back to the
+     * spaced hex string.
+     */
+    default Article parseObject(BinfabBuffer buffer, String absPath, boolean useRPath) throws ParseException {
+        return parseObject(buffer.toSplitString(), absPath, useRPath);
+    }
 }
@@ -0,0 +1,91 @@
+package ui;
+
+import datamodel.DirectoryIndex;
+import javafx.collections.ObservableList;
+import javafx.scene.control.CheckBoxTreeItem;
+import javafx.scene.control.TreeItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A tree item for an entry of a {@link DirectoryIndex}, whose children are only created once they are asked for, when the
+ * item is expanded.
+ * <p>
+ * Ticking and unticking items updates a {@link DirectoryIndex.Selection}, and the items show what it holds. Items are
+ * independent, as passing a tick down the tree would create the items below a directory on the way; a directory
+ * instead selects its whole range at once, and only the items that already exist are updated to match. Items created
+ * later take their state from the selection.
+ */
+class IndexTreeItem extends CheckBoxTreeItem<String> {
+
+    private final DirectoryIndex.View view;
+    private final DirectoryIndex.Node node;
+    private final DirectoryIndex.Selection selection;
+    private boolean hasChildren;
+    private boolean updating;
+
+    IndexTreeItem(DirectoryIndex.Selection selection, DirectoryIndex.Node node) {
+        super(node.getPath());
+        this.view = selection.getView();
+        this.node = node;
+        this.selection = selection;
+        setIndependent(true);
+        selectedProperty().addListener((observable, wasSelected, isSelected) -> {
+            if (updating) return;
+            if (isSelected) selection.select(node);
+            else selection.deselect(node);
+            updateDescendants();
+            for (TreeItem<String> parent = getParent(); parent instanceof IndexTreeItem; parent = parent.getParent()) {
+                ((IndexTreeItem) parent).update();
+            }
+        });
+    }
+
+    DirectoryIndex.Selection getSelection() {
+        return selection;
+    }
+
+    // ticked if every file shown below the item is selected, and indeterminate if only some are
+    private void update() {
+        int selectedCount = selection.getSelectedCount(node);
+        int fileCount = view.getFileCount(node);
+        updating = true;
+        try {
+            setSelected(selectedCount > 0 && selectedCount == fileCount);
+            setIndeterminate(selectedCount > 0 && selectedCount < fileCount);
+        } finally {
+            updating = false;
+        }
+    }
+
+    private void updateDescendants() {
+        if (!hasChildren) return;
+        for (TreeItem<String> child : super.getChildren()) {
+            IndexTreeItem item = (IndexTreeItem) child;
+            item.update();
+            item.updateDescendants();
+        }
+    }
+
+    @Override
+    public boolean isLeaf() {
+        // directories other than the root are only shown if they hold a file that is shown
+        return !node.isDirectory() || view.getFileCount(node) == 0;
+    }
+
+    @Override
+    public ObservableList<TreeItem<String>> getChildren() {
+        if (!hasChildren) {
+            hasChildren = true;
+            List<TreeItem<String>> children = new ArrayList<>();
+            for (DirectoryIndex.Node child : view.getShownChildren(node)) {
+                IndexTreeItem item = new IndexTreeItem(selection, child);
+                item.update();
+                children.add(item);
+            }
+            super.getChildren().setAll(children);
+        }
+        return super.getChildren();
+    }
+}
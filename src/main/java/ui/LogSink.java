@@ -0,0 +1,215 @@
+package ui;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded log that any thread can write to without ever blocking.
+ * <p>
+ * Messages go into a ring buffer, which a single consumer drains in batches, such as a timer that moves them to the log
+ * view every so often. Writers claim a slot with a compare-and-set; once the buffer is full, further messages spill to a
+ * file instead, which a background thread appends them to. The consumer can spill messages as well, such as the oldest
+ * lines of a view that only keeps so many, so that the spill file holds whatever no longer fits in memory. Spilled
+ * messages keep their own order, but are not ordered against those still in the buffer.
+ */
+public class LogSink implements Closeable {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final long APPEND_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // the next slot to drain, only moved by the consumer
+    private final AtomicLong tail = new AtomicLong(); // the next slot to claim
+
+    private final Path spillFile;
+    private final ConcurrentLinkedQueue<String> spilled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong lostCount = new AtomicLong();
+    private final Object fileLock = new Object();
+    private final Thread appender;
+    private Writer fileWriter;
+    private volatile boolean closed;
+
+    /**
+     * @param capacity  the number of messages the buffer holds, rounded up to a power of two
+     * @param spillFile where messages that do not fit are appended to; created when the first message spills
+     */
+    public LogSink(int capacity, Path spillFile) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1, got " + capacity);
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.spillFile = spillFile;
+        appender = new Thread(this::runAppender, "log-appender");
+        appender.setDaemon(true);
+        appender.start();
+    }
+
+    /**
+     * Adds a message, or spills it if the buffer is full. Can be called from any thread. A null message is logged as
+     * "null", as an empty slot marks where draining stops.
+     */
+    public void log(String message) {
+        if (message == null) message = "null";
+        while (true) {
+            long t = tail.get();
+            if (t - head.get() > mask) {
+                spill(message);
+                return;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                // the consumer stops at an empty slot, so it never passes a claimed slot before it is filled
+                slots.set((int) (t & mask), message);
+                return;
+            }
+        }
+    }
+
+    public void logAll(Collection<String> messages) {
+        messages.forEach(this::log);
+    }
+
+    /**
+     * Moves the buffered messages to the list, oldest first. Only one thread may drain the sink.
+     *
+     * @return the number of messages moved
+     */
+    public int drainTo(List<String> out) {
+        int count = 0;
+        long h = head.get();
+        while (true) {
+            int index = (int) (h & mask);
+            String message = slots.get(index);
+            if (message == null) break;
+            slots.set(index, null);
+            out.add(message);
+            head.lazySet(++h);
+            count++;
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return slots.get((int) (head.get() & mask)) == null;
+    }
+
+    /**
+     * Queues a message for the spill file, without waiting for it to be written. A null message is spilled as "null".
+     */
+    public void spill(String message) {
+        spilled.add(message != null ? message : "null");
+        spilledCount.incrementAndGet();
+    }
+
+    public void spillAll(Collection<String> messages) {
+        messages.forEach(this::spill);
+    }
+
+    /**
+     * @return the number of messages spilled since the spill file was last moved
+     */
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    /**
+     * @return the number of spilled messages that were dropped, as the spill file could not be written
+     */
+    public long getLostCount() {
+        return lostCount.get();
+    }
+
+    public Path getSpillFile() {
+        return spillFile;
+    }
+
+    /**
+     * Writes every spilled message to the writer, oldest first, and empties the spill file.
+     */
+    public void moveSpilledTo(Writer out) throws IOException {
+        synchronized (fileLock) {
+            appendSpilled();
+            if (fileWriter != null) {
+                fileWriter.close();
+                fileWriter = null;
+            }
+            if (Files.exists(spillFile)) {
+                try (Reader in = Files.newBufferedReader(spillFile, StandardCharsets.UTF_8)) {
+                    char[] buffer = new char[8192];
+                    for (int read = in.read(buffer); read != -1; read = in.read(buffer)) out.write(buffer, 0, read);
+                }
+                Files.delete(spillFile);
+            }
+            spilledCount.set(0);
+        }
+    }
+
+    private void runAppender() {
+        while (!closed) {
+            LockSupport.parkNanos(this, APPEND_INTERVAL_NANOS);
+            synchronized (fileLock) {
+                try {
+                    appendSpilled();
+                } catch (IOException e) {
+                    // there is nowhere left to report to; the messages are counted as lost, and the next round tries again
+                    closeQuietly();
+                    for (String ignored = spilled.poll(); ignored != null; ignored = spilled.poll()) lostCount.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            if (fileWriter != null) fileWriter.close();
+        } catch (IOException ignored) {
+            // the writer is dropped either way
+        }
+        fileWriter = null;
+    }
+
+    // called while holding fileLock
+    private void appendSpilled() throws IOException {
+        if (spilled.isEmpty()) return;
+        if (fileWriter == null) {
+            Files.createDirectories(spillFile.toAbsolutePath().getParent());
+            fileWriter = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        for (String message = spilled.poll(); message != null; message = spilled.poll()) {
+            fileWriter.write(message);
+            fileWriter.write(System.lineSeparator());
+        }
+        fileWriter.flush();
+    }
+
+    /**
+     * Stops the appender once it has written what was spilled so far.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(appender);
+        synchronized (fileLock) {
+            appendSpilled();
+            if (fileWriter != null) {
+                fileWriter.close();
+                fileWriter = null;
+            }
+        }
+    }
+}
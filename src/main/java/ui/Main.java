@@ -46,6 +46,11 @@ public class Main extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        if (presenter != null) presenter.stop();
+    }
+
     private final EventHandler<WindowEvent> confirmCloseEventHandler = event -> {
         if (presenter == null || presenter.safeToClose()) return;
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION, "You have unmerged changes and/or haven't exported your changes. Are you sure you want to exit?");
@@ -2,7 +2,11 @@ package ui;
 
 import com.jfoenix.controls.*;
 import com.jfoenix.effects.JFXDepthManager;
+import datamodel.Codec;
 import datamodel.Enums;
+import datamodel.Ndjson;
+import datamodel.Serializer;
+import datamodel.Snapshot;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.geometry.Orientation;
@@ -78,6 +82,10 @@ public class Presenter {
         return controller.safeToClose();
     }
 
+    void stop() {
+        controller.stop();
+    }
+
     private Pane getSetupScreenContent(List<Button> actionButtons) {
         StackPane center = new StackPane();
         AnchorPane anchor = new AnchorPane();
@@ -87,6 +95,16 @@ public class Presenter {
         JFXTextField dataLoc = new JFXTextField();
         JFXButton dataLocButton = getJFXButton(Arrays.asList("button-inline", "color-subtle"), "button-set-dir");
 
+        FlowPane categoryPane = new FlowPane();
+        String[] categoryTexts = new String[]{"Benches", "Collections", "Collection Indices", "Gear Styles", "Items", "Placeables", "Recipes", "Skins", "Strings"};
+        List<JFXCheckBox> categoryBoxes = new ArrayList<>();
+        for (String categoryText : categoryTexts) {
+            JFXCheckBox cb = new JFXCheckBox(categoryText);
+            cb.setSelected(true);
+            categoryBoxes.add(cb);
+        }
+        categoryPane.getChildren().addAll(categoryBoxes);
+
         Separator sep = new Separator();
         Text mapText = new Text("Parsing aids");
         JFXTextField bppLoc = new JFXTextField();
@@ -102,9 +120,16 @@ public class Presenter {
 
         JFXButton startButton = getJFXButton(Collections.singletonList("floating-button"), "button-start");
 
-        dataLocButton.setOnAction(e -> dataLoc.setText(controller.loadFile(stage, "JSON files", "*.json", "Select the JSON file containing the entities.")));
+        dataLocButton.setOnAction(e -> dataLoc.setText(controller.loadFile(stage, "Entity files", Arrays.asList("*.json", "*" + Snapshot.EXTENSION, "*" + Ndjson.EXTENSION, "*.json" + Codec.GZIP.getExtension(), "*" + Ndjson.EXTENSION + Codec.GZIP.getExtension()), "Select the JSON, snapshot or NDJSON file containing the entities.")));
         bppLocButton.setOnAction(e -> bppLoc.setText(controller.loadDirectory(stage, "Select the directory containing the mapping files. This directory normally has a relative path of /prefabs/blocks.")));
-        startButton.setOnAction(e -> controller.loadData(Arrays.asList(dataLocButton, bppLocButton, startButton), actionButtons, dataLoc.getText(), bppLoc.getText(), weirdBox.selectedProperty().getValue()));
+        startButton.setOnAction(e -> {
+            // categories are in the same order as Serializer.CATEGORIES
+            Set<String> categories = new HashSet<>();
+            for (int i = 0; i < categoryBoxes.size(); i++) {
+                if (categoryBoxes.get(i).isSelected()) categories.add(Serializer.CATEGORIES.get(i));
+            }
+            controller.loadData(Arrays.asList(dataLocButton, bppLocButton, startButton), actionButtons, dataLoc.getText(), bppLoc.getText(), weirdBox.selectedProperty().getValue(), categories);
+        });
 
         // element styling
         {
@@ -114,6 +139,7 @@ public class Presenter {
             dataLoc.setDisable(true);
             bppLoc.setDisable(true);
             Arrays.asList(externalText, mapText, configText, ignoreText).forEach(text -> text.getStyleClass().add("text-normal"));
+            categoryPane.getStyleClass().add("flow-categories");
             center.getStyleClass().add("pane-background");
             anchor.getStyleClass().add("card-backing");
             grid.getStyleClass().add("grid-content");
@@ -127,15 +153,16 @@ public class Presenter {
             grid.add(externalText, 0, 0);
             grid.add(dataLoc, 0, 1);
             grid.add(dataLocButton, 1, 1);
-            grid.add(sep, 0, 2, 2, 1);
-            grid.add(mapText, 0, 3);
-            grid.add(bppLoc, 0, 4);
-            grid.add(bppLocButton, 1, 4);
-            grid.add(sep2, 0, 5, 2, 1);
-            grid.add(configText, 0, 6);
-            grid.add(weirdBox, 0, 7);
-            grid.add(sep3, 0, 8, 2, 1);
-            grid.add(ignoreText, 0, 9, 2, 1);
+            grid.add(categoryPane, 0, 2, 2, 1);
+            grid.add(sep, 0, 3, 2, 1);
+            grid.add(mapText, 0, 4);
+            grid.add(bppLoc, 0, 5);
+            grid.add(bppLocButton, 1, 5);
+            grid.add(sep2, 0, 6, 2, 1);
+            grid.add(configText, 0, 7);
+            grid.add(weirdBox, 0, 8);
+            grid.add(sep3, 0, 9, 2, 1);
+            grid.add(ignoreText, 0, 10, 2, 1);
         }
 
         setMaxAnchor(grid);
@@ -157,7 +184,9 @@ public class Presenter {
         JFXButton dirButton = getJFXButton(Arrays.asList("button-inline", "color-subtle"), "button-set-dir");
         JFXTextField filter = new JFXTextField();
         JFXButton filterButton = getJFXButton(Arrays.asList("button-inline", "color-subtle"), "button-update");
+        JFXButton diffButton = getJFXButton(Arrays.asList("button-inline", "color-subtle"), "button-diff");
         JFXComboBox<String> typeSelect = new JFXComboBox<>();
+        JFXComboBox<Integer> threadSelect = new JFXComboBox<>();
         TreeView<String> tree = new TreeView<>();
         JFXButton startButton = getJFXButton(Collections.singletonList("floating-button"), "button-start");
         JFXProgressBar progressBar = new JFXProgressBar();
@@ -169,9 +198,12 @@ public class Presenter {
         filter.setPromptText("Filter");
         filter.setText(controller.getFilterText());
         typeSelect.setPromptText("Parse Type");
+        threadSelect.setPromptText("Threads");
         progressBar.setProgress(0);
 
         controller.setParseTypes(typeSelect);
+        controller.setParseThreadCounts(threadSelect);
+        threadSelect.setOnAction(e -> controller.setParseParallelism(threadSelect.getValue()));
         dirButton.setOnAction(e -> {
             controller.setParseDirectory(stage, directory, tree, Enums.ObjectType.getType(typeSelect.getValue()));
             controller.clearSelectedPaths();
@@ -180,6 +212,7 @@ public class Presenter {
             controller.updateParseDirectory(filter, directory, tree, Enums.ObjectType.getType(typeSelect.getValue()));
             controller.clearSelectedPaths();
         });
+        diffButton.setOnAction(e -> controller.checkForUpdates(stage, progressBar, progressText));
         startButton.setOnAction(e -> controller.parse(progressBar, progressText, typeSelect.getValue()));
 
         center.getStyleClass().add("pane-background");
@@ -205,8 +238,10 @@ public class Presenter {
         grid.add(filter, 2, 0);
         grid.add(filterButton, 3, 0);
         grid.add(typeSelect, 4, 0);
-        grid.add(progressBox, 0, 1, 5, 1);
-        grid.add(tree, 0, 2, 5, 1);
+        grid.add(threadSelect, 5, 0);
+        grid.add(diffButton, 6, 0);
+        grid.add(progressBox, 0, 1, 7, 1);
+        grid.add(tree, 0, 2, 7, 1);
 
         setMaxAnchor(grid);
         setFabAnchor(startButton);
@@ -238,30 +273,46 @@ public class Presenter {
         VBox counts = new VBox();
         counts.getChildren().addAll(countTexts);
 
+        JFXComboBox<Integer> historyLimit = new JFXComboBox<>();
+        historyLimit.setPromptText("Versions kept");
+
+        JFXTextField search = new JFXTextField();
+        search.setPromptText("Search");
+
         ListView<String> lv = new ListView<>();
+        ListView<String> diffView = new ListView<>();
+        diffView.setPlaceholder(new Text("Select a path to see what changed."));
 
         JFXNodesList buttons = new JFXNodesList();
         JFXButton actions = getJFXButton(Collections.singletonList("floating-button"), "button-options");
         JFXButton mergeButton = getJFXButton(Collections.singletonList("floating-sub-button"), "button-merge");
         JFXButton undoButton = getJFXButton(Collections.singletonList("floating-sub-button"), "button-undo");
+        JFXButton redoButton = getJFXButton(Collections.singletonList("floating-sub-button"), "button-redo");
+        JFXButton historyButton = getJFXButton(Collections.singletonList("floating-sub-button"), "button-history");
 
         buttons.addAnimatedNode(actions);
         buttons.addAnimatedNode(mergeButton);
         buttons.addAnimatedNode(undoButton);
+        buttons.addAnimatedNode(redoButton);
+        buttons.addAnimatedNode(historyButton);
 
         grid.add(categories, 0, 0);
         grid.add(overview, 0, 1);
         grid.add(counts, 0, 2);
-        grid.add(sepVert, 1, 0, 1, 3);
-        grid.add(lv, 2, 0, 1, 3);
+        grid.add(historyLimit, 0, 3);
+        grid.add(sepVert, 1, 0, 1, 4);
+        grid.add(search, 2, 0);
+        grid.add(lv, 2, 1, 1, 3);
+        grid.add(diffView, 3, 0, 1, 4);
 
         center.getChildren().add(anchor);
         anchor.getChildren().add(grid);
         anchor.getChildren().add(buttons);
 
         controller.rScreenBindCountTexts(countTexts, types);
-        controller.rScreenSetupDataViews(types, categories, lv);
-        controller.rScreenSetupActionButtons(mergeButton, undoButton, categories, lv);
+        controller.rScreenSetupDataViews(types, categories, search, lv, diffView);
+        controller.rScreenSetupActionButtons(mergeButton, undoButton, redoButton, historyButton, categories, lv);
+        controller.rScreenSetupHistoryLimit(historyLimit);
 
         overview.getStyleClass().add("text-bold");
         countTexts.forEach(t -> t.getStyleClass().add("text-normal"));
@@ -270,8 +321,11 @@ public class Presenter {
         center.getStyleClass().add("pane-background");
         anchor.getStyleClass().add("card-backing");
         grid.getStyleClass().add("grid-content");
-        lv.prefWidthProperty().bind(center.widthProperty());
+        lv.prefWidthProperty().bind(center.widthProperty().divide(2));
         lv.prefHeightProperty().bind(center.heightProperty());
+        search.prefWidthProperty().bind(lv.widthProperty());
+        diffView.prefWidthProperty().bind(center.widthProperty().divide(2));
+        diffView.prefHeightProperty().bind(center.heightProperty());
 
         setMaxAnchor(grid);
         setFabAnchor(buttons);
@@ -293,6 +347,9 @@ public class Presenter {
         JFXButton startButton = getJFXButton(Collections.singletonList("floating-button"), "button-dump");
         JFXToggleButton exportTypeToggle = new JFXToggleButton();
         JFXToggleButton prettyPrintToggle = new JFXToggleButton();
+        JFXComboBox<Enums.ExportFormat> formatSelect = new JFXComboBox<>();
+        JFXToggleButton compressToggle = new JFXToggleButton();
+        JFXButton benchmarkButton = getJFXButton(Arrays.asList("button-inline", "color-subtle"), "button-benchmark");
         Separator separator = new Separator();
 
         BooleanProperty[] selected = new BooleanProperty[9];
@@ -309,13 +366,16 @@ public class Presenter {
             checkboxes.add(cb);
         }
         types.getChildren().addAll(checkboxes);
-        toggles.getChildren().addAll(prettyPrintToggle, exportTypeToggle);
+        toggles.getChildren().addAll(prettyPrintToggle, exportTypeToggle, compressToggle, formatSelect);
 
         directory.setPromptText("Directory");
         directory.setDisable(true);
         exportTypeToggle.setText("Export session data and merged changes");
         prettyPrintToggle.setText("Pretty printing");
         prettyPrintToggle.setSelected(true);
+        compressToggle.setText("Do not compress");
+        formatSelect.setPromptText("Format");
+        controller.setExportFormats(formatSelect);
 
         exportTypeToggle.selectedProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal) {
@@ -331,6 +391,18 @@ public class Presenter {
                 prettyPrintToggle.setText("Use compressed mode");
             }
         });
+        compressToggle.selectedProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal) {
+                compressToggle.setText("Compress with gzip");
+            } else {
+                compressToggle.setText("Do not compress");
+            }
+        });
+        // only JSON exports can be pretty printed, and snapshots are not compressed
+        formatSelect.valueProperty().addListener((obs, oldVal, newVal) -> {
+            prettyPrintToggle.setDisable(newVal != Enums.ExportFormat.JSON);
+            compressToggle.setDisable(newVal == Enums.ExportFormat.SNAPSHOT);
+        });
         dirButton.setOnAction(e -> {
             DirectoryChooser dirChooser = new DirectoryChooser();
             dirChooser.setTitle("Select the location to export data to.");
@@ -346,9 +418,10 @@ public class Presenter {
                 for (int i = 0; i < selection.length; i++) {
                     if (selected[i].getValue()) selection[i] = 1;
                 }
-                controller.serialize(selectedDir, exportTypeToggle.selectedProperty().getValue(), prettyPrintToggle.selectedProperty().getValue(), selection);
+                controller.serialize(selectedDir, exportTypeToggle.selectedProperty().getValue(), prettyPrintToggle.selectedProperty().getValue(), formatSelect.getValue(), compressToggle.isSelected() ? Codec.GZIP : Codec.NONE, selection);
             }
         });
+        benchmarkButton.setOnAction(e -> controller.benchmarkExport(new File(directory.getText()), prettyPrintToggle.selectedProperty().getValue()));
 
         center.getStyleClass().add("pane-background");
         anchor.getStyleClass().add("card-backing");
@@ -363,6 +436,7 @@ public class Presenter {
         anchor.getChildren().add(startButton);
         grid.add(directory, 0, 0, 3, 1);
         grid.add(dirButton, 3, 0);
+        grid.add(benchmarkButton, 4, 0);
         grid.add(types, 0, 1);
         grid.add(toggles, 2, 1);
         grid.add(separator, 1, 1);
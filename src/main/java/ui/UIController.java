@@ -1,17 +1,28 @@
 package ui;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.google.gson.stream.JsonWriter;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import datamodel.ArticleDiff;
+import datamodel.Codec;
 import datamodel.DataModel;
+import datamodel.DifferenceChecker;
+import datamodel.DirectoryIndex;
 import datamodel.Enums;
+import datamodel.ExportBenchmark;
+import datamodel.Ndjson;
+import datamodel.ExportIndex;
+import datamodel.ParseEngine;
+import datamodel.ParseCache;
 import datamodel.Serializer;
+import datamodel.SessionHistory;
+import datamodel.ShardedExport;
+import datamodel.Snapshot;
+import datamodel.Workers;
 import datamodel.objects.Collection;
 import datamodel.objects.Skin;
 import datamodel.objects.*;
-import datamodel.parser.parsestrategies.ParseException;
+import datamodel.parser.Patterns;
 import javafx.application.Platform;
 import javafx.beans.Observable;
 import javafx.beans.binding.Bindings;
@@ -20,8 +31,6 @@ import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ListChangeListener;
-import javafx.collections.MapChangeListener;
 import javafx.collections.ObservableList;
 import javafx.concurrent.Task;
 import javafx.scene.control.*;
@@ -32,6 +41,7 @@ import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
 import java.io.*;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -40,31 +50,60 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 public class UIController {
 
+    static final int MAX_LOG_LINES = 5000;
+    static final long LOG_FLUSH_MILLIS = 100;
+
     DataModel model;
     String filter;
     boolean useRPathFlag;
     boolean hasExportedFlag;
-    List<String> selectedPathsToParse;
+    DirectoryIndex.Selection selectedPathsToParse; // null until a directory is indexed
     List<String> failedParsePaths;
     Set<String> selectedPathsToMerge;
-    Deque<MergeMemento> mementos;
-    ObservableList<String> logs;
+    LogSink logSink;
+    ScheduledExecutorService logFlusher;
+    ObservableList<String> logs; // only touched on the FX thread
+    AtomicBoolean logFlushPending;
     ObservableList<IntegerProperty> changedObjectSizes;
+    ArticleDiff articleDiff;
+    volatile DirectoryIndex parseIndex; // of the directory shown in the parse tree
+    int parseParallelism;
+    ExecutorService searchExecutor;
+    Future<?> pendingSearch; // the rest of the search state is only touched on the FX thread
+    long searchGeneration;
+    String reviewQuery;
 
     //    String benchFilter = "_interactive";
 //    String stringFilter = "prefabs_";
     public UIController() {
         model = new DataModel();
         filter = "";
-        selectedPathsToParse = new ArrayList<>();
         failedParsePaths = new ArrayList<>();
-        mementos = new ArrayDeque<>();
+        parseParallelism = Runtime.getRuntime().availableProcessors();
         selectedPathsToMerge = new HashSet<>();
         logs = FXCollections.observableArrayList();
+        logFlushPending = new AtomicBoolean();
+        logSink = new LogSink(LogSink.DEFAULT_CAPACITY, Paths.get(System.getProperty("user.home"), ".trovia-e", "logs",
+                "overflow-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH-mm-ss-SSS")) + ".txt"));
+        // at most one flush is queued on the FX thread at a time, however much is logged in between
+        logFlusher = Workers.newScheduledSingleThread("log-flusher");
+        logFlusher.scheduleWithFixedDelay(() -> {
+            if (!logSink.isEmpty() && !logFlushPending.getAndSet(true)) Platform.runLater(this::flushLogs);
+        }, LOG_FLUSH_MILLIS, LOG_FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+        articleDiff = new ArticleDiff(new Serializer().getSerializer(false));
+        // the sorted lists of changed paths are shown on the Review screen, so they are updated on the FX thread
+        model.setChangedPathsExecutor(Platform::runLater);
+        searchExecutor = Workers.newSingleThread("search-worker");
+        reviewQuery = "";
 
         changedObjectSizes = FXCollections.observableArrayList(p -> new Observable[]{p});
 
@@ -80,15 +119,18 @@ public class UIController {
 
         changedObjectSizes.addAll(bSize, cSize, ciSize, gstSize, iSize, pSize, rSize, skSize, strSize);
 
-        model.getChangedBenches().addListener((MapChangeListener.Change<? extends String, ? extends Bench> c) -> bSize.setValue(model.getChangedBenches().size()));
-        model.getChangedCollections().addListener((MapChangeListener.Change<? extends String, ? extends Collection> c) -> cSize.setValue(model.getChangedCollections().size()));
-        model.getChangedCollectionIndices().addListener((MapChangeListener.Change<? extends String, ? extends CollectionIndex> c) -> ciSize.setValue(model.getChangedCollectionIndices().size()));
-        model.getChangedGearStyleTypes().addListener((MapChangeListener.Change<? extends String, ? extends GearStyleType> c) -> gstSize.setValue(model.getChangedGearStyleTypes().size()));
-        model.getChangedItems().addListener((MapChangeListener.Change<? extends String, ? extends Item> c) -> iSize.setValue(model.getChangedItems().size()));
-        model.getChangedPlaceables().addListener((MapChangeListener.Change<? extends String, ? extends Placeable> c) -> pSize.setValue(model.getChangedPlaceables().size()));
-        model.getChangedRecipes().addListener((MapChangeListener.Change<? extends String, ? extends Recipe> c) -> rSize.setValue(model.getChangedRecipes().size()));
-        model.getChangedSkins().addListener((MapChangeListener.Change<? extends String, ? extends Skin> c) -> skSize.setValue(model.getChangedSkins().size()));
-        model.getChangedStrings().addListener((MapChangeListener.Change<? extends String, ? extends String> c) -> strSize.setValue(model.getChangedStrings().size()));
+        // one notification per category for each batch of changes, rather than one per article
+        Map<Enums.ObjectType, IntegerProperty> sizes = new EnumMap<>(Enums.ObjectType.class);
+        sizes.put(Enums.ObjectType.BENCH, bSize);
+        sizes.put(Enums.ObjectType.COLLECTION, cSize);
+        sizes.put(Enums.ObjectType.COLL_INDEX, ciSize);
+        sizes.put(Enums.ObjectType.GEAR_STYLE, gstSize);
+        sizes.put(Enums.ObjectType.ITEM, iSize);
+        sizes.put(Enums.ObjectType.PLACEABLE, pSize);
+        sizes.put(Enums.ObjectType.RECIPE, rSize);
+        sizes.put(Enums.ObjectType.SKIN, skSize);
+        sizes.put(Enums.ObjectType.LANG_FILE, strSize);
+        model.addChangesListener((type, size) -> sizes.get(type).setValue(size));
     }
 
     // LOADING DATA & GENERAL METHODS
@@ -96,10 +138,10 @@ public class UIController {
     /**
      * Can return null.
      */
-    String loadFile(Stage stage, String fileType, String fileExtension, String promptText) {
+    String loadFile(Stage stage, String fileType, List<String> fileExtensions, String promptText) {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle(promptText);
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(fileType, fileExtension));
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(fileType, fileExtensions));
         File selected = fileChooser.showOpenDialog(stage);
         return selected == null ? null : selected.getAbsolutePath();
     }
@@ -122,9 +164,17 @@ public class UIController {
             String path = selected.getAbsolutePath();
             LocalDateTime currTime = LocalDateTime.now();
             String fileName = "log-" + currTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH-mm-ss-SSS")) + ".txt";
+            flushLogs();
             try {
                 Path file = Paths.get(path + "\\" + fileName);
-                Files.write(file, logs, StandardCharsets.UTF_8);
+                // lines that no longer fit in the view were spilled to a file, and come first
+                try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                    logSink.moveSpilledTo(writer);
+                    for (String line : logs) {
+                        writer.write(line);
+                        writer.newLine();
+                    }
+                }
                 logs.clear();
                 print("Dumped log at " + currTime.toLocalTime());
             } catch (IOException e) {
@@ -144,8 +194,11 @@ public class UIController {
         buttons.forEach(item -> item.setDisable(true));
     }
 
-    void loadData(List<Button> buttonsToDisable, List<Button> buttonsToEnable, String entitiesPath, String mapDirPath, boolean useAbsPath) {
-        Task<Void> task = getLoadTask(entitiesPath, mapDirPath, useAbsPath);
+    /**
+     * @param categories names of the categories to load from the existing data, as in {@link Serializer#CATEGORIES}
+     */
+    void loadData(List<Button> buttonsToDisable, List<Button> buttonsToEnable, String entitiesPath, String mapDirPath, boolean useAbsPath, Set<String> categories) {
+        Task<Void> task = getLoadTask(entitiesPath, mapDirPath, useAbsPath, categories);
         new Thread(() -> {
             task.run();
             Platform.runLater(() -> {
@@ -155,17 +208,23 @@ public class UIController {
         }).start();
     }
 
-    Task<Void> getLoadTask(String entitiesPath, String mapDirPath, boolean useAbsPath) {
+    Task<Void> getLoadTask(String entitiesPath, String mapDirPath, boolean useAbsPath, Set<String> categories) {
         return new Task<Void>() {
             @Override
             protected Void call() {
                 try {
-                    deserialize(entitiesPath);
+                    int patternCount = Patterns.init();
+                    print("Compiled " + patternCount + " parser patterns in " + Patterns.getCompileTimeMillis() + " ms.");
+                    // the diffs cached against the previous session would never be asked for again
+                    articleDiff.clear();
+                    if (Snapshot.isSnapshot(entitiesPath)) loadSnapshot(entitiesPath, categories);
+                    else if (Ndjson.isNdjson(entitiesPath)) loadNdjson(entitiesPath, categories);
+                    else deserialize(entitiesPath, categories);
                     model.createBlueprintMapping(mapDirPath);
-                    if (mapDirPath != null && !mapDirPath.equals("")) logs.add(timestampMessage("Blueprint mapping supplementary files will be sourced from " + mapDirPath));
+                    if (mapDirPath != null && !mapDirPath.equals("")) print("Blueprint mapping supplementary files will be sourced from " + mapDirPath);
                     useRPathFlag = !useAbsPath;
-                    if (useAbsPath) logs.add(timestampMessage("Non-standard folder structure selected; this makes comparison with existing and future data impossible unless they have the same absolute file paths."));
-                    logs.add(timestampMessage("Initial setup complete."));
+                    if (useAbsPath) print("Non-standard folder structure selected; this makes comparison with existing and future data impossible unless they have the same absolute file paths.");
+                    print("Initial setup complete.");
                 } catch (Exception e) {
                     print("An error occurred while loading in data; stack trace below:");
                     List<String> messages = new ArrayList<>();
@@ -181,6 +240,9 @@ public class UIController {
      * Serializes current data in a new thread.
      * @param selected    the selected file from the file selector
      * @param changedOnly if true, export changed data only; else exports everything stored
+     * @param format      JSON is read by other tools, a binary snapshot loads fastest, and NDJSON can be processed a line
+     *                    at a time; NDJSON exports of changes are appended to the changes file in the directory
+     * @param codec       compression applied to JSON and NDJSON exports; snapshots are not compressed
      * @param selection   an int array of length 9, indicating which categories are to be exported: 0 = not exported, exported otherwise; index-category mapping as follows:
      *                    0: benches
      *                    1: collections
@@ -192,7 +254,7 @@ public class UIController {
      *                    7: skins
      *                    8: strings
      */
-    void serialize(File selected, boolean changedOnly, boolean usePrettyPrint, int[] selection) {
+    void serialize(File selected, boolean changedOnly, boolean usePrettyPrint, Enums.ExportFormat format, Codec codec, int[] selection) {
         Serializer s = new Serializer();
         Gson serializer = s.getSerializer(usePrettyPrint);
         if (selected != null) {
@@ -205,31 +267,29 @@ public class UIController {
                 protected Void call() {
                     String dirPath = selected.getAbsolutePath();
                     LocalDateTime currTime = LocalDateTime.now();
-                    String fileName = "trove-entities-" + (useRPathFlag ? "" : "ns-") + (changedOnly ? "changes " : "all ") + currTime.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmssSSS")) + ".json";
+                    String fileName = "trove-entities-" + (useRPathFlag ? "" : "ns-") + (changedOnly ? "changes " : "all ") + currTime.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmssSSS"));
                     try {
                         String path = dirPath + "\\" + fileName;
-                        JsonWriter writer = serializer.newJsonWriter(new BufferedWriter(new FileWriter(path)));
-                        writer.beginObject();
-                        if (selection[0] != 0)
-                            s.writeBenches(writer, serializer, changedOnly ? model.getChangedBenches() : model.getSessionBenches());
-                        if (selection[1] != 0)
-                            s.writeCollections(writer, serializer, changedOnly ? model.getChangedCollections() : model.getSessionCollections());
-                        if (selection[2] != 0)
-                            s.writeCollectionIndices(writer, serializer, changedOnly ? model.getChangedCollectionIndices() : model.getSessionCollectionIndices());
-                        if (selection[3] != 0)
-                            s.writeGearStyles(writer, serializer, changedOnly ? model.getChangedGearStyleTypes() : model.getSessionGearStyleTypes());
-                        if (selection[4] != 0)
-                            s.writeItems(writer, serializer, changedOnly ? model.getChangedItems() : model.getSessionItems());
-                        if (selection[5] != 0)
-                            s.writePlaceables(writer, serializer, changedOnly ? model.getChangedPlaceables() : model.getSessionPlaceables());
-                        if (selection[6] != 0)
-                            s.writeRecipes(writer, serializer, changedOnly ? model.getChangedRecipes() : model.getSessionRecipes());
-                        if (selection[7] != 0)
-                            s.writeSkins(writer, serializer, changedOnly ? model.getChangedSkins() : model.getSessionSkins());
-                        if (selection[8] != 0)
-                            s.writeStrings(writer, serializer, changedOnly ? new Strings("en", model.getChangedStrings()) : model.getSessionStrings());
-                        writer.endObject();
-                        writer.close();
+                        if (format == Enums.ExportFormat.SNAPSHOT) {
+                            path += Snapshot.EXTENSION;
+                            exportSnapshot(path, changedOnly, selection);
+                            hasExportedFlag = true;
+                            print("Data exported to " + path + (codec != Codec.NONE ? " (snapshots are not compressed)" : ""));
+                            return null;
+                        }
+                        if (format == Enums.ExportFormat.NDJSON) {
+                            // changes accumulate in one file, so that appending them is all a later export costs
+                            path = (changedOnly ? dirPath + "\\trove-entities-" + (useRPathFlag ? "" : "ns-") + "changes" : path) + Ndjson.EXTENSION + codec.getExtension();
+                            int count = exportNdjson(path, changedOnly, codec, selection);
+                            hasExportedFlag = true;
+                            print("Data exported to " + path + " (" + count + " lines" + (changedOnly ? " appended" : "") + ")");
+                            return null;
+                        }
+                        path += ".json" + codec.getExtension();
+                        // categories are serialized in parallel; the index at the start of the export lets them be loaded on their own later
+                        long start = System.currentTimeMillis();
+                        newShardedExport(serializer, changedOnly, selection).writeTo(Paths.get(path), codec);
+                        print("Export written by " + parseParallelism + " threads in " + (System.currentTimeMillis() - start) + " ms.");
                         hasExportedFlag = true;
                         print("Data exported to " + path);
                     } catch (Exception e) {
@@ -244,130 +304,310 @@ public class UIController {
         }
     }
 
-    void deserialize(String path) {
+    private void exportSnapshot(String path, boolean changedOnly, int[] selection) throws IOException {
+        Snapshot snapshot = new Snapshot();
+        if (selection[0] != 0)
+            snapshot.writeBenches(changedOnly ? model.getChangedBenches() : model.getSessionBenches());
+        if (selection[1] != 0)
+            snapshot.writeCollections(changedOnly ? model.getChangedCollections() : model.getSessionCollections());
+        if (selection[2] != 0)
+            snapshot.writeCollectionIndices(changedOnly ? model.getChangedCollectionIndices() : model.getSessionCollectionIndices());
+        if (selection[3] != 0)
+            snapshot.writeGearStyles(changedOnly ? model.getChangedGearStyleTypes() : model.getSessionGearStyleTypes());
+        if (selection[4] != 0)
+            snapshot.writeItems(changedOnly ? model.getChangedItems() : model.getSessionItems());
+        if (selection[5] != 0)
+            snapshot.writePlaceables(changedOnly ? model.getChangedPlaceables() : model.getSessionPlaceables());
+        if (selection[6] != 0)
+            snapshot.writeRecipes(changedOnly ? model.getChangedRecipes() : model.getSessionRecipes());
+        if (selection[7] != 0)
+            snapshot.writeSkins(changedOnly ? model.getChangedSkins() : model.getSessionSkins());
+        if (selection[8] != 0)
+            snapshot.writeStrings(changedOnly ? new Strings("en", model.getChangedStrings()) : model.getSessionStrings());
+        snapshot.writeTo(Paths.get(path));
+    }
+
+    private ShardedExport newShardedExport(Gson serializer, boolean changedOnly, int[] selection) {
+        ShardedExport export = new ShardedExport(serializer, parseParallelism);
+        if (selection[0] != 0)
+            export.addCategory("benches", changedOnly ? model.getChangedBenches() : model.getSessionBenches(), Bench.class);
+        if (selection[1] != 0)
+            export.addCategory("collections", changedOnly ? model.getChangedCollections() : model.getSessionCollections(), Collection.class);
+        if (selection[2] != 0)
+            export.addCategory("collection_indices", changedOnly ? model.getChangedCollectionIndices() : model.getSessionCollectionIndices(), CollectionIndex.class);
+        if (selection[3] != 0)
+            export.addCategory("gear_styles", changedOnly ? model.getChangedGearStyleTypes() : model.getSessionGearStyleTypes(), GearStyleType.class);
+        if (selection[4] != 0)
+            export.addCategory("items", changedOnly ? model.getChangedItems() : model.getSessionItems(), Item.class);
+        if (selection[5] != 0)
+            export.addCategory("placeables", changedOnly ? model.getChangedPlaceables() : model.getSessionPlaceables(), Placeable.class);
+        if (selection[6] != 0)
+            export.addCategory("recipes", changedOnly ? model.getChangedRecipes() : model.getSessionRecipes(), Recipe.class);
+        if (selection[7] != 0)
+            export.addCategory("skins", changedOnly ? model.getChangedSkins() : model.getSessionSkins(), Skin.class);
+        if (selection[8] != 0)
+            export.addStrings(changedOnly ? new Strings("en", model.getChangedStrings()) : model.getSessionStrings());
+        return export;
+    }
+
+    /**
+     * Writes the whole session with every codec in a new thread, and logs how large the export is and how long it takes
+     * to write and read with each.
+     */
+    void benchmarkExport(File selected, boolean usePrettyPrint) {
+        if (selected == null || !selected.isDirectory()) return;
+        Gson serializer = new Serializer().getSerializer(usePrettyPrint);
+        Task<Void> task = new Task<Void>() {
+            @Override
+            protected Void call() {
+                try {
+                    int[] selection = new int[Serializer.CATEGORIES.size()];
+                    Arrays.fill(selection, 1);
+                    print("Benchmarking export codecs in " + selected.getAbsolutePath() + "...");
+                    printList(new ExportBenchmark(newShardedExport(serializer, false, selection), serializer).run(selected.toPath(), 3));
+                } catch (Exception e) {
+                    print("Benchmark failed: " + e);
+                }
+                return null;
+            }
+        };
+        new Thread(task).start();
+    }
+
+    private int exportNdjson(String path, boolean changedOnly, Codec codec, int[] selection) throws IOException {
+        try (Ndjson ndjson = new Ndjson(Paths.get(path), changedOnly, codec)) {
+            if (selection[0] != 0)
+                ndjson.writeCategory("benches", changedOnly ? model.getChangedBenches() : model.getSessionBenches(), Bench.class);
+            if (selection[1] != 0)
+                ndjson.writeCategory("collections", changedOnly ? model.getChangedCollections() : model.getSessionCollections(), Collection.class);
+            if (selection[2] != 0)
+                ndjson.writeCategory("collection_indices", changedOnly ? model.getChangedCollectionIndices() : model.getSessionCollectionIndices(), CollectionIndex.class);
+            if (selection[3] != 0)
+                ndjson.writeCategory("gear_styles", changedOnly ? model.getChangedGearStyleTypes() : model.getSessionGearStyleTypes(), GearStyleType.class);
+            if (selection[4] != 0)
+                ndjson.writeCategory("items", changedOnly ? model.getChangedItems() : model.getSessionItems(), Item.class);
+            if (selection[5] != 0)
+                ndjson.writeCategory("placeables", changedOnly ? model.getChangedPlaceables() : model.getSessionPlaceables(), Placeable.class);
+            if (selection[6] != 0)
+                ndjson.writeCategory("recipes", changedOnly ? model.getChangedRecipes() : model.getSessionRecipes(), Recipe.class);
+            if (selection[7] != 0)
+                ndjson.writeCategory("skins", changedOnly ? model.getChangedSkins() : model.getSessionSkins(), Skin.class);
+            if (selection[8] != 0)
+                ndjson.writeStrings(changedOnly ? new Strings("en", model.getChangedStrings()) : model.getSessionStrings());
+            return ndjson.getCount();
+        }
+    }
+
+    void loadNdjson(String path, Set<String> categories) {
+        if (!new File(path).exists()) return;
+        try {
+            long start = System.currentTimeMillis();
+            int count = Ndjson.read(Paths.get(path), model, categories, parseParallelism);
+            print("Existing data loaded from " + path + " (" + count + " entries" + describeSkipped(categories) + ") in " + (System.currentTimeMillis() - start) + " ms.");
+        } catch (IOException | IllegalArgumentException e) {
+            print("Import failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            print("Import was interrupted; only part of " + path + " was loaded.");
+        }
+    }
+
+    void loadSnapshot(String path, Set<String> categories) {
+        if (!new File(path).exists()) return;
+        try {
+            long start = System.currentTimeMillis();
+            int count = Snapshot.read(Paths.get(path), model, categories);
+            print("Existing data loaded from " + path + " (" + count + " entries" + describeSkipped(categories) + ") in " + (System.currentTimeMillis() - start) + " ms.");
+        } catch (IOException | IllegalArgumentException e) {
+            print("Import failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the given categories of an export. Exports with an index are read only where the categories were written;
+     * older exports are read from the start, and the other categories are skipped without being decoded.
+     *
+     * @param categories names of the categories to load, as in {@link Serializer#CATEGORIES}
+     */
+    void deserialize(String path, Set<String> categories) {
         if (path == null || !new File(path).exists()) return;
         Serializer s = new Serializer();
         Gson serializer = s.getSerializer(false);
+        // the whole export becomes a single session version, which keeps what was read if the import fails
+        DataModel.SessionLoad load = model.beginSessionLoad();
         try {
-            JsonElement tree = JsonParser.parseReader(new FileReader(path));
-            tree.getAsJsonObject().entrySet().forEach(e -> {
-                String type = e.getKey();
-                e.getValue().getAsJsonObject().entrySet().forEach(v -> {
-                    switch (type) {
-                        case "benches":
-                            model.addArticleToSession(serializer.fromJson(v.getValue(), Bench.class), Enums.ObjectType.BENCH);
-                            break;
-                        case "collections":
-                            model.addArticleToSession(serializer.fromJson(v.getValue(), Collection.class), Enums.ObjectType.COLLECTION);
-                            break;
-                        case "collection_indices":
-                            model.addArticleToSession(serializer.fromJson(v.getValue(), CollectionIndex.class), Enums.ObjectType.COLL_INDEX);
-                            break;
-                        case "gear_styles":
-                            model.addArticleToSession(serializer.fromJson(v.getValue(), GearStyleType.class), Enums.ObjectType.GEAR_STYLE);
-                            break;
-                        case "items":
-                            model.addArticleToSession(serializer.fromJson(v.getValue(), Item.class), Enums.ObjectType.ITEM);
-                            break;
-                        case "placeables":
-                            model.addArticleToSession(serializer.fromJson(v.getValue(), Placeable.class), Enums.ObjectType.PLACEABLE);
-                            break;
-                        case "recipes":
-                            model.addArticleToSession(serializer.fromJson(v.getValue(), Recipe.class), Enums.ObjectType.RECIPE);
-                            break;
-                        case "skins":
-                            model.addArticleToSession(serializer.fromJson(v.getValue(), Skin.class), Enums.ObjectType.SKIN);
-                            break;
-                        case "strings":
-                            JsonObject obj = new JsonObject();
-                            obj.add(type, v.getValue());
-                            model.setSessionString(serializer.fromJson(obj, Strings.class));
-                            break;
-                        default:
-                            throw new IllegalArgumentException("No such type: " + type);
+            long start = System.currentTimeMillis();
+            int count = 0;
+            // compressed exports cannot be seeked, so they are always read from the start
+            Codec codec = Codec.forPath(path);
+            ExportIndex index = codec == Codec.NONE ? ExportIndex.read(Paths.get(path)) : null;
+            if (index != null) {
+                for (String category : Serializer.CATEGORIES) {
+                    if (!categories.contains(category) || index.get(category) == null) continue;
+                    try (JsonReader reader = index.openCategory(Paths.get(path), serializer, category)) {
+                        count += readCategory(reader, serializer, category, load);
                     }
-                });
-            });
-            print("Existing data loaded from " + path);
-        } catch (IOException | IllegalArgumentException e) {
-            print("Import failed due to an IOException; stack trace below:");
+                }
+            } else {
+                // entities are decoded one at a time straight off the file, so the export is never held in memory as a whole
+                try (JsonReader reader = serializer.newJsonReader(new BufferedReader(new InputStreamReader(Codec.newInputStream(new File(path), codec), Charset.defaultCharset())))) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String category = reader.nextName();
+                        if (categories.contains(category)) count += readCategory(reader, serializer, category, load);
+                        else reader.skipValue();
+                    }
+                    reader.endObject();
+                }
+            }
+            print("Existing data loaded from " + path + " (" + count + " entries" + describeSkipped(categories) + ") in " + (System.currentTimeMillis() - start) + " ms.");
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            print("Import failed: " + e + "; stack trace below:");
             List<String> errorList = Arrays.stream(e.getStackTrace()).map(StackTraceElement::toString).collect(Collectors.toList());
             printList(errorList);
+        } finally {
+            load.commit();
         }
     }
 
-    void setupLogger(ListView<String> logger) {
-        ObservableList<String> loggerItems = FXCollections.observableArrayList(logs);
-        logs.addListener((ListChangeListener<String>) c -> {
-            if (c.next()) {
-                if (c.wasAdded()) {
-                    Platform.runLater(() -> loggerItems.addAll(c.getAddedSubList()));
-                }
-                else if (c.wasRemoved()) {
-                    Platform.runLater(() -> loggerItems.removeAll(c.getRemoved()));
-                }
-            }
-        });
-        logger.setItems(loggerItems);
+    private static String describeSkipped(Set<String> categories) {
+        List<String> skipped = Serializer.CATEGORIES.stream().filter(c -> !categories.contains(c)).collect(Collectors.toList());
+        return skipped.isEmpty() ? "" : "; skipped " + String.join(", ", skipped);
     }
 
-    boolean safeToClose() {
-        return model.hasNoUnmergedChanges() && (model.hasNoMergedPaths() || hasExportedFlag);
+    /**
+     * Reads the value of one category of an export into the session.
+     *
+     * @return the number of entities read
+     */
+    private int readCategory(JsonReader reader, Gson serializer, String category, DataModel.SessionLoad load) throws IOException {
+        switch (category) {
+            case "benches":
+                return readArticles(reader, serializer.getAdapter(Bench.class), Enums.ObjectType.BENCH, load);
+            case "collections":
+                return readArticles(reader, serializer.getAdapter(Collection.class), Enums.ObjectType.COLLECTION, load);
+            case "collection_indices":
+                return readArticles(reader, serializer.getAdapter(CollectionIndex.class), Enums.ObjectType.COLL_INDEX, load);
+            case "gear_styles":
+                return readArticles(reader, serializer.getAdapter(GearStyleType.class), Enums.ObjectType.GEAR_STYLE, load);
+            case "items":
+                return readArticles(reader, serializer.getAdapter(Item.class), Enums.ObjectType.ITEM, load);
+            case "placeables":
+                return readArticles(reader, serializer.getAdapter(Placeable.class), Enums.ObjectType.PLACEABLE, load);
+            case "recipes":
+                return readArticles(reader, serializer.getAdapter(Recipe.class), Enums.ObjectType.RECIPE, load);
+            case "skins":
+                return readArticles(reader, serializer.getAdapter(Skin.class), Enums.ObjectType.SKIN, load);
+            case "strings":
+                Strings strings = serializer.getAdapter(Strings.class).read(reader);
+                load.setStrings(strings);
+                return strings.getStrings().size();
+            default:
+                throw new IllegalArgumentException("No such type: " + category);
+        }
     }
 
-    // PARSING
-
-    CheckBoxTreeItem<String> getParseTree(String path, Enums.ObjectType type) {
-        File dir = new File(path);   // since presenter checks that the input path is a directory, we can assume that here
-        List<String> paths = Arrays.stream(Objects.requireNonNull(dir.listFiles()))
-                .map(File::getPath).filter(value -> value.contains(filter)).collect(Collectors.toList());
-
-        CheckBoxTreeItem<String> rootItem = new CheckBoxTreeItem<>(path);
-        rootItem.setExpanded(false);
-        List<CheckBoxTreeItem<String>> nonDirectories = new ArrayList<>();
-        for (String subPath : paths) {
+    /**
+     * Reads one category of an export, adding each entity to the load as soon as it is decoded.
+     *
+     * @return the number of entities read
+     */
+    private <T extends Article> int readArticles(JsonReader reader, TypeAdapter<T> adapter, Enums.ObjectType type, DataModel.SessionLoad load) throws IOException {
+        int count = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            reader.nextName();
+            load.add(adapter.read(reader), type);
+            count++;
+        }
+        reader.endObject();
+        return count;
+    }
 
-            // if directory, recursively call the method and add them all to root; note if the sub-directory has no valid files, it gets omitted
-            if (new File(subPath).isDirectory()) {
-                CheckBoxTreeItem<String> subDir = getParseTree(subPath, type);
+    void setupLogger(ListView<String> logger) {
+        logger.setItems(logs);
+    }
 
-                if (!subDir.isLeaf()) {
-                    rootItem.getChildren().add(getParseTree(subPath, type));
-                }
-            }
+    /**
+     * Moves what was logged since the last flush to the view, and spills the oldest lines once the view holds more than
+     * {@link #MAX_LOG_LINES}. Runs on the FX thread.
+     */
+    void flushLogs() {
+        logFlushPending.set(false);
+        List<String> batch = new ArrayList<>();
+        if (logSink.drainTo(batch) == 0) return;
+        logs.addAll(batch);
+        int excess = logs.size() - MAX_LOG_LINES;
+        if (excess > 0) {
+            logSink.spillAll(new ArrayList<>(logs.subList(0, excess)));
+            logs.remove(0, excess);
+        }
+    }
 
-            // else, add path to list if it has the filter keyword
-            else {
-                // if npcCheck passes and contains filter word, we process the item
-                boolean npcCheck = !type.equals(Enums.ObjectType.COLLECTION) || !subPath.contains("_npc");
-                if (subPath.contains(filter) && npcCheck) {
-                    CheckBoxTreeItem<String> item = new CheckBoxTreeItem<>(subPath);
-
-                    // add items to selectedPaths to be parsed later
-                    item.selectedProperty().addListener(event -> {
-                        if (item.isSelected()) {
-                            selectedPathsToParse.add(item.getValue());
-                        } else {
-                            selectedPathsToParse.remove(item.getValue());
-                        }
+    boolean safeToClose() {
+        return model.hasNoUnmergedChanges() && (model.hasNoMergedPaths() || hasExportedFlag);
+    }
 
-                    });
-                    nonDirectories.add(item);
-                }
-            }
+    /**
+     * Stops the background work of the controller as the application exits. Lines that were not shown yet are spilled,
+     * so that the spill file keeps them once the log sink is closed. Runs on the FX thread.
+     */
+    void stop() {
+        logFlusher.shutdownNow();
+        searchExecutor.shutdownNow();
+        List<String> batch = new ArrayList<>();
+        logSink.drainTo(batch);
+        logSink.spillAll(batch);
+        try {
+            logSink.close();
+        } catch (IOException ignored) {
+            // the application is exiting, so there is nowhere left to report to
         }
+    }
 
-        // add all the non-directories back in; this is done instead of adding the items in at processing time to show the directories first
-        rootItem.getChildren().addAll(nonDirectories);
+    // PARSING
+
+    /**
+     * Builds the tree of the files the filter and the parse type let through. Only the index is read, and items are
+     * created as the tree is expanded. Ticked items are added to the selection of the root, to be parsed later.
+     */
+    IndexTreeItem getParseTree(DirectoryIndex index, Enums.ObjectType type) {
+        // collections of NPCs are not parsed as collections
+        DirectoryIndex.View view = index.filter(filter, path -> !type.equals(Enums.ObjectType.COLLECTION) || !path.contains("_npc"));
+        IndexTreeItem rootItem = new IndexTreeItem(view.newSelection(), view.getRoot());
+        rootItem.setExpanded(false);
         return rootItem;
     }
 
-    void updateParseTree(Enums.ObjectType type, TreeView<String> tree, TextField directory) {
+    /**
+     * @param reindex whether to walk the directory again; otherwise the index of the directory is reused if it has one
+     */
+    void updateParseTree(Enums.ObjectType type, TreeView<String> tree, TextField directory, boolean reindex) {
+        String path = directory.getText();
         Task<Void> task = new Task<Void>() {
             @Override
             protected Void call() {
-                CheckBoxTreeItem<String> treeRoot = getParseTree(directory.getText(), type);
-                Platform.runLater(() -> tree.setRoot(treeRoot));
+                DirectoryIndex index = parseIndex;
+                if (reindex || index == null || !index.getRoot().getPath().equals(path)) {
+                    long start = System.currentTimeMillis();
+                    try {
+                        index = DirectoryIndex.build(path, parseParallelism);
+                    } catch (IOException e) {
+                        print("Indexing " + path + " failed: " + e.getMessage());
+                        return null;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    }
+                    parseIndex = index;
+                    print("Indexed " + (index.size() - 1) + " files and directories in " + path + " in " + (System.currentTimeMillis() - start) + " ms.");
+                }
+                IndexTreeItem treeRoot = getParseTree(index, type);
+                // the selection is only ever used on the FX thread, so it is handed over there along with the tree
+                Platform.runLater(() -> {
+                    selectedPathsToParse = treeRoot.getSelection();
+                    tree.setRoot(treeRoot);
+                });
                 return null;
             }
         };
@@ -378,14 +618,15 @@ public class UIController {
         String selected = loadDirectory(stage, "Select the location to extract data from.");
         if (selected != null) {
             directory.setText(selected);
-            updateParseTree(type, tree, directory);
+            updateParseTree(type, tree, directory, true);
         }
     }
 
     void updateParseDirectory(TextField filterField, TextField directory, TreeView<String> tree, Enums.ObjectType type) {
         filter = filterField.getText();
+        // the filter is applied to the index of the directory, which is not walked again
         if (directory.getText() != null) {
-            updateParseTree(type, tree, directory);
+            updateParseTree(type, tree, directory, false);
         }
     }
 
@@ -395,6 +636,18 @@ public class UIController {
         typeSelect.getSelectionModel().selectFirst();
     }
 
+    void setExportFormats(ComboBox<Enums.ExportFormat> formatSelect) {
+        formatSelect.setItems(FXCollections.observableArrayList(Enums.ExportFormat.values()));
+        formatSelect.getSelectionModel().selectFirst();
+    }
+
+    void setParseThreadCounts(ComboBox<Integer> threadSelect) {
+        ObservableList<Integer> counts = FXCollections.observableArrayList();
+        for (int i = 1; i <= Runtime.getRuntime().availableProcessors(); i++) counts.add(i);
+        threadSelect.setItems(counts);
+        threadSelect.getSelectionModel().select(Integer.valueOf(parseParallelism));
+    }
+
     public void parse(ProgressBar progressBar, Text progressText, String typeString) {
         Enums.ObjectType type = Enums.ObjectType.getType(typeString);
         Task<Void> task = getParseTask(type);
@@ -404,7 +657,7 @@ public class UIController {
         new Thread(() -> {
             task.run();
             Platform.runLater(() -> {
-                selectedPathsToParse.clear();
+                clearSelectedPaths();
                 if (!failedParsePaths.isEmpty()) {
                     failedParsePaths.clear();
                 }
@@ -413,27 +666,38 @@ public class UIController {
     }
 
     public Task<Void> getParseTask(Enums.ObjectType type) {
+        // copied here, on the FX thread, so that ticking items while parsing does not change what is parsed
+        java.util.Collection<String> paths = selectedPathsToParse == null ? Collections.emptyList() : selectedPathsToParse.copy();
         return new Task<Void>() {
             @Override
             protected Void call() {
                 // clear out old failed paths
                 failedParsePaths.clear();
+                Patterns.resetCounts();
+                ParseCache cache = model.getParseCache();
+                if (cache != null) cache.resetCounts();
 
                 // begin parsing
                 List<String> parseLogs = new ArrayList<>();
-                int selectedPathsLength = selectedPathsToParse.size();
-                print("Parsing " + selectedPathsLength + " objects using parser for " + type.toString().toLowerCase() + ".");
-                for (int i = 0; i < selectedPathsLength; i++) {
-                    updateMessage("Parsing " + type + ": " + (i + 1) + "/" + selectedPathsLength);
-                    updateProgress(i, selectedPathsLength);
-                    try {
-                        model.createObject(selectedPathsToParse.get(i), type, useRPathFlag);
-                    } catch (IOException | ParseException e) {
-                        parseLogs.add(timestampMessage("Parse failure: " + e.getMessage()));
-                        failedParsePaths.add(selectedPathsToParse.get(i));
+                int selectedPathsLength = paths.size();
+                print("Parsing " + selectedPathsLength + " objects using parser for " + type.toString().toLowerCase() + " on " + parseParallelism + " threads.");
+                ParseEngine engine = new ParseEngine(model, parseParallelism);
+                try {
+                    ParseEngine.Result result = engine.parse(paths, type, useRPathFlag, (done, total) -> {
+                        updateMessage("Parsing " + type + ": " + done + "/" + total);
+                        updateProgress(done, total);
+                    });
+                    for (int i = 0; i < result.getFailedPaths().size(); i++) {
+                        parseLogs.add(timestampMessage("Parse failure: " + result.getMessages().get(i)));
+                        failedParsePaths.add(result.getFailedPaths().get(i));
                     }
+                } catch (InterruptedException e) {
+                    parseLogs.add(timestampMessage("Parsing was interrupted."));
+                    Thread.currentThread().interrupt();
                 }
                 parseLogs.add(timestampMessage("Parsing completed."));
+                if (cache != null) parseLogs.add(timestampMessage(cache.getReport()));
+                Patterns.getReport().forEach(line -> parseLogs.add(timestampMessage(line)));
                 printListPlain(parseLogs);
                 updateMessage("Parsing complete.");
                 updateProgress(selectedPathsLength, selectedPathsLength);
@@ -443,28 +707,76 @@ public class UIController {
         };
     }
 
+    /**
+     * Diffs two dumps of the game, chosen one after the other, and parses whatever changed between them.
+     */
+    void checkForUpdates(Stage stage, ProgressBar progressBar, Text progressText) {
+        String oldPath = loadDirectory(stage, "Select the directory of the older dump.");
+        if (oldPath == null) return;
+        String newPath = loadDirectory(stage, "Select the directory of the newer dump.");
+        if (newPath == null) return;
+
+        Task<Void> task = getUpdateCheckTask(oldPath, newPath);
+        progressBar.progressProperty().bind(task.progressProperty());
+        progressText.textProperty().bind(task.messageProperty());
+        new Thread(task).start();
+    }
+
+    public Task<Void> getUpdateCheckTask(String oldPath, String newPath) {
+        return new Task<Void>() {
+            @Override
+            protected Void call() {
+                print("Comparing " + oldPath + " to " + newPath + " on " + parseParallelism + " threads.");
+                DifferenceChecker checker = new DifferenceChecker(model, parseParallelism);
+                try {
+                    DifferenceChecker.Report report = checker.UpdateChecker(oldPath, newPath, useRPathFlag, (done, total) -> {
+                        updateMessage("Checking for updates: " + done + "/" + total);
+                        updateProgress(done, total);
+                    });
+                    printList(report.getSummary());
+                    updateMessage("Update check complete.");
+                } catch (InterruptedException e) {
+                    print("Update check was interrupted.");
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    print("Update check failed: " + e.getMessage());
+                    updateMessage("Update check failed.");
+                }
+                return null;
+            }
+        };
+    }
+
+    int getParseParallelism() {
+        return parseParallelism;
+    }
+
+    void setParseParallelism(int parseParallelism) {
+        this.parseParallelism = Math.max(parseParallelism, 1);
+    }
+
     String getFilterText() {
         return filter;
     }
 
     void clearSelectedPaths() {
-        selectedPathsToParse.clear();
+        if (selectedPathsToParse != null) selectedPathsToParse.clear();
     }
 
     // LOGGING
 
+    // these can be called from any thread, and never block
+
     void print(String message) {
-        logs.add(timestampMessage(message));
+        logSink.log(timestampMessage(message));
     }
 
     void printList(List<String> messages) {
-        List<String> messagesToLog = new ArrayList<>();
-        messages.forEach(m -> messagesToLog.add(timestampMessage(m)));
-        logs.addAll(messagesToLog);
+        messages.forEach(m -> logSink.log(timestampMessage(m)));
     }
 
     void printListPlain(List<String> messages) {
-        logs.addAll(messages);
+        logSink.logAll(messages);
     }
 
     String timestampMessage(String message) {
@@ -484,16 +796,27 @@ public class UIController {
         }
     }
 
-    void rScreenSetupDataViews(String[] types, ComboBox<String> cb, ListView<String> lv) {
+    void rScreenSetupDataViews(String[] types, ComboBox<String> cb, TextField search, ListView<String> lv, ListView<String> diffView) {
         selectedPathsToMerge.clear();
+        reviewQuery = search.getText();
         cb.setItems(FXCollections.observableArrayList(types));
         cb.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             selectedPathsToMerge.clear();
-            lv.setItems(getChangedObjectPaths(newValue).sorted());
+            showChangedPaths(newValue, lv);
+        });
+        search.textProperty().addListener((observable, oldValue, newValue) -> {
+            reviewQuery = newValue;
+            showChangedPaths(cb.getValue(), lv);
+        });
+        // the diff of a path is only computed once it is selected
+        lv.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue == null || cb.getValue() == null) diffView.getItems().clear();
+            else diffView.setItems(getChangeSummary(cb.getValue(), newValue));
         });
 
         lv.setCellFactory(CheckBoxListCell.forListView(item -> {
-            BooleanProperty observable = new SimpleBooleanProperty();
+            // paths stay checked while the search changes around them
+            BooleanProperty observable = new SimpleBooleanProperty(selectedPathsToMerge.contains(item));
             observable.addListener((obs, wasSelected, isNowSelected) -> {
                 if (isNowSelected) selectedPathsToMerge.add(item);
                 else selectedPathsToMerge.remove(item);
@@ -502,7 +825,7 @@ public class UIController {
         }));
     }
 
-    void rScreenSetupActionButtons(Button mergeButton, Button undoButton, ComboBox<String> typeText, ListView<String> lv) {
+    void rScreenSetupActionButtons(Button mergeButton, Button undoButton, Button redoButton, Button historyButton, ComboBox<String> typeText, ListView<String> lv) {
         mergeButton.setOnAction(e -> {
             if (typeText.getValue() == null || typeText.getValue().equals("") || selectedPathsToMerge.size() == 0)
                 return;
@@ -518,83 +841,127 @@ public class UIController {
             new Thread(() -> {
                 task.run();
                 selectedPathsToMerge.clear();
-                Platform.runLater(() -> lv.setItems(getChangedObjectPaths(typeText.getValue()).sorted()));
+                Platform.runLater(() -> refreshChangedPaths(typeText.getValue(), lv));
                 print("Merged " + pathCount + " object" + (pathCount != 1 ? "s" : "") + " to session data.");
             }).start();
         });
         undoButton.setOnAction(e -> {
-            if (mementos.isEmpty()) return;
-            Task<Void> task = new Task<Void>() {
-                @Override
-                protected Void call() {
-                    unmerge();
-                    return null;
+            if (!model.canUndo()) return;
+            new Thread(() -> {
+                SessionHistory.Version undone;
+                try {
+                    undone = model.undo();
+                } catch (IllegalStateException ex) {
+                    // another click got there first
+                    return;
                 }
-            };
+                selectedPathsToMerge.clear();
+                Platform.runLater(() -> refreshChangedPaths(typeText.getValue(), lv));
+                print("Reverted " + undone + ".");
+            }).start();
+        });
+        redoButton.setOnAction(e -> {
+            if (!model.canRedo()) return;
             new Thread(() -> {
-                task.run();
+                SessionHistory.Version redone;
+                try {
+                    redone = model.redo();
+                } catch (IllegalStateException ex) {
+                    // another click got there first
+                    return;
+                }
                 selectedPathsToMerge.clear();
-                Platform.runLater(() -> lv.setItems(getChangedObjectPaths(typeText.getValue()).sorted()));
-                print("Reverted previous merge.");
+                Platform.runLater(() -> refreshChangedPaths(typeText.getValue(), lv));
+                print("Redid " + redone + ".");
             }).start();
         });
+        historyButton.setOnAction(e -> {
+            print("Session versions, oldest first (* is the current one):");
+            printListPlain(model.getHistoryReport());
+        });
     }
 
-    ObservableList<String> getChangedObjectPaths(String type) {
-        switch (Enums.ObjectType.getType(type)) {
-            case BENCH:
-                return FXCollections.observableArrayList(model.getChangedBenches().keySet());
-            case COLLECTION:
-                return FXCollections.observableArrayList(model.getChangedCollections().keySet());
-            case COLL_INDEX:
-                return FXCollections.observableArrayList(model.getChangedCollectionIndices().keySet());
-            case GEAR_STYLE:
-                return FXCollections.observableArrayList(model.getChangedGearStyleTypes().keySet());
-            case ITEM:
-                return FXCollections.observableArrayList(model.getChangedItems().keySet());
-            case PLACEABLE:
-                return FXCollections.observableArrayList(model.getChangedPlaceables().keySet());
-            case RECIPE:
-                return FXCollections.observableArrayList(model.getChangedRecipes().keySet());
-            case SKIN:
-                return FXCollections.observableArrayList(model.getChangedSkins().keySet());
-            case LANG_FILE:
-                return FXCollections.observableArrayList(model.getChangedStrings().keySet());
-            default:
-                throw new IllegalArgumentException("No such type: " + type);
-        }
+    /**
+     * Lets the number of session versions kept for undoing be chosen. Fewer versions keep less of the session data in
+     * memory; the oldest are dropped first.
+     */
+    void rScreenSetupHistoryLimit(ComboBox<Integer> historyLimit) {
+        ObservableList<Integer> limits = FXCollections.observableArrayList(10, 25, 50, 100, 250);
+        historyLimit.setItems(limits);
+        historyLimit.getSelectionModel().select(Integer.valueOf(model.getRetainedVersions()));
+        historyLimit.setOnAction(e -> {
+            if (historyLimit.getValue() == null) return;
+            model.setRetainedVersions(historyLimit.getValue());
+            print("Keeping up to " + historyLimit.getValue() + " session versions.");
+        });
     }
 
-    void merge(Set<String> pathsToMerge, Enums.ObjectType type) {
-        List<Article> oldArticles = new ArrayList<>();
-        List<String> newPaths = new ArrayList<>();
-        pathsToMerge.forEach(p -> {
-            Article sessionObj = getObject(p, type, false);
-            if (sessionObj != null) {
-                oldArticles.add(sessionObj);
-            } else {
-                newPaths.add(p);
+    /**
+     * Shows the changed paths of the type that match the search, or all of them if nothing is searched for. Searching
+     * runs off the FX thread, and each call cancels the search before it, so typing never waits on the results of
+     * earlier keystrokes.
+     */
+    void showChangedPaths(String type, ListView<String> lv) {
+        if (pendingSearch != null) pendingSearch.cancel(true);
+        pendingSearch = null;
+        long generation = ++searchGeneration;
+        if (type == null) return;
+        if (reviewQuery.isEmpty()) {
+            lv.setItems(getChangedObjectPaths(type));
+            return;
+        }
+        Enums.ObjectType objectType = Enums.ObjectType.getType(type);
+        String query = reviewQuery;
+        pendingSearch = searchExecutor.submit(() -> {
+            try {
+                List<String> results = model.searchChangedPaths(objectType, query);
+                // a search that finished just as another started is not shown
+                Platform.runLater(() -> {
+                    if (generation == searchGeneration) lv.setItems(FXCollections.observableArrayList(results));
+                });
+            } catch (InterruptedException e) {
+                // typed over
             }
-            model.addArticleToSession(getObject(p, type, true), type);
-            model.removeArticle(p, type, true);
-            model.addMergedPath(p, type);
         });
-        mementos.push(new MergeMemento(oldArticles, newPaths, type));
     }
 
-    void unmerge() {
-        MergeMemento prevAction = mementos.pop();
-        Enums.ObjectType type = prevAction.getMementoType();
-        List<Article> mementosToUndo = prevAction.getState();
-        List<String> pathsToRemove = prevAction.getNewPaths();
-        mementosToUndo.forEach(a -> {
-            model.addArticleToChanges(getObject(a.getRPath(), type, false), type, true);
-            model.addArticleToSession(a, type);
-        });
-        pathsToRemove.forEach(p -> {
-            model.addArticleToChanges(getObject(p, type, false), type, true);
-            model.removeArticle(p, type, false);
-        });
+    // after a merge or undo; the full list already follows the changes, but search results are searched for again
+    private void refreshChangedPaths(String type, ListView<String> lv) {
+        if (reviewQuery.isEmpty()) lv.refresh();
+        else showChangedPaths(type, lv);
+    }
+
+    /**
+     * @return the fields of the changed article at the path that differ from the session article, one per line
+     */
+    ObservableList<String> getChangeSummary(String type, String path) {
+        Enums.ObjectType objectType = Enums.ObjectType.getType(type);
+        List<ArticleDiff.Change> changes;
+        boolean isNew;
+        if (objectType == Enums.ObjectType.LANG_FILE) {
+            changes = articleDiff.diffString(model.getSessionStrings().getString(path), model.getChangedStrings().get(path));
+            isNew = !model.getSessionStrings().hasString(path);
+        } else {
+            Article sessionObj = getObject(path, objectType, false);
+            changes = articleDiff.diff(objectType.toString(), path, sessionObj, getObject(path, objectType, true));
+            isNew = sessionObj == null;
+        }
+        ObservableList<String> lines = FXCollections.observableArrayList();
+        if (isNew) lines.add("New " + objectType.toString().toLowerCase() + ".");
+        if (changes.isEmpty()) lines.add("No differences from session data.");
+        changes.forEach(c -> lines.add(c.toString()));
+        return lines;
+    }
+
+    /**
+     * @return the sorted paths of the changes of the type, which follow the changes as they are made
+     */
+    ObservableList<String> getChangedObjectPaths(String type) {
+        return model.getChangedPaths(Enums.ObjectType.getType(type));
+    }
+
+    void merge(Set<String> pathsToMerge, Enums.ObjectType type) {
+        model.merge(type, new ArrayList<>(pathsToMerge));
     }
 
     private Article getObject(String path, Enums.ObjectType type, boolean getChanged) {
@@ -624,28 +991,4 @@ public class UIController {
                 throw new IllegalArgumentException("No such type: " + type);
         }
     }
-
-    private static class MergeMemento {
-        private final Enums.ObjectType type;
-        private final List<Article> state;
-        private final List<String> newPaths = new ArrayList<>(); // paths that did not exist before the change
-
-        private MergeMemento(List<Article> object, List<String> newPaths, Enums.ObjectType type) {
-            this.type = type;
-            this.state = object;
-            this.newPaths.addAll(newPaths);
-        }
-
-        private Enums.ObjectType getMementoType() {
-            return type;
-        }
-
-        private List<Article> getState() {
-            return state;
-        }
-
-        private List<String> getNewPaths() {
-            return newPaths;
-        }
-    }
 }